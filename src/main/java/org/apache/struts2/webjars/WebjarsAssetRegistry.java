@@ -0,0 +1,855 @@
+package org.apache.struts2.webjars;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.DeflaterOutputStream;
+
+import javax.servlet.ServletContext;
+
+import org.apache.struts2.webjars.asset.AssetBody;
+import org.apache.struts2.webjars.asset.AssetResolution;
+import org.apache.struts2.webjars.asset.CompressedVariant;
+import org.apache.struts2.webjars.asset.DeflatePassthroughVariant;
+import org.apache.struts2.webjars.asset.WebjarsAsset;
+import org.apache.struts2.webjars.cache.AssetBodyCache;
+import org.apache.struts2.webjars.cache.BufferAllocator;
+import org.apache.struts2.webjars.cache.DirectBufferArena;
+import org.apache.struts2.webjars.cache.DiskAssetStore;
+import org.apache.struts2.webjars.cache.HeapBufferAllocator;
+import org.apache.struts2.webjars.cache.NegativeLookupCache;
+import org.apache.struts2.webjars.cache.SingleFlight;
+import org.apache.struts2.webjars.http.CachePolicy;
+import org.apache.struts2.webjars.http.CompressionPolicy;
+import org.apache.struts2.webjars.http.ContentEncodings;
+import org.apache.struts2.webjars.http.MimeTypes;
+import org.apache.struts2.webjars.index.WebjarsAssetIndex;
+import org.apache.struts2.webjars.io.DeflaterPool;
+import org.apache.struts2.webjars.io.InflaterPool;
+import org.apache.struts2.webjars.io.IoExecutors;
+import org.apache.struts2.webjars.io.JarEntryLocator;
+import org.apache.struts2.webjars.io.PooledGzipOutputStream;
+import org.apache.struts2.webjars.io.Transfers;
+import org.apache.struts2.webjars.matcher.CompiledPathMatcher;
+import org.apache.struts2.webjars.matcher.PathMatcher;
+import org.apache.struts2.webjars.utils.IOUtils;
+import org.apache.struts2.webjars.utils.ResourceUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.webjars.MultipleMatchesException;
+import org.webjars.WebJarAssetLocator;
+
+/**
+ *
+ * @className	： WebjarsAssetRegistry
+ * @description	： 进程级共享的 WebJars 资源注册表：WebJarAssetLocator 只扫描一次类路径并构建只读的 {@link WebjarsAssetIndex}，
+ *              {@link WebjarsStreamResult}、{@link WebjarsResourceFilter} 与 WebjarsRequestInterceptor 共用同一实例及索引。
+ *              实例保存在 ServletContext 属性中；没有 ServletContext 时退化为类级单例。
+ *              配置了 {@link WebjarsSettings#CACHE_MAX_SIZE} 时，资源内容缓存在 {@link AssetBodyCache} 中，热点资源无需再读取 jar；
+ *              {@link WebjarsSettings#CACHE_STORAGE} 决定缓存内容存放在堆内、堆外，或解压到磁盘由 {@link DiskAssetStore} 输出。
+ *              资源的 gzip 版本只压缩一次，按相同的存储方式缓存；jar 中预先压缩好的同名 .gz/.br 条目直接输出，不再压缩；
+ *              DEFLATE 压缩的 jar 条目直接以原始压缩数据加上 gzip 头尾输出，既不解压也不压缩。
+ *              压缩与读取 jar 条目使用的 Deflater/Inflater 取自 {@link DeflaterPool}、{@link InflaterPool}，不再每次新建。
+ *              开启预压缩时由 {@link WebjarsPrecompressor} 在启动时或后台按较高的级别压缩全部可压缩资源。
+ *              异步读取冷资源的 I/O 线程池由注册表持有，Web 应用停止时（{@link #destroy(ServletContext)}）与预压缩任务一起关闭，缓存随之清空。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 上午10:12:36
+ * @version 	V1.0
+ */
+public class WebjarsAssetRegistry {
+
+	/** ServletContext 中保存注册表的属性名 */
+	public static final String REGISTRY_ATTRIBUTE = WebjarsAssetRegistry.class.getName() + ".REGISTRY";
+
+	protected static final Logger LOG = LoggerFactory.getLogger(WebjarsAssetRegistry.class);
+
+	private static volatile WebjarsAssetRegistry defaultRegistry;
+
+	protected final PathMatcher pathMatcher = new CompiledPathMatcher();
+
+	protected final WebjarsSettings settings;
+
+	protected final WebjarsAssetIndex assetIndex;
+
+	/** 资源完整路径 -> 资源元数据，键只来自索引，因此数量有上限 */
+	protected final ConcurrentMap<String, WebjarsAsset> assets = new ConcurrentHashMap<String, WebjarsAsset>();
+
+	/** 合并同一资源元数据的并发读取 */
+	protected final SingleFlight<String, WebjarsAsset> assetLoads = new SingleFlight<String, WebjarsAsset>();
+
+	protected final AssetBodyCache bodyCache;
+
+	/** 合并同一资源内容的并发加载：部署后大量并发请求同一个冷资源时只读取、解压一次 */
+	protected final SingleFlight<String, byte[]> bodyLoads = new SingleFlight<String, byte[]>();
+
+	protected final DiskAssetStore diskStore;
+
+	/** 内存存储方式下 DEFLATE 条目的 Range 请求使用的解压目录，首次需要时创建；disk 存储方式下即为 diskStore */
+	protected volatile DiskAssetStore rangeStore;
+
+	/** 不存在的请求路径，过滤器按 webjar 限定的查找使用 "webjar:path" 作为键 */
+	protected final NegativeLookupCache negativeCache;
+
+	/** 全局的 Cache-Control 策略 */
+	protected final CachePolicy cachePolicy;
+
+	/** 全局的压缩策略，资源的内容类型是否可压缩在创建元数据时按它判断 */
+	protected final CompressionPolicy compressionPolicy;
+
+	/** 资源 gzip 版本的内存缓存，disk 存储方式下为 null */
+	protected final AssetBodyCache variantCache;
+
+	/** 合并同一资源的并发压缩 */
+	protected final SingleFlight<String, byte[]> variantLoads = new SingleFlight<String, byte[]>();
+
+	/** 定位 jar 条目原始压缩数据的位置，用于直接输出压缩数据及使用池中的 Inflater 解压 */
+	protected final JarEntryLocator entryLocator = new JarEntryLocator();
+
+	/** 是否直接输出 DEFLATE 条目的原始压缩数据 */
+	protected final boolean compressionPassthrough;
+
+	protected final DeflaterPool deflaterPool = DeflaterPool.getShared();
+
+	protected final InflaterPool inflaterPool = InflaterPool.getShared();
+
+	/** 异步读取冷资源的 I/O 线程池 */
+	protected final ExecutorService ioExecutor;
+
+	/** 预压缩任务，未开启时为 null */
+	protected final WebjarsPrecompressor precompressor;
+
+	protected WebjarsAssetRegistry(WebjarsSettings settings) {
+		long start = System.currentTimeMillis();
+		this.settings = settings;
+		// WebJarAssetLocator 仅用于启动时扫描类路径，索引建好后即可回收
+		this.assetIndex = WebjarsAssetIndex.build(new WebJarAssetLocator().getFullPathIndex().values());
+		if (WebjarsSettings.STORAGE_DISK.equals(settings.getCacheStorage())) {
+			this.bodyCache = null;
+			this.variantCache = null;
+			this.diskStore = createDiskStore(settings.getCacheDirectory());
+			LOG.info("Webjars assets are extracted to {}", diskStore.getDirectory());
+		} else {
+			this.bodyCache = createBodyCache(settings, settings.getCacheMaxSize(), assetIndex.size());
+			// 全局关闭压缩时路由仍可单独开启，压缩缓存只取决于其容量
+			this.variantCache = createBodyCache(settings, settings.getCompressionCacheMaxSize(), assetIndex.size());
+			this.diskStore = null;
+			if (bodyCache != null) {
+				LOG.info("Webjars asset cache enabled: {} bytes, {} storage", bodyCache.getMaxSize(), settings.getCacheStorage());
+			}
+			if (variantCache != null) {
+				LOG.info("Webjars compressed asset cache enabled: {} bytes", variantCache.getMaxSize());
+			}
+		}
+		this.negativeCache = settings.getNegativeCacheMaxSize() > 0
+				? new NegativeLookupCache(settings.getNegativeCacheMaxSize(), settings.getNegativeCacheTtl()) : null;
+		this.cachePolicy = settings.getCachePolicy();
+		this.compressionPolicy = settings.getCompressionPolicy();
+		this.compressionPassthrough = settings.isCompressionPassthrough();
+		this.ioExecutor = IoExecutors.create(settings.getAsyncQueueSize());
+		LOG.info("Webjars asset registry indexed {} assets in {} ms", assetIndex.size(), System.currentTimeMillis() - start);
+		this.precompressor = createPrecompressor(settings);
+		if (precompressor != null) {
+			if (WebjarsSettings.PRECOMPRESS_STARTUP.equals(settings.getPrecompress())) {
+				precompressor.run();
+			} else {
+				precompressor.runInBackground();
+			}
+		}
+	}
+
+	protected WebjarsPrecompressor createPrecompressor(WebjarsSettings settings) {
+		String mode = settings.getPrecompress();
+		if (!WebjarsSettings.PRECOMPRESS_STARTUP.equals(mode) && !WebjarsSettings.PRECOMPRESS_BACKGROUND.equals(mode)) {
+			return null;
+		}
+		if (variantCache == null && diskStore == null) {
+			LOG.warn("Webjars precompression requires a compressed asset cache, skipping");
+			return null;
+		}
+		return new WebjarsPrecompressor(this, settings.getPrecompressLevel(), settings.getPrecompressParallelism(),
+				settings.isPrecompressLowPriority());
+	}
+
+	/**
+	 * 创建磁盘存储：解压 jar 条目与其他读取一样经由 {@link #openStream(WebjarsAsset)}，DEFLATE 条目使用池中的 Inflater
+	 */
+	protected DiskAssetStore createDiskStore(File directory) {
+		return new DiskAssetStore(directory) {
+			@Override
+			protected InputStream openStream(WebjarsAsset asset) throws IOException {
+				return WebjarsAssetRegistry.this.openStream(asset);
+			}
+		};
+	}
+
+	/**
+	 * @return Range 请求使用的磁盘存储，disk 存储方式下即为 diskStore，否则首次调用时在解压目录下创建
+	 */
+	protected DiskAssetStore getRangeStore() {
+		if (diskStore != null) {
+			return diskStore;
+		}
+		DiskAssetStore store = rangeStore;
+		if (store == null) {
+			synchronized (this) {
+				store = rangeStore;
+				if (store == null) {
+					store = createDiskStore(settings.getCacheDirectory());
+					rangeStore = store;
+				}
+			}
+		}
+		return store;
+	}
+
+	protected static AssetBodyCache createBodyCache(WebjarsSettings settings, long maxSize, int expectedEntries) {
+		if (maxSize <= 0) {
+			return null;
+		}
+		BufferAllocator allocator;
+		if (WebjarsSettings.STORAGE_DIRECT.equals(settings.getCacheStorage())) {
+			allocator = new DirectBufferArena(maxSize);
+		} else {
+			allocator = new HeapBufferAllocator();
+		}
+		return new AssetBodyCache(maxSize, expectedEntries, allocator);
+	}
+
+	/**
+	 * 获取与 ServletContext 绑定的注册表，首次调用时创建。
+	 *
+	 * @param servletContext 当前 Web 应用上下文，可以为 null
+	 * @return 共享的注册表实例
+	 */
+	public static WebjarsAssetRegistry getInstance(ServletContext servletContext) {
+		if (servletContext == null) {
+			return getDefault();
+		}
+		WebjarsAssetRegistry registry = (WebjarsAssetRegistry) servletContext.getAttribute(REGISTRY_ATTRIBUTE);
+		if (registry == null) {
+			synchronized (WebjarsAssetRegistry.class) {
+				registry = (WebjarsAssetRegistry) servletContext.getAttribute(REGISTRY_ATTRIBUTE);
+				if (registry == null) {
+					registry = new WebjarsAssetRegistry(new WebjarsSettings(servletContext));
+					servletContext.setAttribute(REGISTRY_ATTRIBUTE, registry);
+				}
+			}
+		}
+		return registry;
+	}
+
+	/**
+	 * Web 应用停止时调用：关闭与 ServletContext 绑定的注册表并移除属性，重复调用无副作用。
+	 *
+	 * @param servletContext 当前 Web 应用上下文
+	 */
+	public static void destroy(ServletContext servletContext) {
+		WebjarsAssetRegistry registry;
+		synchronized (WebjarsAssetRegistry.class) {
+			registry = (WebjarsAssetRegistry) servletContext.getAttribute(REGISTRY_ATTRIBUTE);
+			if (registry == null) {
+				return;
+			}
+			servletContext.removeAttribute(REGISTRY_ATTRIBUTE);
+		}
+		registry.destroy();
+	}
+
+	/**
+	 * 停止预压缩，关闭 I/O 线程池（已提交的任务仍会执行完毕），清空缓存并归还缓存占用的内存
+	 */
+	public void destroy() {
+		if (precompressor != null) {
+			precompressor.stop();
+		}
+		ioExecutor.shutdown();
+		if (bodyCache != null) {
+			bodyCache.clear();
+		}
+		if (variantCache != null) {
+			variantCache.clear();
+		}
+		LOG.info("Webjars asset registry destroyed");
+	}
+
+	/**
+	 * 没有 ServletContext 时（如单元测试）使用默认配置的类级实例。
+	 */
+	protected static WebjarsAssetRegistry getDefault() {
+		WebjarsAssetRegistry registry = defaultRegistry;
+		if (registry == null) {
+			synchronized (WebjarsAssetRegistry.class) {
+				registry = defaultRegistry;
+				if (registry == null) {
+					registry = new WebjarsAssetRegistry(new WebjarsSettings());
+					defaultRegistry = registry;
+				}
+			}
+		}
+		return registry;
+	}
+
+	public PathMatcher getPathMatcher() {
+		return pathMatcher;
+	}
+
+	public WebjarsSettings getSettings() {
+		return settings;
+	}
+
+	/**
+	 * @return 异步读取冷资源的 I/O 线程池，队列已满或已关闭时拒绝任务
+	 */
+	public ExecutorService getIoExecutor() {
+		return ioExecutor;
+	}
+
+	public WebjarsAssetIndex getAssetIndex() {
+		return assetIndex;
+	}
+
+	public AssetBodyCache getBodyCache() {
+		return bodyCache;
+	}
+
+	public DiskAssetStore getDiskStore() {
+		return diskStore;
+	}
+
+	public CachePolicy getCachePolicy() {
+		return cachePolicy;
+	}
+
+	public CompressionPolicy getCompressionPolicy() {
+		return compressionPolicy;
+	}
+
+	public AssetBodyCache getVariantCache() {
+		return variantCache;
+	}
+
+	/**
+	 * @return 预压缩任务，可通过它查看进度；未开启预压缩时返回 null
+	 */
+	public WebjarsPrecompressor getPrecompressor() {
+		return precompressor;
+	}
+
+	/**
+	 * @return gzip 压缩使用的 Deflater 池，可通过它查看命中、创建等计数
+	 */
+	public DeflaterPool getDeflaterPool() {
+		return deflaterPool;
+	}
+
+	/**
+	 * @return 解压 jar 条目使用的 Inflater 池，可通过它查看命中、创建等计数
+	 */
+	public InflaterPool getInflaterPool() {
+		return inflaterPool;
+	}
+
+	/**
+	 * 解析请求路径对应的资源，资源不存在或匹配到多个资源时不抛出异常。
+	 *
+	 * @param resPath 去掉上下文后的请求路径
+	 * @return 解析结果
+	 * @throws IOException 读取 jar 目录信息失败
+	 */
+	public AssetResolution resolve(String resPath) throws IOException {
+		return resolve(null, resPath);
+	}
+
+	/**
+	 * 在指定 webjar 中解析请求路径对应的资源，资源不存在或匹配到多个资源时不抛出异常；
+	 * 不存在的路径会在有效期内被记住，重复的 404 只需一次哈希查找。
+	 *
+	 * @param webjar webjar 名称，如：jquery；为空时在全部 webjar 中查找
+	 * @param resPath 去掉上下文后的请求路径
+	 * @return 解析结果
+	 * @throws IOException 读取 jar 目录信息失败
+	 */
+	public AssetResolution resolve(String webjar, String resPath) throws IOException {
+		boolean scoped = webjar != null && webjar.length() > 0;
+		String key = scoped ? webjar + ":" + resPath : resPath;
+		if (negativeCache != null && negativeCache.contains(key)) {
+			return AssetResolution.NOT_FOUND;
+		}
+		int index = scoped ? assetIndex.find(webjar, resPath) : assetIndex.find(resPath);
+		if (index == WebjarsAssetIndex.AMBIGUOUS) {
+			return AssetResolution.AMBIGUOUS;
+		}
+		WebjarsAsset asset = index >= 0 ? getAsset(assetIndex.getPath(index)) : null;
+		if (asset == null) {
+			if (negativeCache != null) {
+				negativeCache.add(key);
+			}
+			return AssetResolution.NOT_FOUND;
+		}
+		return AssetResolution.found(asset);
+	}
+
+	/**
+	 * 根据请求路径查找 webjar 中资源的完整路径。
+	 *
+	 * @param resPath 去掉上下文后的请求路径
+	 * @return 资源完整路径，如：META-INF/resources/webjars/jquery/3.4.1/jquery.js
+	 * @throws IllegalArgumentException 资源不存在
+	 * @throws MultipleMatchesException 部分路径匹配到多个资源
+	 */
+	public String getFullPath(String resPath) {
+		return toFullPath(assetIndex.find(resPath), resPath);
+	}
+
+	/**
+	 * 在指定 webjar 中查找资源的完整路径。
+	 *
+	 * @param webjar webjar 名称，如：jquery
+	 * @param resPath 去掉上下文后的请求路径
+	 * @return 资源完整路径
+	 * @throws IllegalArgumentException 资源不存在
+	 * @throws MultipleMatchesException 部分路径匹配到多个资源
+	 */
+	public String getFullPath(String webjar, String resPath) {
+		return toFullPath(assetIndex.find(webjar, resPath), resPath);
+	}
+
+	/**
+	 * 获取资源元数据，首次访问时从类路径中读取。
+	 *
+	 * @param fullPath 资源完整路径
+	 * @return 资源元数据；类路径中不存在时返回 null
+	 * @throws IOException 读取 jar 目录信息失败
+	 */
+	public WebjarsAsset getAsset(final String fullPath) throws IOException {
+		WebjarsAsset asset = assets.get(fullPath);
+		if (asset == null) {
+			asset = assetLoads.execute(fullPath, new Callable<WebjarsAsset>() {
+				@Override
+				public WebjarsAsset call() throws IOException {
+					WebjarsAsset loaded = assets.get(fullPath);
+					if (loaded == null) {
+						//从Jar中获取资源（按类路径查找，不能把完整路径当作文件路径解析）
+						URL resource = ResourceUtils.getResourceAsURL(fullPath, WebjarsAssetRegistry.class);
+						if (resource == null) {
+							return null;
+						}
+						//内容类型及是否可压缩只判断一次
+						String contentType = MimeTypes.getContentType(fullPath, settings.getServletContext());
+						loaded = WebjarsAsset.of(fullPath, resource, contentType, compressionPolicy.isCompressibleType(contentType),
+								findSibling(fullPath, ".gz"), findSibling(fullPath, ".br"));
+						assets.put(fullPath, loaded);
+					}
+					return loaded;
+				}
+			});
+		}
+		return asset;
+	}
+
+	/**
+	 * @return 索引中存在 fullPath + suffix 时返回该路径，否则返回 null
+	 */
+	protected String findSibling(String fullPath, String suffix) {
+		if (fullPath.endsWith(".gz") || fullPath.endsWith(".br")) {
+			return null;
+		}
+		String sibling = fullPath + suffix;
+		return assetIndex.findFullPath(sibling) >= 0 ? sibling : null;
+	}
+
+	/**
+	 * 按全局的压缩级别获取资源的压缩版本
+	 *
+	 * @param asset 资源元数据
+	 * @param encoding 内容编码：gzip、br
+	 * @return 压缩版本，使用完毕后必须调用 {@link CompressedVariant#release()}；不可用时返回 null
+	 * @throws IOException 读取或压缩失败
+	 */
+	public CompressedVariant getVariant(WebjarsAsset asset, String encoding) throws IOException {
+		return getVariant(asset, encoding, compressionPolicy.getLevel());
+	}
+
+	/**
+	 * 获取资源的压缩版本：优先使用 jar 中预先压缩好的同名条目；未指定压缩级别时其次直接输出 DEFLATE 条目的原始压缩数据；
+	 * 都不可用时按压缩级别压缩一次，disk 存储方式下保存为 .gz 文件，否则尝试放入内存缓存。
+	 *
+	 * @param asset 资源元数据
+	 * @param encoding 内容编码：gzip、br
+	 * @param level 压缩级别 1-9，-1 表示默认级别
+	 * @return 压缩版本，使用完毕后必须调用 {@link CompressedVariant#release()}；不可用时返回 null
+	 * @throws IOException 读取或压缩失败
+	 */
+	public CompressedVariant getVariant(final WebjarsAsset asset, String encoding, final int level) throws IOException {
+		String sibling = ContentEncodings.BROTLI.equals(encoding) ? asset.getBrotliSibling()
+				: ContentEncodings.GZIP.equals(encoding) ? asset.getGzipSibling() : null;
+		if (sibling != null) {
+			final WebjarsAsset precompressed = getAsset(sibling);
+			if (precompressed != null && precompressed.getSize() >= 0) {
+				return new CompressedVariant(encoding, precompressed.getSize()) {
+					@Override
+					public long write(OutputStream output) throws IOException {
+						return WebjarsAssetRegistry.this.write(precompressed, output);
+					}
+				};
+			}
+		}
+		if (!ContentEncodings.GZIP.equals(encoding)) {
+			return null;
+		}
+		// 预压缩的版本优先于原始压缩数据及按默认级别压缩；尚未预压缩或已被淘汰时按下面的方式输出，不在请求中按预压缩级别压缩
+		if (level == CompressionPolicy.DEFAULT_LEVEL && precompressor != null && precompressor.getLevel() != level) {
+			CompressedVariant precompressed = findVariant(asset, encoding, precompressor.getLevel());
+			if (precompressed != null) {
+				return precompressed;
+			}
+		}
+		// jar 中的压缩数据使用打包时的级别，指定了压缩级别时不直接输出
+		if (compressionPassthrough && level == CompressionPolicy.DEFAULT_LEVEL && DeflatePassthroughVariant.supports(asset)) {
+			long dataOffset = entryLocator.getDataOffset(asset.getJarFile(), asset.getEntryName());
+			if (dataOffset >= 0) {
+				return new DeflatePassthroughVariant(encoding, asset, dataOffset);
+			}
+		}
+		if (diskStore != null) {
+			File file = diskStore.getGzipFile(asset, level);
+			return file == null ? null : fileVariant(encoding, file, asset.getFullPath() + DiskAssetStore.gzipSuffix(level));
+		}
+		final String key = variantKey(asset, level);
+		if (variantCache != null) {
+			AssetBodyCache.Body body = variantCache.acquire(key);
+			if (body != null) {
+				return CompressedVariant.of(encoding, body);
+			}
+		}
+		byte[] compressed = variantLoads.execute(key, new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws IOException {
+				byte[] loaded = gzip(asset, level);
+				if (loaded != null && variantCache != null) {
+					AssetBodyCache.Body cached = variantCache.put(key, loaded);
+					if (cached != null) {
+						cached.release();
+					}
+				}
+				return loaded;
+			}
+		});
+		return compressed == null ? null : CompressedVariant.of(encoding, compressed);
+	}
+
+	/**
+	 * 获取已经压缩好的 gzip 版本，不存在时不压缩
+	 *
+	 * @return 压缩版本，使用完毕后必须调用 {@link CompressedVariant#release()}；尚未压缩时返回 null
+	 */
+	protected CompressedVariant findVariant(WebjarsAsset asset, String encoding, int level) throws IOException {
+		if (diskStore != null) {
+			File file = diskStore.findGzipFile(asset, level);
+			return file == null ? null : fileVariant(encoding, file, asset.getFullPath() + DiskAssetStore.gzipSuffix(level));
+		}
+		if (variantCache != null) {
+			AssetBodyCache.Body body = variantCache.acquire(variantKey(asset, level));
+			if (body != null) {
+				return CompressedVariant.of(encoding, body);
+			}
+		}
+		return null;
+	}
+
+	private CompressedVariant fileVariant(String encoding, final File file, final String key) {
+		return new CompressedVariant(encoding, file.length()) {
+			@Override
+			public long write(OutputStream output) throws IOException {
+				return diskStore.write(file, key, output, 0, -1);
+			}
+
+			@Override
+			public ByteBuffer buffer() throws IOException {
+				return diskStore.getBuffer(file, key);
+			}
+
+			@Override
+			public File getFile() {
+				return file;
+			}
+		};
+	}
+
+	/**
+	 * 不同压缩级别的版本分别缓存
+	 */
+	private static String variantKey(WebjarsAsset asset, int level) {
+		return level == CompressionPolicy.DEFAULT_LEVEL ? asset.getFullPath() : asset.getFullPath() + "@" + level;
+	}
+
+	/**
+	 * 压缩资源内容，原始内容优先取自内容缓存
+	 */
+	protected byte[] gzip(WebjarsAsset asset, int level) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream((int) Math.max(asset.getSize() / 3, 32));
+		DeflaterOutputStream compressor = new PooledGzipOutputStream(body, deflaterPool, level);
+		try {
+			if (write(asset, compressor) < 0) {
+				return null;
+			}
+			compressor.finish();
+		} finally {
+			// 归还 Deflater
+			IOUtils.closeQuietly(compressor);
+		}
+		return body.toByteArray();
+	}
+
+	/**
+	 * 将资源内容写出到输出流：disk 存储方式下从解压后的文件输出；否则优先使用缓存的内容，未缓存时读取 jar 并尝试放入缓存。
+	 *
+	 * @param asset 资源元数据
+	 * @param output 输出流，不会被关闭
+	 * @return 写出的字节数；资源无法读取时返回 -1
+	 * @throws IOException 读写失败
+	 */
+	public long write(final WebjarsAsset asset, OutputStream output) throws IOException {
+		if (diskStore != null) {
+			long written = diskStore.write(asset, output);
+			if (written >= 0) {
+				return written;
+			}
+		}
+		if (bodyCache != null && asset.getSize() >= 0 && asset.getSize() <= bodyCache.getMaxSize()) {
+			AssetBodyCache.Body body = bodyCache.acquire(asset.getFullPath());
+			if (body == null) {
+				byte[] content = loadBody(asset);
+				if (content == null) {
+					return -1;
+				}
+				output.write(content);
+				return content.length;
+			}
+			try {
+				return IOUtils.write(body.buffer(), output);
+			} finally {
+				body.release();
+			}
+		}
+		InputStream input = openStream(asset);
+		if (input == null) {
+			return -1;
+		}
+		try {
+			return Transfers.transfer(input, output);
+		} finally {
+			IOUtils.closeQuietly(input);
+		}
+	}
+
+	/**
+	 * 获取资源的原始内容：disk 存储方式下为解压后的文件；能放入缓存时为缓存中的内容，未缓存时先加载；
+	 * 否则每次输出时读取 jar，{@link AssetBody#buffer()} 返回 null。
+	 *
+	 * @param asset 资源元数据
+	 * @return 资源内容，使用完毕后必须调用 {@link AssetBody#release()}；资源无法读取时返回 null
+	 * @throws IOException 读取失败
+	 */
+	public AssetBody getBody(final WebjarsAsset asset) throws IOException {
+		if (diskStore != null) {
+			File file = diskStore.getFile(asset);
+			if (file != null) {
+				return fileBody(asset, file);
+			}
+		}
+		if (bodyCache != null && asset.getSize() >= 0 && asset.getSize() <= bodyCache.getMaxSize()) {
+			AssetBodyCache.Body body = bodyCache.acquire(asset.getFullPath());
+			if (body != null) {
+				return AssetBody.of(body);
+			}
+			byte[] content = loadBody(asset);
+			return content == null ? null : AssetBody.of(content);
+		}
+		return new AssetBody(asset.getSize()) {
+			@Override
+			public long write(OutputStream output) throws IOException {
+				return WebjarsAssetRegistry.this.write(asset, output);
+			}
+		};
+	}
+
+	/**
+	 * 获取无需读取 jar 即可输出的资源内容：缓存中的内容或已解压的文件。
+	 *
+	 * @param asset 资源元数据
+	 * @return 资源内容，使用完毕后必须调用 {@link AssetBody#release()}；需要读取 jar 时返回 null
+	 */
+	public AssetBody peekBody(WebjarsAsset asset) {
+		if (diskStore != null) {
+			File file = diskStore.findFile(asset);
+			return file == null ? null : fileBody(asset, file);
+		}
+		if (bodyCache != null) {
+			AssetBodyCache.Body body = bodyCache.acquire(asset.getFullPath());
+			return body == null ? null : AssetBody.of(body);
+		}
+		return null;
+	}
+
+	private AssetBody fileBody(final WebjarsAsset asset, final File file) {
+		return new AssetBody(file.length()) {
+			@Override
+			public long write(OutputStream output) throws IOException {
+				return diskStore.write(file, asset.getFullPath(), output, 0, -1);
+			}
+
+			@Override
+			public ByteBuffer buffer() throws IOException {
+				return diskStore.getBuffer(file, asset.getFullPath());
+			}
+
+			@Override
+			public File getFile() {
+				return file;
+			}
+		};
+	}
+
+	/**
+	 * 将资源内容中 [offset, offset + length) 的部分写出到输出流（用于 Range 请求）：
+	 * 解压后的文件及缓存的内容直接定位到 offset；未缓存时，未压缩的 jar 条目直接跳过前面的内容，
+	 * 压缩的条目能放入缓存时先整体加载一次，否则首次请求时解压到磁盘（{@link #getRangeStore()}）一次，
+	 * 之后的请求及多区间请求的各个区间即可直接定位；无法解压到磁盘时才解压并丢弃前面的内容。
+	 *
+	 * @param asset 资源元数据
+	 * @param output 输出流，不会被关闭
+	 * @param offset 起始位置
+	 * @param length 字节数
+	 * @return 写出的字节数；资源无法读取时返回 -1
+	 * @throws IOException 读写失败
+	 */
+	public long write(final WebjarsAsset asset, OutputStream output, long offset, long length) throws IOException {
+		if (offset == 0 && length == asset.getSize()) {
+			return write(asset, output);
+		}
+		if (diskStore != null) {
+			long written = diskStore.write(asset, output, offset, length);
+			if (written >= 0) {
+				return written;
+			}
+		}
+		if (bodyCache != null && asset.getSize() >= 0 && asset.getSize() <= bodyCache.getMaxSize()) {
+			AssetBodyCache.Body body = bodyCache.acquire(asset.getFullPath());
+			if (body == null) {
+				byte[] content = loadBody(asset);
+				if (content == null) {
+					return -1;
+				}
+				int count = (int) Math.max(0, Math.min(length, content.length - offset));
+				output.write(content, (int) offset, count);
+				return count;
+			}
+			try {
+				ByteBuffer buffer = body.buffer();
+				int start = (int) Math.min(offset, buffer.remaining());
+				((Buffer) buffer).position(buffer.position() + start);
+				((Buffer) buffer).limit(buffer.position() + (int) Math.min(length, buffer.remaining()));
+				return IOUtils.write(buffer, output);
+			} finally {
+				body.release();
+			}
+		}
+		if (!asset.isSeekable() && asset.getJarFile() != null) {
+			File file = null;
+			try {
+				file = getRangeStore().getFile(asset);
+			} catch (IOException e) {
+				LOG.warn("Unable to extract {} for range requests: {}", asset.getFullPath(), e.getMessage());
+			}
+			if (file != null) {
+				return getRangeStore().write(file, asset.getFullPath(), output, offset, length);
+			}
+		}
+		InputStream input = openStream(asset);
+		if (input == null) {
+			return -1;
+		}
+		try {
+			long skipped = asset.isSeekable() ? IOUtils.skipSeekable(input, offset) : IOUtils.skipByReading(input, offset);
+			if (skipped < offset) {
+				return 0;
+			}
+			return IOUtils.copyRange(input, output, length);
+		} finally {
+			IOUtils.closeQuietly(input);
+		}
+	}
+
+	/**
+	 * 合并同一资源内容的并发加载：只有一个线程读取 jar 并放入缓存，其余线程直接使用它读到的内容
+	 */
+	protected byte[] loadBody(final WebjarsAsset asset) throws IOException {
+		return bodyLoads.execute(asset.getFullPath(), new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws IOException {
+				byte[] loaded = load(asset);
+				if (loaded != null) {
+					AssetBodyCache.Body cached = bodyCache.put(asset.getFullPath(), loaded);
+					if (cached != null) {
+						cached.release();
+					}
+				}
+				return loaded;
+			}
+		});
+	}
+
+	protected byte[] load(WebjarsAsset asset) throws IOException {
+		InputStream input = openStream(asset);
+		if (input == null) {
+			return null;
+		}
+		try {
+			ByteArrayOutputStream body = new ByteArrayOutputStream((int) Math.max(asset.getSize(), 32));
+			Transfers.transfer(input, body);
+			return body.toByteArray();
+		} finally {
+			IOUtils.closeQuietly(input);
+		}
+	}
+
+	/**
+	 * 打开资源内容的输入流：DEFLATE 压缩的 jar 条目直接从数据位置读取并使用池中的 Inflater 解压，
+	 * 其余情况（未压缩的条目、文件、无法定位的条目）使用资源自身的输入流。
+	 *
+	 * @param asset 资源元数据
+	 * @return 输入流，调用方负责关闭；资源无法读取时返回 null
+	 * @throws IOException 打开失败
+	 */
+	protected InputStream openStream(WebjarsAsset asset) throws IOException {
+		if (DeflatePassthroughVariant.supports(asset)) {
+			InputStream input = entryLocator.openInflated(asset.getJarFile(), asset.getEntryName(), asset.getCompressedSize(), inflaterPool);
+			if (input != null) {
+				return input;
+			}
+		}
+		return asset.openStream();
+	}
+
+	private String toFullPath(int index, String resPath) {
+		if (index >= 0) {
+			return assetIndex.getPath(index);
+		}
+		if (index == WebjarsAssetIndex.AMBIGUOUS) {
+			throw new MultipleMatchesException("Multiple matches found for " + resPath
+					+ ". Please provide a more specific path, for example by including a version number.", assetIndex.findAll(resPath));
+		}
+		throw new IllegalArgumentException(resPath + " could not be found. Make sure you've added the corresponding WebJar and please check for typos.");
+	}
+
+}
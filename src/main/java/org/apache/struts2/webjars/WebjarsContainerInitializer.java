@@ -0,0 +1,80 @@
+package org.apache.struts2.webjars;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterRegistration;
+import javax.servlet.ServletContainerInitializer;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.ServletException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @className	： WebjarsContainerInitializer
+ * @description	： 应用启动时按 &lt;context-param&gt; {@link WebjarsSettings#FILTER_MAPPING} 自动注册 {@link WebjarsResourceFilter}，无需修改 web.xml 中的过滤器：
+ *              过滤器声明 async-supported，映射在 web.xml 中的过滤器（包括 Struts 的过滤器）之前，匹配的路径在全部 webjar 中查找。
+ *              未设置该参数或已存在同名过滤器时不注册。
+ *              同时注册 ServletContextListener，应用停止时关闭资源注册表（I/O 线程池、预压缩任务及缓存）。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午6:15:40
+ * @version 	V1.0
+ */
+public class WebjarsContainerInitializer implements ServletContainerInitializer {
+
+	protected static final Logger LOG = LoggerFactory.getLogger(WebjarsContainerInitializer.class);
+
+	public static final String FILTER_NAME = "webjarsResourceFilter";
+
+	@Override
+	public void onStartup(Set<Class<?>> classes, ServletContext servletContext) throws ServletException {
+		servletContext.addListener(new RegistryListener());
+		String mapping = servletContext.getInitParameter(WebjarsSettings.FILTER_MAPPING);
+		if (StringUtils.isBlank(mapping)) {
+			return;
+		}
+		FilterRegistration.Dynamic registration = servletContext.addFilter(FILTER_NAME, WebjarsResourceFilter.class);
+		if (registration == null) {
+			LOG.info("Filter {} is already registered, skipping automatic registration", FILTER_NAME);
+			return;
+		}
+		registration.setAsyncSupported(true);
+		String[] urlPatterns = StringUtils.split(mapping, ", ");
+		for (String urlPattern : urlPatterns) {
+			// 过滤器的 init-param 为资源路径规则，目标为空表示在全部 webjar 中查找
+			registration.setInitParameter(toRoutePattern(urlPattern), "");
+		}
+		registration.addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST), false, urlPatterns);
+		LOG.info("Registered {} for {}", FILTER_NAME, mapping);
+	}
+
+	/**
+	 * url-pattern 转为路径规则：/webjars/* 转为 /webjars/**
+	 */
+	protected static String toRoutePattern(String urlPattern) {
+		return urlPattern.endsWith("/*") ? urlPattern + "*" : urlPattern;
+	}
+
+	/**
+	 * 应用停止时关闭与 ServletContext 绑定的资源注册表；容器不扫描 ServletContainerInitializer（如 metadata-complete）时可在 web.xml 中声明
+	 */
+	public static class RegistryListener implements ServletContextListener {
+
+		@Override
+		public void contextInitialized(ServletContextEvent event) {
+		}
+
+		@Override
+		public void contextDestroyed(ServletContextEvent event) {
+			WebjarsAssetRegistry.destroy(event.getServletContext());
+		}
+
+	}
+
+}
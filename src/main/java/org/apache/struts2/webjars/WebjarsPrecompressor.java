@@ -0,0 +1,316 @@
+package org.apache.struts2.webjars;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.struts2.webjars.asset.CompressedVariant;
+import org.apache.struts2.webjars.asset.WebjarsAsset;
+import org.apache.struts2.webjars.cache.AssetBodyCache;
+import org.apache.struts2.webjars.http.CompressionPolicy;
+import org.apache.struts2.webjars.http.ContentEncodings;
+import org.apache.struts2.webjars.index.WebjarsAssetIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @className	： WebjarsPrecompressor
+ * @description	： 预压缩任务：遍历资源索引，在有界的 ForkJoinPool 中按较高的压缩级别并行压缩全部可压缩的资源，
+ *              结果放入压缩版本的内存缓存（disk 存储方式下保存为压缩文件），首个请求无需再等待压缩。
+ *              jar 中已有同名 .gz 条目、类型不可压缩或小于最小字节数的资源跳过；内存缓存装满后不再继续压缩。
+ *              低优先级模式下工作线程以最低优先级运行，且每压缩一个资源后休眠相同的时长，最多占用每个线程一半的 CPU 时间，避免与在线请求争用。
+ *              进度按每 10% 输出日志，计数可通过 {@link WebjarsAssetRegistry#getPrecompressor()} 获取。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午4:42:18
+ * @version 	V1.0
+ */
+public class WebjarsPrecompressor {
+
+	protected static final Logger LOG = LoggerFactory.getLogger(WebjarsPrecompressor.class);
+
+	/** 每个叶子任务处理的资源数 */
+	private static final int BATCH_SIZE = 16;
+
+	/** 低优先级模式下每次休眠的上限（毫秒） */
+	private static final long MAX_PAUSE_MILLIS = 100;
+
+	private final WebjarsAssetRegistry registry;
+
+	private final int level;
+
+	private final int parallelism;
+
+	private final boolean lowPriority;
+
+	private final int total;
+
+	private final AtomicInteger processed = new AtomicInteger();
+
+	private final AtomicInteger compressed = new AtomicInteger();
+
+	private final AtomicInteger skipped = new AtomicInteger();
+
+	private final AtomicInteger failed = new AtomicInteger();
+
+	private final AtomicLong originalBytes = new AtomicLong();
+
+	private final AtomicLong compressedBytes = new AtomicLong();
+
+	/** 下一次输出进度日志的百分比 */
+	private final AtomicInteger nextProgress = new AtomicInteger(10);
+
+	private volatile long startTime;
+
+	private volatile long endTime;
+
+	/** 后台运行的线程池，Web 应用停止时关闭 */
+	private volatile ForkJoinPool pool;
+
+	private volatile boolean stopped;
+
+	/**
+	 * @param registry 资源注册表
+	 * @param level 压缩级别 1-9，-1 表示默认级别
+	 * @param parallelism 并行的线程数
+	 * @param lowPriority 是否以低优先级运行
+	 */
+	public WebjarsPrecompressor(WebjarsAssetRegistry registry, int level, int parallelism, boolean lowPriority) {
+		this.registry = registry;
+		this.level = level;
+		this.parallelism = Math.max(1, parallelism);
+		this.lowPriority = lowPriority;
+		this.total = registry.getAssetIndex().size();
+	}
+
+	/**
+	 * 在调用线程中等待全部资源压缩完成
+	 */
+	public void run() {
+		ForkJoinPool pool = createPool();
+		try {
+			start();
+			pool.invoke(new Batch(0, total));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * 在后台执行，立即返回；全部资源压缩完成后线程池自动结束
+	 */
+	public void runInBackground() {
+		ForkJoinPool pool = createPool();
+		this.pool = pool;
+		start();
+		pool.execute(new Batch(0, total));
+		// 已提交的任务仍会执行完毕
+		pool.shutdown();
+	}
+
+	/**
+	 * 停止后台压缩：剩余的资源不再压缩，线程池随即结束
+	 */
+	public void stop() {
+		stopped = true;
+		ForkJoinPool pool = this.pool;
+		if (pool != null) {
+			pool.shutdownNow();
+		}
+	}
+
+	protected ForkJoinPool createPool() {
+		final AtomicInteger threadNumber = new AtomicInteger();
+		ForkJoinPool.ForkJoinWorkerThreadFactory factory = new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+			@Override
+			public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+				ForkJoinWorkerThread thread = new ForkJoinWorkerThread(pool) {
+				};
+				thread.setName("webjars-precompress-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				if (lowPriority) {
+					thread.setPriority(Thread.MIN_PRIORITY);
+				}
+				return thread;
+			}
+		};
+		return new ForkJoinPool(parallelism, factory, null, false);
+	}
+
+	private void start() {
+		startTime = System.currentTimeMillis();
+		LOG.info("Precompressing {} webjars assets at level {} with {} thread(s){}", total, level, parallelism,
+				lowPriority ? " in low-priority mode" : "");
+	}
+
+	/**
+	 * 压缩单个资源
+	 */
+	protected void precompress(String fullPath) {
+		try {
+			if (stopped) {
+				skipped.incrementAndGet();
+				return;
+			}
+			WebjarsAsset asset = registry.getAsset(fullPath);
+			CompressionPolicy policy = registry.getCompressionPolicy();
+			AssetBodyCache variantCache = registry.getVariantCache();
+			if (asset == null || asset.getGzipSibling() != null || !policy.accepts(asset)
+					|| (variantCache != null && compressedBytes.get() >= variantCache.getMaxSize())) {
+				skipped.incrementAndGet();
+				return;
+			}
+			long begin = System.nanoTime();
+			CompressedVariant variant = registry.getVariant(asset, ContentEncodings.GZIP, level);
+			if (variant == null) {
+				skipped.incrementAndGet();
+				return;
+			}
+			variant.release();
+			compressed.incrementAndGet();
+			originalBytes.addAndGet(asset.getSize());
+			compressedBytes.addAndGet(variant.getLength());
+			if (lowPriority) {
+				pause(System.nanoTime() - begin);
+			}
+		} catch (Exception e) {
+			failed.incrementAndGet();
+			LOG.debug("Unable to precompress {}", fullPath, e);
+		} finally {
+			progress(processed.incrementAndGet());
+		}
+	}
+
+	private void pause(long elapsedNanos) {
+		long millis = Math.min(TimeUnit.NANOSECONDS.toMillis(elapsedNanos), MAX_PAUSE_MILLIS);
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void progress(int count) {
+		if (count == total) {
+			endTime = System.currentTimeMillis();
+			LOG.info("Precompressed {} of {} webjars assets in {} ms: {} -> {} bytes, {} skipped, {} failed", compressed.get(),
+					total, getElapsedMillis(), originalBytes.get(), compressedBytes.get(), skipped.get(), failed.get());
+			return;
+		}
+		int percent = (int) (count * 100L / total);
+		int next = nextProgress.get();
+		if (percent >= next && nextProgress.compareAndSet(next, (percent / 10 + 1) * 10)) {
+			LOG.info("Precompressing webjars assets: {}% ({}/{})", percent, count, total);
+		}
+	}
+
+	public int getLevel() {
+		return level;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public boolean isLowPriority() {
+		return lowPriority;
+	}
+
+	/**
+	 * @return 索引中的资源总数
+	 */
+	public int getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return 已处理的资源数（含跳过及失败的资源）
+	 */
+	public int getProcessed() {
+		return processed.get();
+	}
+
+	public int getCompressed() {
+		return compressed.get();
+	}
+
+	public int getSkipped() {
+		return skipped.get();
+	}
+
+	public int getFailed() {
+		return failed.get();
+	}
+
+	/**
+	 * @return 已压缩资源的原始字节数
+	 */
+	public long getOriginalBytes() {
+		return originalBytes.get();
+	}
+
+	/**
+	 * @return 已压缩资源压缩后的字节数
+	 */
+	public long getCompressedBytes() {
+		return compressedBytes.get();
+	}
+
+	public boolean isDone() {
+		return processed.get() >= total;
+	}
+
+	/**
+	 * @return 已运行的时间（毫秒），完成后为总耗时
+	 */
+	public long getElapsedMillis() {
+		if (startTime == 0) {
+			return 0;
+		}
+		return (endTime > 0 ? endTime : System.currentTimeMillis()) - startTime;
+	}
+
+	@Override
+	public String toString() {
+		return "WebjarsPrecompressor[processed=" + getProcessed() + "/" + total + ", compressed=" + getCompressed() + ", skipped="
+				+ getSkipped() + ", failed=" + getFailed() + ", bytes=" + getOriginalBytes() + "->" + getCompressedBytes() + "]";
+	}
+
+	/**
+	 * 按索引区间二分拆分的任务
+	 */
+	private class Batch extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+
+		private final int to;
+
+		Batch(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= BATCH_SIZE) {
+				WebjarsAssetIndex index = registry.getAssetIndex();
+				for (int i = from; i < to; i++) {
+					precompress(index.getPath(i));
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new Batch(from, middle), new Batch(middle, to));
+		}
+
+	}
+
+}
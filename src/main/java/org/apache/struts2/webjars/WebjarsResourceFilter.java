@@ -1,14 +1,11 @@
 package org.apache.struts2.webjars;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.URL;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Callable;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -19,16 +16,22 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
-import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
-import org.apache.struts2.webjars.matcher.AntPathMatcher;
-import org.apache.struts2.webjars.matcher.PathMatcher;
-import org.apache.struts2.webjars.utils.ResourceUtils;
+import org.apache.struts2.webjars.asset.AssetBody;
+import org.apache.struts2.webjars.asset.AssetResolution;
+import org.apache.struts2.webjars.asset.WebjarsAsset;
+import org.apache.struts2.webjars.http.AsyncWrites;
+import org.apache.struts2.webjars.http.CachePolicy;
+import org.apache.struts2.webjars.http.CompressionPolicy;
+import org.apache.struts2.webjars.http.ConditionalRequests;
+import org.apache.struts2.webjars.http.ContentEncodings;
+import org.apache.struts2.webjars.http.RangeRequests;
+import org.apache.struts2.webjars.http.Sendfile;
+import org.apache.struts2.webjars.http.VersionlessRedirects;
+import org.apache.struts2.webjars.matcher.PathPatternTrie;
 import org.apache.struts2.webjars.utils.WebUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.webjars.WebJarAssetLocator;
 
 /**
  * 
@@ -42,40 +45,92 @@ public class WebjarsResourceFilter implements Filter {
 
 	protected static final String RESOURCE_CHARSET = "UTF-8";
 
+    protected static final String SETTING_PREFIX = "struts.webjars.";
+
     protected static final String DEFAULT_MINE_TYPE = "application/octet-stream";
 
     protected final Logger LOG = LoggerFactory.getLogger(this.getClass());
 
-    protected final PathMatcher pathMatcher = new AntPathMatcher();
-    
-  	protected final WebJarAssetLocator assetLocator = new WebJarAssetLocator();
-  	
-  	protected ConcurrentMap<String, String> COMPLIED_RESOURCE = new ConcurrentHashMap<String, String>();
+    protected WebjarsAssetRegistry registry;
   	
   	protected Map<String, String> patternMap = new HashMap<String, String>();
-
-    private static final Map<String, String> MINE_TYPE_MAP;
-
-    static {
-    	
-        MINE_TYPE_MAP = new HashMap<String, String>();
-        MINE_TYPE_MAP.put("js", "application/javascript;charset=" + RESOURCE_CHARSET);
-        MINE_TYPE_MAP.put("css", "text/css;charset=" + RESOURCE_CHARSET);
-        MINE_TYPE_MAP.put("gif", "image/gif");
-        MINE_TYPE_MAP.put("jpg", "image/jpeg");
-        MINE_TYPE_MAP.put("jpeg", "image/jpeg");
-        MINE_TYPE_MAP.put("png", "image/png");
-        
-    }
+  	
+  	protected PathPatternTrie<String> routes;
+  	
+  	/** 本过滤器的 Cache-Control 策略，可用以 struts.webjars. 开头的 init-param 覆盖全局配置 */
+  	protected CachePolicy cachePolicy;
+  	
+  	/** 不带版本号的路径是否跳转到带版本号的路径 */
+  	protected boolean versionlessRedirect;
+  	
+  	/** 本过滤器的压缩策略，不压缩时为 null */
+  	protected CompressionPolicy compressionPolicy;
+  	
+  	/** 异步输出的超时时间（毫秒），0 表示阻塞输出 */
+  	protected long asyncTimeout;
 
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
+    	//共享的资源注册表
+    	registry = WebjarsAssetRegistry.getInstance(filterConfig.getServletContext());
         //初始化资源映射
     	Enumeration<String> elements = filterConfig.getInitParameterNames();
     	while (elements.hasMoreElements()) {
     		String name = elements.nextElement();
+    		//以 struts.webjars. 开头的参数是配置项，不是资源路径规则
+    		if (name.startsWith(SETTING_PREFIX)) {
+    			continue;
+    		}
     		patternMap.put(name, filterConfig.getInitParameter(name));
     	}
+    	//覆盖全局的缓存策略
+    	cachePolicy = registry.getCachePolicy().derive(
+    			getLongParameter(filterConfig, WebjarsSettings.CACHE_CONTROL_VERSIONED_MAX_AGE),
+    			getLongParameter(filterConfig, WebjarsSettings.CACHE_CONTROL_MAX_AGE),
+    			getLongParameter(filterConfig, WebjarsSettings.CACHE_CONTROL_STALE_WHILE_REVALIDATE));
+    	//覆盖全局的不带版本号路径处理方式
+    	String versionless = filterConfig.getInitParameter(WebjarsSettings.VERSIONLESS);
+    	versionlessRedirect = versionless == null || versionless.trim().length() == 0
+    			? registry.getSettings().isVersionlessRedirect()
+    			: WebjarsSettings.VERSIONLESS_REDIRECT.equalsIgnoreCase(versionless.trim());
+    	//覆盖全局的压缩开关
+    	String compression = filterConfig.getInitParameter(WebjarsSettings.COMPRESSION_ENABLED);
+    	boolean compressionEnabled = compression == null || compression.trim().length() == 0
+    			? registry.getSettings().isCompressionEnabled() : Boolean.parseBoolean(compression.trim());
+    	//覆盖全局的最小压缩字节数及压缩级别
+    	Long compressionLevel = getLongParameter(filterConfig, WebjarsSettings.COMPRESSION_LEVEL);
+    	try {
+    		compressionPolicy = !compressionEnabled ? null : registry.getCompressionPolicy().derive(
+    				getLongParameter(filterConfig, WebjarsSettings.COMPRESSION_MIN_SIZE),
+    				compressionLevel == null ? null : Integer.valueOf(compressionLevel.intValue()));
+		} catch (IllegalArgumentException e) {
+			throw new ServletException("Invalid value [" + compressionLevel + "] for init-param " + WebjarsSettings.COMPRESSION_LEVEL, e);
+		}
+    	//覆盖全局的异步输出开关
+    	String async = filterConfig.getInitParameter(WebjarsSettings.ASYNC_ENABLED);
+    	boolean asyncEnabled = async == null || async.trim().length() == 0
+    			? registry.getSettings().isAsyncEnabled() : Boolean.parseBoolean(async.trim());
+    	asyncTimeout = asyncEnabled ? Math.max(1, registry.getSettings().getAsyncTimeout()) : 0;
+    	if (asyncEnabled && !AsyncWrites.isAvailable()) {
+    		LOG.info("Servlet 3.1 non-blocking output is not available, webjars are written synchronously");
+    	}
+    	//将全部规则编译为前缀Trie
+    	routes = new PathPatternTrie<String>();
+    	for (Map.Entry<String, String> entry : patternMap.entrySet()) {
+    		routes.add(entry.getKey(), entry.getValue());
+    	}
+    }
+
+    protected Long getLongParameter(FilterConfig filterConfig, String name) throws ServletException {
+    	String value = filterConfig.getInitParameter(name);
+    	if (value == null || value.trim().length() == 0) {
+			return null;
+		}
+    	try {
+    		return Long.valueOf(value.trim());
+		} catch (NumberFormatException e) {
+			throw new ServletException("Invalid value [" + value + "] for init-param " + name, e);
+		}
     }
 
     @Override
@@ -83,74 +138,116 @@ public class WebjarsResourceFilter implements Filter {
     	
     	HttpServletRequest oRequest = WebUtils.toHttp(request);
     	HttpServletResponse oResponse = WebUtils.toHttp(response);
-    	//定义了资源处理规则
-    	if(!patternMap.isEmpty()){
-    		//uri去掉web上下文
-        	String resPath = oRequest.getRequestURI().substring(oRequest.getContextPath().length());  
-    		//对资源路径进行匹配
-    		for (String pattern : patternMap.keySet()) {
-    			//匹配资源路径是否需要处理
-    	    	if(pathMatcher.match(pattern, resPath)){
-    	    		InputStream input = null;
-    	    		OutputStream output = null;
-    	    		String webjar = patternMap.get(pattern);
-    	    		try {
-	    	    		//资源已经访问过
-	    	        	String ret = COMPLIED_RESOURCE.get(resPath);
-	    	        	String fullPath = ret;
-	    	        	if (ret == null) {
-	    	        		fullPath = assetLocator.getFullPath(webjar, resPath);
-	    	    		} 
-	    	        	//从Jar中获取资源
-	    	        	URL resource = ResourceUtils.getResourceAsURL(fullPath);
-	   	        		//如果在类路径中没有找到资源->404
-	   	        		if (resource == null) {      
-	                        oResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
-	   	        		} else {
-							//获取文件的输入流
-							input = ResourceUtils.getURLAsStream(resource);
-							if (input != null) { 
-								//有input说明已经读到jar中内容
-                                String ext = FilenameUtils.getExtension(fullPath).toLowerCase();
-                                String contentType = MINE_TYPE_MAP.get(ext);
-                                if (contentType == null) {
-                                    contentType = DEFAULT_MINE_TYPE;
-                                }
-                                //设置内容类型
-                                oResponse.setContentType(contentType);    
-								
-								//将文件写出
-								if(WebUtils.isGzipInRequest(oRequest)){
-									output = new GzipCompressorOutputStream(response.getOutputStream());
-								} else {
-									output = response.getOutputStream();
-								}
-                                try {
-                                    int size = IOUtils.copy(input, output);  //向输出流输出内容
-                                    oResponse.setContentLength(size);
-                                } finally {
-                                    IOUtils.closeQuietly(input);
-                                    IOUtils.closeQuietly(output);
-                                }
-		   	        		} else {   
-	                        	//没有input->404
-	                            oResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
-	                        }
-	   	        		}
-	   	        		COMPLIED_RESOURCE.putIfAbsent(resPath, fullPath);
-    	            } catch (Exception e) {
-    	            	LOG.error(e.getMessage(), e);
-                        oResponse.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-    	            }
-    	    	}
-			}
+    	//一次扫描URI找出命中的资源处理规则（不截取字符串），未命中的请求直接放行
+    	String requestURI = oRequest.getRequestURI();
+    	PathPatternTrie.Route<String> route = routes.match(requestURI, oRequest.getContextPath().length());
+    	if (route == null) {
+    		chain.doFilter(request, response);
+    		return;
+    	}
+    	//uri去掉web上下文
+    	serve(oRequest, oResponse, requestURI.substring(oRequest.getContextPath().length()), route.getTarget());
+    }
+
+    /**
+     * 输出已匹配路由的资源
+     *
+     * @param oRequest 当前请求
+     * @param oResponse 当前响应
+     * @param resPath 资源请求路径（不含上下文路径）
+     * @param webjar 路由限定的 webjar，空字符串表示在全部 webjar 中查找
+     */
+    protected void serve(HttpServletRequest oRequest, HttpServletResponse oResponse, String resPath, String webjar)
+    		throws IOException, ServletException {
+    	OutputStream output = null;
+    	try {
+    		//解析资源（不存在的路径会被记住，不抛出异常）
+    		AssetResolution resolution = registry.resolve(webjar, resPath);
+    		//如果在类路径中没有找到资源或匹配到多个资源->404
+    		if (!resolution.isFound()) {
+    			LOG.debug("Webjar resource {} {}", resPath, resolution.getStatus());
+    			oResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
+    			return;
+    		}
+    		final WebjarsAsset asset = resolution.getAsset();
+    		//redirect模式：不带版本号的路径跳转到带版本号的路径
+    		if (versionlessRedirect && VersionlessRedirects.redirect(oRequest, oResponse, resPath, asset, cachePolicy)) {
+    			return;
+    		}
+    		//缓存策略：带版本号的路径长期缓存
+    		cachePolicy.apply(oResponse, resPath, asset);
+    		//按Accept-Encoding选择压缩版本，不同版本使用不同的ETag
+    		String encoding = ContentEncodings.select(oRequest, oResponse, asset, compressionPolicy);
+    		//输出校验头，条件请求命中时直接返回304，不读取jar
+    		if (ConditionalRequests.checkNotModified(oRequest, oResponse, asset, asset.getETag(encoding))) {
+    			return;
+    		}
+    		//设置内容类型（创建资源元数据时已确定）
+    		String contentType = asset.getContentType();
+    		oResponse.setContentType(contentType);
+    		
+    		//输出预先压缩好的版本（带有Range请求头时不压缩）
+    		if (encoding != null && ContentEncodings.serve(oRequest, oResponse, registry, asset, encoding, compressionPolicy, asyncTimeout)) {
+    			return;
+    		}
+    		
+    		//Range请求：输出206或416，区间按原始内容计算
+    		if (RangeRequests.serve(oRequest, oResponse, registry, asset, contentType)) {
+    			return;
+    		}
+    		
+    		//将文件写出（优先使用缓存的内容）
+    		AssetBody body = asyncTimeout > 0 ? registry.peekBody(asset) : null;
+    		//异步模式下需要读取jar的冷资源交给I/O线程（Java 21上为虚拟线程）读取并输出，请求线程立即返回
+    		if (body == null && asyncTimeout > 0 && AsyncWrites.writeLater(oRequest, oResponse, registry.getIoExecutor(), new Callable<AssetBody>() {
+    			@Override
+    			public AssetBody call() throws IOException {
+    				return registry.getBody(asset);
+    			}
+    		}, asyncTimeout)) {
+    			return;
+    		}
+    		if (body == null) {
+    			body = registry.getBody(asset);
+    		}
+    		if (body == null) {
+    			oResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
+    			return;
+    		}
+    		boolean async = false;
+    		try {
+    			if (body.getLength() >= 0 && body.getLength() <= Integer.MAX_VALUE) {
+    				oResponse.setContentLength((int) body.getLength());
+    			}
+    			//解压后的文件交给容器以sendfile方式输出
+    			if (Sendfile.serve(oRequest, oResponse, body, registry.getSettings().getSendfileMinSize())) {
+    				return;
+    			}
+    			//内容在内存中时以非阻塞方式输出，不占用请求线程
+    			async = asyncTimeout > 0 && AsyncWrites.write(oRequest, oResponse, body, asyncTimeout);
+    			if (!async) {
+    				output = oResponse.getOutputStream();
+    				if (body.write(output) < 0) {
+    					//没有input->404
+    					oResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
+    				}
+    			}
+    		} finally {
+    			if (!async) {
+    				body.release();
+    			}
+    		}
+    	} catch (Exception e) {
+    		LOG.error(e.getMessage(), e);
+    		oResponse.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+    	} finally {
+    		IOUtils.closeQuietly(output);
     	}
-    	//LOG.error("MUST set url-pattern=\"" + pattern + "/*\"!!");
-        //rep.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
     }
     
     @Override
     public void destroy() {
+    	//注册表由同一应用内的多个过滤器、结果类型共享，由WebjarsContainerInitializer.RegistryListener在应用停止时关闭
     }
     
 }
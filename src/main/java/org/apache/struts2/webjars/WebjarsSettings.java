@@ -0,0 +1,372 @@
+package org.apache.struts2.webjars;
+
+import java.io.File;
+import java.util.zip.Deflater;
+
+import javax.servlet.ServletContext;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.struts2.webjars.http.CachePolicy;
+import org.apache.struts2.webjars.http.CompressionPolicy;
+import org.apache.struts2.webjars.utils.WebUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @className	： WebjarsSettings
+ * @description	： 插件的全局配置，从 web.xml 的 &lt;context-param&gt; 中读取；
+ *              WebjarsResourceFilter 的 &lt;init-param&gt; 用作资源路径规则，因此统一放在上下文参数中（部分配置可在过滤器中用 struts.webjars. 开头的参数覆盖）。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午2:20:47
+ * @version 	V1.0
+ */
+public class WebjarsSettings {
+
+	protected static final Logger LOG = LoggerFactory.getLogger(WebjarsSettings.class);
+
+	/** 资源内容缓存的总字节数上限，0 表示不缓存 */
+	public static final String CACHE_MAX_SIZE = "struts.webjars.cache.maxSize";
+
+	/** 资源内容缓存的存储方式：heap（堆内，默认）、direct（堆外直接内存）、disk（解压到本地目录） */
+	public static final String CACHE_STORAGE = "struts.webjars.cache.storage";
+
+	public static final String STORAGE_HEAP = "heap";
+
+	public static final String STORAGE_DIRECT = "direct";
+
+	public static final String STORAGE_DISK = "disk";
+
+	/** disk 存储方式下的解压目录，默认为容器提供的临时目录下的 webjars 目录 */
+	public static final String CACHE_DIRECTORY = "struts.webjars.cache.directory";
+
+	/** 不存在路径的缓存条目数上限，0 表示不缓存 */
+	public static final String NEGATIVE_CACHE_MAX_SIZE = "struts.webjars.negativeCache.maxSize";
+
+	/** 不存在路径的缓存有效期（毫秒） */
+	public static final String NEGATIVE_CACHE_TTL = "struts.webjars.negativeCache.ttl";
+
+	/** 带版本号路径的浏览器缓存时间（秒） */
+	public static final String CACHE_CONTROL_VERSIONED_MAX_AGE = "struts.webjars.cacheControl.versionedMaxAge";
+
+	/** 不带版本号路径的浏览器缓存时间（秒） */
+	public static final String CACHE_CONTROL_MAX_AGE = "struts.webjars.cacheControl.maxAge";
+
+	/** 不带版本号路径过期后仍可使用旧内容的时间（秒），0 表示不输出 */
+	public static final String CACHE_CONTROL_STALE_WHILE_REVALIDATE = "struts.webjars.cacheControl.staleWhileRevalidate";
+
+	/** 不带版本号的路径（/webjars/jquery/jquery.js）的处理方式：serve（直接输出，默认）、redirect（302 跳转到带版本号的路径） */
+	public static final String VERSIONLESS = "struts.webjars.versionless";
+
+	public static final String VERSIONLESS_SERVE = "serve";
+
+	public static final String VERSIONLESS_REDIRECT = "redirect";
+
+	/** 是否向接受 gzip/br 的客户端输出压缩版本，默认关闭，可按过滤器或结果开启 */
+	public static final String COMPRESSION_ENABLED = "struts.webjars.compression.enabled";
+
+	/** 压缩版本内存缓存的总字节数上限，0 表示不缓存；disk 存储方式下压缩版本保存在解压目录中，不占用内存 */
+	public static final String COMPRESSION_CACHE_MAX_SIZE = "struts.webjars.compression.cacheMaxSize";
+
+	/** jar 中 DEFLATE 压缩的条目是否直接以原始压缩数据输出 gzip 版本，不解压也不重新压缩 */
+	public static final String COMPRESSION_PASSTHROUGH = "struts.webjars.compression.passthrough";
+
+	/** 逗号分隔的可压缩内容类型，以 /* 结尾的表示该大类下的全部类型 */
+	public static final String COMPRESSION_MIME_TYPES = "struts.webjars.compression.mimeTypes";
+
+	/** 小于该字节数的资源不压缩 */
+	public static final String COMPRESSION_MIN_SIZE = "struts.webjars.compression.minSize";
+
+	/** 压缩级别 1-9，未设置时使用默认级别，并允许直接输出 jar 中的原始压缩数据 */
+	public static final String COMPRESSION_LEVEL = "struts.webjars.compression.level";
+
+	/** 预压缩全部可压缩资源的时机：none（不预压缩，默认）、startup（创建注册表时等待完成）、background（后台执行） */
+	public static final String COMPRESSION_PRECOMPRESS = "struts.webjars.compression.precompress";
+
+	public static final String PRECOMPRESS_NONE = "none";
+
+	public static final String PRECOMPRESS_STARTUP = "startup";
+
+	public static final String PRECOMPRESS_BACKGROUND = "background";
+
+	/** 预压缩的压缩级别，默认为设置的压缩级别，未设置时为 9 */
+	public static final String COMPRESSION_PRECOMPRESS_LEVEL = "struts.webjars.compression.precompressLevel";
+
+	/** 预压缩的线程数，默认为 CPU 核数的一半 */
+	public static final String COMPRESSION_PRECOMPRESS_PARALLELISM = "struts.webjars.compression.precompressParallelism";
+
+	/** 预压缩是否以低优先级运行，避免与在线请求争用 CPU */
+	public static final String COMPRESSION_PRECOMPRESS_LOW_PRIORITY = "struts.webjars.compression.precompressLowPriority";
+
+	/** 内容在内存中且容器支持 Servlet 3.1 时，是否以异步、非阻塞的方式输出（过滤器须声明 async-supported） */
+	public static final String ASYNC_ENABLED = "struts.webjars.async.enabled";
+
+	/** 异步输出的超时时间（毫秒） */
+	public static final String ASYNC_TIMEOUT = "struts.webjars.async.timeout";
+
+	/** 等待读取冷资源的异步请求数上限，超过时在请求线程中同步输出 */
+	public static final String ASYNC_QUEUE_SIZE = "struts.webjars.async.queueSize";
+
+	/** 设置后自动注册支持异步的 WebjarsResourceFilter，值为其 url-pattern，如：/webjars/* */
+	public static final String FILTER_MAPPING = "struts.webjars.filter.mapping";
+
+	/** disk 存储方式下，是否将解压后的文件及 .gz 文件交给容器以 sendfile 方式输出（Tomcat 的 sendfile 属性、Jetty 的 sendContent） */
+	public static final String SENDFILE_ENABLED = "struts.webjars.sendfile.enabled";
+
+	/** 以 sendfile 方式输出的最小字节数，更小的文件直接复制更快 */
+	public static final String SENDFILE_MIN_SIZE = "struts.webjars.sendfile.minSize";
+
+	protected final ServletContext servletContext;
+
+	protected long cacheMaxSize = 0;
+
+	protected String cacheStorage = STORAGE_HEAP;
+
+	protected int negativeCacheMaxSize = 10000;
+
+	protected long negativeCacheTtl = 60 * 1000L;
+
+	protected long versionedMaxAge = CachePolicy.ONE_YEAR;
+
+	protected long maxAge = 5 * 60L;
+
+	protected long staleWhileRevalidate = 60 * 60L;
+
+	protected String versionless = VERSIONLESS_SERVE;
+
+	protected boolean compressionEnabled = false;
+
+	protected long compressionCacheMaxSize = 0;
+
+	protected boolean compressionPassthrough = true;
+
+	protected String compressionMimeTypes = CompressionPolicy.DEFAULT_MIME_TYPES;
+
+	protected long compressionMinSize = CompressionPolicy.DEFAULT_MIN_SIZE;
+
+	protected int compressionLevel = CompressionPolicy.DEFAULT_LEVEL;
+
+	protected String precompress = PRECOMPRESS_NONE;
+
+	protected int precompressLevel = Deflater.BEST_COMPRESSION;
+
+	protected int precompressParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+	protected boolean precompressLowPriority = true;
+
+	protected boolean asyncEnabled = false;
+
+	protected long asyncTimeout = 60 * 1000L;
+
+	protected int asyncQueueSize = 1024;
+
+	protected boolean sendfileEnabled = true;
+
+	protected long sendfileMinSize = 48 * 1024L;
+
+	public WebjarsSettings() {
+		this(null);
+	}
+
+	public WebjarsSettings(ServletContext servletContext) {
+		this.servletContext = servletContext;
+		this.cacheMaxSize = getLong(CACHE_MAX_SIZE, cacheMaxSize);
+		this.cacheStorage = getString(CACHE_STORAGE, cacheStorage).toLowerCase();
+		this.negativeCacheMaxSize = getInt(NEGATIVE_CACHE_MAX_SIZE, negativeCacheMaxSize);
+		this.negativeCacheTtl = getLong(NEGATIVE_CACHE_TTL, negativeCacheTtl);
+		this.versionedMaxAge = getLong(CACHE_CONTROL_VERSIONED_MAX_AGE, versionedMaxAge);
+		this.maxAge = getLong(CACHE_CONTROL_MAX_AGE, maxAge);
+		this.staleWhileRevalidate = getLong(CACHE_CONTROL_STALE_WHILE_REVALIDATE, staleWhileRevalidate);
+		this.versionless = getString(VERSIONLESS, versionless).toLowerCase();
+		this.compressionEnabled = getBoolean(COMPRESSION_ENABLED, compressionEnabled);
+		this.compressionCacheMaxSize = getLong(COMPRESSION_CACHE_MAX_SIZE, compressionCacheMaxSize);
+		this.compressionPassthrough = getBoolean(COMPRESSION_PASSTHROUGH, compressionPassthrough);
+		this.compressionMimeTypes = getString(COMPRESSION_MIME_TYPES, compressionMimeTypes);
+		this.compressionMinSize = getLong(COMPRESSION_MIN_SIZE, compressionMinSize);
+		this.compressionLevel = getInt(COMPRESSION_LEVEL, compressionLevel);
+		this.precompress = getString(COMPRESSION_PRECOMPRESS, precompress).toLowerCase();
+		this.precompressLevel = getInt(COMPRESSION_PRECOMPRESS_LEVEL,
+				compressionLevel != CompressionPolicy.DEFAULT_LEVEL ? compressionLevel : precompressLevel);
+		this.precompressParallelism = getInt(COMPRESSION_PRECOMPRESS_PARALLELISM, precompressParallelism);
+		this.precompressLowPriority = getBoolean(COMPRESSION_PRECOMPRESS_LOW_PRIORITY, precompressLowPriority);
+		this.asyncEnabled = getBoolean(ASYNC_ENABLED, asyncEnabled);
+		this.asyncTimeout = getLong(ASYNC_TIMEOUT, asyncTimeout);
+		this.asyncQueueSize = getInt(ASYNC_QUEUE_SIZE, asyncQueueSize);
+		this.sendfileEnabled = getBoolean(SENDFILE_ENABLED, sendfileEnabled);
+		this.sendfileMinSize = getLong(SENDFILE_MIN_SIZE, sendfileMinSize);
+	}
+
+	public long getCacheMaxSize() {
+		return cacheMaxSize;
+	}
+
+	public String getCacheStorage() {
+		return cacheStorage;
+	}
+
+	public int getNegativeCacheMaxSize() {
+		return negativeCacheMaxSize;
+	}
+
+	public long getNegativeCacheTtl() {
+		return negativeCacheTtl;
+	}
+
+	public String getVersionless() {
+		return versionless;
+	}
+
+	/**
+	 * @return 不带版本号的路径是否跳转到带版本号的路径
+	 */
+	public boolean isVersionlessRedirect() {
+		return VERSIONLESS_REDIRECT.equals(versionless);
+	}
+
+	public boolean isCompressionEnabled() {
+		return compressionEnabled;
+	}
+
+	public long getCompressionCacheMaxSize() {
+		return compressionCacheMaxSize;
+	}
+
+	public boolean isCompressionPassthrough() {
+		return compressionPassthrough;
+	}
+
+	/**
+	 * @return 全局的压缩策略
+	 */
+	public CompressionPolicy getCompressionPolicy() {
+		try {
+			return new CompressionPolicy(compressionMimeTypes, compressionMinSize, compressionLevel);
+		} catch (IllegalArgumentException e) {
+			LOG.warn("Invalid value [{}] for {}, using default level", compressionLevel, COMPRESSION_LEVEL);
+			return new CompressionPolicy(compressionMimeTypes, compressionMinSize, CompressionPolicy.DEFAULT_LEVEL);
+		}
+	}
+
+	public String getPrecompress() {
+		return precompress;
+	}
+
+	/**
+	 * @return 预压缩的压缩级别，设置的值无效时为 9
+	 */
+	public int getPrecompressLevel() {
+		if (precompressLevel != CompressionPolicy.DEFAULT_LEVEL
+				&& (precompressLevel < Deflater.BEST_SPEED || precompressLevel > Deflater.BEST_COMPRESSION)) {
+			LOG.warn("Invalid value [{}] for {}, using level {}", precompressLevel, COMPRESSION_PRECOMPRESS_LEVEL, Deflater.BEST_COMPRESSION);
+			return Deflater.BEST_COMPRESSION;
+		}
+		return precompressLevel;
+	}
+
+	public int getPrecompressParallelism() {
+		return precompressParallelism;
+	}
+
+	public boolean isPrecompressLowPriority() {
+		return precompressLowPriority;
+	}
+
+	public boolean isAsyncEnabled() {
+		return asyncEnabled;
+	}
+
+	public long getAsyncTimeout() {
+		return asyncTimeout;
+	}
+
+	public int getAsyncQueueSize() {
+		return asyncQueueSize;
+	}
+
+	public boolean isSendfileEnabled() {
+		return sendfileEnabled;
+	}
+
+	/**
+	 * @return 以 sendfile 方式输出的最小字节数，未启用时为 -1
+	 */
+	public long getSendfileMinSize() {
+		return sendfileEnabled ? Math.max(0, sendfileMinSize) : -1;
+	}
+
+	public ServletContext getServletContext() {
+		return servletContext;
+	}
+
+	/**
+	 * @return 全局的 Cache-Control 策略
+	 */
+	public CachePolicy getCachePolicy() {
+		return new CachePolicy(versionedMaxAge, maxAge, staleWhileRevalidate);
+	}
+
+	/**
+	 * @return disk 存储方式下的解压目录
+	 */
+	public File getCacheDirectory() {
+		String directory = getString(CACHE_DIRECTORY, null);
+		if (directory != null) {
+			return new File(directory);
+		}
+		File tempDir = servletContext == null ? null : WebUtils.getTempDir(servletContext);
+		if (tempDir == null) {
+			tempDir = new File(System.getProperty("java.io.tmpdir"));
+		}
+		return new File(tempDir, "webjars");
+	}
+
+	public String getString(String name, String defaultValue) {
+		String value = servletContext == null ? null : servletContext.getInitParameter(name);
+		return StringUtils.isBlank(value) ? defaultValue : value.trim();
+	}
+
+	public long getLong(String name, long defaultValue) {
+		String value = getString(name, null);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return parseSize(value);
+		} catch (NumberFormatException e) {
+			LOG.warn("Invalid value [{}] for {}, using default {}", value, name, defaultValue);
+			return defaultValue;
+		}
+	}
+
+	public int getInt(String name, int defaultValue) {
+		return (int) Math.min(Integer.MAX_VALUE, getLong(name, defaultValue));
+	}
+
+	public boolean getBoolean(String name, boolean defaultValue) {
+		String value = getString(name, null);
+		return value == null ? defaultValue : Boolean.parseBoolean(value);
+	}
+
+	/**
+	 * 解析字节数，支持 K、M、G 后缀，如：64M
+	 */
+	protected static long parseSize(String value) {
+		String text = value.toUpperCase();
+		long unit = 1;
+		if (text.endsWith("KB") || text.endsWith("MB") || text.endsWith("GB")) {
+			text = text.substring(0, text.length() - 1);
+		}
+		if (text.endsWith("K")) {
+			unit = 1024L;
+		} else if (text.endsWith("M")) {
+			unit = 1024L * 1024L;
+		} else if (text.endsWith("G")) {
+			unit = 1024L * 1024L * 1024L;
+		}
+		if (unit > 1) {
+			text = text.substring(0, text.length() - 1);
+		}
+		return Long.parseLong(text.trim()) * unit;
+	}
+
+}
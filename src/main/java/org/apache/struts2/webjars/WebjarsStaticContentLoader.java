@@ -0,0 +1,155 @@
+package org.apache.struts2.webjars;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.struts2.StrutsException;
+import org.apache.struts2.dispatcher.DefaultStaticContentLoader;
+import org.apache.struts2.dispatcher.HostConfig;
+import org.apache.struts2.webjars.matcher.PathPatternTrie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.opensymphony.xwork2.inject.Inject;
+
+/**
+ *
+ * @className	： WebjarsStaticContentLoader
+ * @description	： Struts 的静态资源加载器，须在 struts.xml 中设置 struts.staticContentLoader = webjars 开启：StrutsPrepareAndExecuteFilter 找不到 Action 映射时，
+ *              匹配 {@link #PATTERN} 的请求直接在全部 webjar 中查找并输出，不创建 ActionProxy，也不执行拦截器栈及结果的 OGNL 求值；
+ *              其他路径（/struts/、/static/）仍由 {@link DefaultStaticContentLoader} 处理。
+ *              {@link #canHandle(String)} 与 {@link #findStaticResource(String, HttpServletRequest, HttpServletResponse)} 使用同一棵 {@link PathPatternTrie}，
+ *              接受的路径一定会被输出或按资源不存在返回 404。
+ *              输出由内部的 {@link WebjarsResourceFilter} 完成，缓存、压缩、Range、异步及 sendfile 与过滤器一致；
+ *              Struts 过滤器中以 struts.webjars. 开头的 &lt;init-param&gt; 同样覆盖全局配置。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午9:02:47
+ * @version 	V1.0
+ */
+public class WebjarsStaticContentLoader extends DefaultStaticContentLoader {
+
+	protected static final Logger LOG = LoggerFactory.getLogger(WebjarsStaticContentLoader.class);
+
+	/** 由本加载器处理的资源路径规则（Struts 常量），多个以逗号分隔 */
+	public static final String PATTERN = "struts.webjars.staticContent.pattern";
+
+	public static final String DEFAULT_PATTERN = "/webjars/**";
+
+	protected static final String FILTER_NAME = "webjarsStaticContentLoader";
+
+	protected List<String> patterns = Collections.singletonList(DEFAULT_PATTERN);
+
+	/** 路由规则，目标为空字符串表示在全部 webjar 中查找 */
+	protected PathPatternTrie<String> routes = compile(patterns);
+
+	protected WebjarsResourceFilter filter;
+
+	@Inject(value = PATTERN, required = false)
+	public void setWebjarsPattern(String pattern) {
+		List<String> patterns = new ArrayList<String>();
+		for (String p : StringUtils.split(pattern, ", ")) {
+			patterns.add(p);
+		}
+		this.patterns = patterns;
+		this.routes = compile(patterns);
+	}
+
+	protected static PathPatternTrie<String> compile(List<String> patterns) {
+		PathPatternTrie<String> routes = new PathPatternTrie<String>();
+		for (String pattern : patterns) {
+			routes.add(pattern, "");
+		}
+		return routes;
+	}
+
+	@Override
+	public void setHostConfig(HostConfig hostConfig) {
+		super.setHostConfig(hostConfig);
+		filter = new WebjarsResourceFilter();
+		try {
+			filter.init(new LoaderFilterConfig(hostConfig));
+		} catch (ServletException e) {
+			throw new StrutsException("Unable to initialize webjars static content loader", e);
+		}
+		LOG.info("Serving webjars {} as Struts static content", patterns);
+	}
+
+	@Override
+	public boolean canHandle(String resourcePath) {
+		return route(resourcePath) != null || super.canHandle(resourcePath);
+	}
+
+	@Override
+	public void findStaticResource(String path, HttpServletRequest request, HttpServletResponse response) throws IOException {
+		PathPatternTrie.Route<String> route = route(path);
+		if (route == null) {
+			super.findStaticResource(path, request, response);
+			return;
+		}
+		// 路径由 Struts 过滤器给出（不含上下文路径），直接输出，不再按请求 URI 重新匹配
+		try {
+			filter.serve(request, response, path, route.getTarget());
+		} catch (ServletException e) {
+			throw new IOException(e);
+		}
+	}
+
+	protected PathPatternTrie.Route<String> route(String path) {
+		if (path == null || filter == null) {
+			return null;
+		}
+		return routes.match(path, 0);
+	}
+
+	/**
+	 * 内部过滤器的配置：路由由加载器决定，struts.webjars. 开头的参数取自 Struts 过滤器
+	 */
+	private class LoaderFilterConfig implements FilterConfig {
+
+		private final HostConfig hostConfig;
+
+		LoaderFilterConfig(HostConfig hostConfig) {
+			this.hostConfig = hostConfig;
+		}
+
+		@Override
+		public String getFilterName() {
+			return FILTER_NAME;
+		}
+
+		@Override
+		public ServletContext getServletContext() {
+			return hostConfig.getServletContext();
+		}
+
+		@Override
+		public String getInitParameter(String name) {
+			return name.startsWith(WebjarsResourceFilter.SETTING_PREFIX) ? hostConfig.getInitParameter(name) : null;
+		}
+
+		@Override
+		public Enumeration<String> getInitParameterNames() {
+			List<String> names = new ArrayList<String>();
+			for (Iterator<String> it = hostConfig.getInitParameterNames(); it.hasNext();) {
+				String name = it.next();
+				if (name.startsWith(WebjarsResourceFilter.SETTING_PREFIX)) {
+					names.add(name);
+				}
+			}
+			return Collections.enumeration(names);
+		}
+
+	}
+
+}
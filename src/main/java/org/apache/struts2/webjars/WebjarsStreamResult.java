@@ -1,28 +1,32 @@
 package org.apache.struts2.webjars;
 
-import java.io.InputStream;
+import java.io.IOException;
 import java.io.OutputStream;
-import java.net.URL;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Callable;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.struts2.ServletActionContext;
 import org.apache.struts2.result.StrutsResultSupport;
-import org.apache.struts2.webjars.matcher.AntPathMatcher;
-import org.apache.struts2.webjars.matcher.PathMatcher;
-import org.apache.struts2.webjars.utils.ResourceUtils;
+import org.apache.struts2.webjars.asset.AssetBody;
+import org.apache.struts2.webjars.asset.AssetResolution;
+import org.apache.struts2.webjars.asset.WebjarsAsset;
+import org.apache.struts2.webjars.http.AsyncWrites;
+import org.apache.struts2.webjars.http.CachePolicy;
+import org.apache.struts2.webjars.http.CompressionPolicy;
+import org.apache.struts2.webjars.http.ConditionalRequests;
+import org.apache.struts2.webjars.http.ContentEncodings;
+import org.apache.struts2.webjars.http.RangeRequests;
+import org.apache.struts2.webjars.http.Sendfile;
+import org.apache.struts2.webjars.http.VersionlessRedirects;
+import org.apache.struts2.webjars.matcher.PathPattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.webjars.WebJarAssetLocator;
 
 import com.opensymphony.xwork2.ActionInvocation;
+import com.opensymphony.xwork2.util.TextParseUtil;
 
 /**
  * <p>
@@ -35,6 +39,12 @@ import com.opensymphony.xwork2.ActionInvocation;
  * &lt;/result&gt;
  * <!-- END SNIPPET: example --></pre>
  *
+ * <p>
+ * The parameters are compiled once per result instance into an immutable {@link Plan}, which is reused for as long as
+ * the instance is: by every execution when a result factory reuses the instance, otherwise by that single execution.
+ * Only parameters that contain ${...} or %{...} expressions are evaluated against the value stack, so a single instance
+ * may serve concurrent requests.
+ * </p>
  */
 public class WebjarsStreamResult extends StrutsResultSupport {
 
@@ -48,31 +58,28 @@ public class WebjarsStreamResult extends StrutsResultSupport {
 
     protected static final String DEFAULT_MINE_TYPE = "application/octet-stream";
 
-    protected final PathMatcher pathMatcher = new AntPathMatcher();
-    
-  	protected final WebJarAssetLocator assetLocator = new WebJarAssetLocator();
-  	
-  	protected ConcurrentMap<String, String> COMPLIED_RESOURCE = new ConcurrentHashMap<String, String>();
-  	
-    private static final Map<String, String> MINE_TYPE_MAP;
-
-    static {
-    	
-        MINE_TYPE_MAP = new HashMap<String, String>();
-        MINE_TYPE_MAP.put("js", "application/javascript;charset=" + RESOURCE_CHARSET);
-        MINE_TYPE_MAP.put("css", "text/css;charset=" + RESOURCE_CHARSET);
-        MINE_TYPE_MAP.put("gif", "image/gif");
-        MINE_TYPE_MAP.put("jpg", "image/jpeg");
-        MINE_TYPE_MAP.put("jpeg", "image/jpeg");
-        MINE_TYPE_MAP.put("png", "image/png");
-        
-    }
-
     protected String contentDisposition = "inline";
     protected String contentCharSet ;
     protected String inputName = "inputPattern";
     protected String inputPattern;
     protected boolean allowCaching = true;
+    /** 覆盖全局的 Cache-Control 策略（秒），未设置时使用全局配置 */
+    protected Long versionedMaxAge;
+    protected Long maxAge;
+    protected Long staleWhileRevalidate;
+    /** 覆盖全局的不带版本号路径处理方式：serve、redirect */
+    protected String versionless;
+    /** 覆盖全局的压缩开关，未设置时使用全局配置 */
+    protected Boolean compression;
+    /** 覆盖全局的最小压缩字节数及压缩级别 */
+    protected Long compressionMinSize;
+    protected Integer compressionLevel;
+    /** 覆盖全局的异步输出开关，未设置时使用全局配置 */
+    protected Boolean async;
+    /** 是否解析参数中的表达式，与 StrutsResultSupport 的 parse 一致 */
+    protected boolean parse = true;
+    /** 编译后的执行计划，参数变化时重新编译 */
+    protected volatile Plan plan;
     
     public WebjarsStreamResult() {
         super();
@@ -97,6 +104,127 @@ public class WebjarsStreamResult extends StrutsResultSupport {
      */
     public void setAllowCaching(boolean allowCaching) {
         this.allowCaching = allowCaching;
+        this.plan = null;
+    }
+    
+    /**
+     * @return Returns the max-age (seconds) used for paths that contain the webjar version.
+     */
+    public Long getVersionedMaxAge() {
+        return versionedMaxAge;
+    }
+
+    /**
+     * @param versionedMaxAge the max-age (seconds) used for paths that contain the webjar version.
+     */
+    public void setVersionedMaxAge(Long versionedMaxAge) {
+        this.versionedMaxAge = versionedMaxAge;
+        this.plan = null;
+    }
+
+    /**
+     * @return Returns the max-age (seconds) used for paths without the webjar version.
+     */
+    public Long getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * @param maxAge the max-age (seconds) used for paths without the webjar version.
+     */
+    public void setMaxAge(Long maxAge) {
+        this.maxAge = maxAge;
+        this.plan = null;
+    }
+
+    /**
+     * @return Returns the stale-while-revalidate (seconds) used for paths without the webjar version.
+     */
+    public Long getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    /**
+     * @param staleWhileRevalidate the stale-while-revalidate (seconds) used for paths without the webjar version.
+     */
+    public void setStaleWhileRevalidate(Long staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.plan = null;
+    }
+    
+    /**
+     * @return Returns how paths without the webjar version are handled: serve or redirect.
+     */
+    public String getVersionless() {
+        return versionless;
+    }
+
+    /**
+     * @param versionless how paths without the webjar version are handled: serve or redirect.
+     */
+    public void setVersionless(String versionless) {
+        this.versionless = versionless;
+        this.plan = null;
+    }
+    
+    /**
+     * @return Returns whether compressed variants are served to clients that accept them.
+     */
+    public Boolean getCompression() {
+        return compression;
+    }
+
+    /**
+     * @param compression whether compressed variants are served to clients that accept them.
+     */
+    public void setCompression(Boolean compression) {
+        this.compression = compression;
+        this.plan = null;
+    }
+    
+    /**
+     * @return Returns the minimum size (bytes) of resources that are compressed.
+     */
+    public Long getCompressionMinSize() {
+        return compressionMinSize;
+    }
+
+    /**
+     * @param compressionMinSize the minimum size (bytes) of resources that are compressed.
+     */
+    public void setCompressionMinSize(Long compressionMinSize) {
+        this.compressionMinSize = compressionMinSize;
+        this.plan = null;
+    }
+
+    /**
+     * @return Returns the deflate level (1-9) used for compressed variants.
+     */
+    public Integer getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * @param compressionLevel the deflate level (1-9) used for compressed variants.
+     */
+    public void setCompressionLevel(Integer compressionLevel) {
+        this.compressionLevel = compressionLevel;
+        this.plan = null;
+    }
+    
+    /**
+     * @return Returns whether in-memory content is written asynchronously when the container supports it.
+     */
+    public Boolean getAsync() {
+        return async;
+    }
+
+    /**
+     * @param async whether in-memory content is written asynchronously when the container supports it.
+     */
+    public void setAsync(Boolean async) {
+        this.async = async;
+        this.plan = null;
     }
     
     /**
@@ -111,6 +239,7 @@ public class WebjarsStreamResult extends StrutsResultSupport {
      */
     public void setContentDisposition(String contentDisposition) {
         this.contentDisposition = contentDisposition;
+        this.plan = null;
     }
 
     /**
@@ -125,6 +254,7 @@ public class WebjarsStreamResult extends StrutsResultSupport {
      */
     public void setContentCharSet(String contentCharSet) {
         this.contentCharSet = contentCharSet;
+        this.plan = null;
     }
 
     /**
@@ -139,6 +269,7 @@ public class WebjarsStreamResult extends StrutsResultSupport {
      */
     public void setInputName(String inputName) {
         this.inputName = inputName;
+        this.plan = null;
     }
     
     public String getInputPattern() {
@@ -147,109 +278,286 @@ public class WebjarsStreamResult extends StrutsResultSupport {
 
 	public void setInputPattern(String inputPattern) {
 		this.inputPattern = inputPattern;
+		this.plan = null;
 	}
 
+    @Override
+    public void setParse(boolean parse) {
+        super.setParse(parse);
+        this.parse = parse;
+        this.plan = null;
+    }
+
+    /**
+     * 不记录 lastFinalLocation，结果不保存请求相关的状态
+     *
+     * @see StrutsResultSupport#execute(com.opensymphony.xwork2.ActionInvocation)
+     */
+    @Override
+    public void execute(ActionInvocation invocation) throws Exception {
+        doExecute(getLocation(), invocation);
+    }
+
 	/**
      * @see StrutsResultSupport#doExecute(java.lang.String, com.opensymphony.xwork2.ActionInvocation)
      */
     protected void doExecute(String finalLocation, ActionInvocation invocation) throws Exception {
         
-        if (inputPattern == null) {
-            LOG.debug("Find the inputPattern from the invocation variable stack");
-            inputPattern = (String) invocation.getStack().findValue(conditionalParse(inputName, invocation));
-        }
-
-        if (inputPattern == null) {
-            String msg = ("Can not find a pattern with the name [" + inputName + "] in the invocation stack. " +
-                "Check the <param name=\"inputName\"> tag specified for this action.");
-            LOG.error(msg);
-            throw new IllegalArgumentException(msg);
-        }
-        
         LOG.debug("Find the Request in context");
         HttpServletRequest oRequest = ServletActionContext.getRequest();
         
         LOG.debug("Find the Response in context");
         HttpServletResponse oResponse = ServletActionContext.getResponse();
         
+        //共享的资源注册表
+        final WebjarsAssetRegistry registry = WebjarsAssetRegistry.getInstance(ServletActionContext.getServletContext());
+        
+        //相同参数只在首次执行时编译一次
+        Plan plan = plan(registry);
+        
+		//匹配资源路径是否需要处理（从web上下文之后开始匹配，不截取uri）
+        int contextLength = oRequest.getContextPath().length();
+        if (!plan.matches(oRequest.getRequestURI(), contextLength, invocation)) {
+            return;
+        }
+        
         //uri去掉web上下文
-    	String resPath = oRequest.getRequestURI().substring(oRequest.getContextPath().length());
-    	
-		//匹配资源路径是否需要处理
-    	if(pathMatcher.match(inputPattern, resPath)){
-    		InputStream input = null;
-    		OutputStream output = null;
-    		try {
-	    		//资源已经访问过
-	        	String ret = COMPLIED_RESOURCE.get(resPath);
-	        	String fullPath = ret;
-	        	if (ret == null) {
-	        		//classpath:/META-INF/resources/webjars/
-	        		fullPath = assetLocator.getFullPath(resPath);
-	    		} 
-	        	//从Jar中获取资源
-	        	URL resource = ResourceUtils.getResourceAsURL(fullPath);
-        		//如果在类路径中没有找到资源->404
-        		if (resource == null) {      
+        String resPath = oRequest.getRequestURI().substring(contextLength);
+        OutputStream output = null;
+        try {
+            //解析资源（不存在的路径会被记住，不抛出异常）
+            AssetResolution resolution = registry.resolve(resPath);
+            //如果在类路径中没有找到资源或匹配到多个资源->404
+            if (!resolution.isFound()) {      
+                LOG.debug("Webjar resource {} {}", resPath, resolution.getStatus());
+                oResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            final WebjarsAsset asset = resolution.getAsset();
+            
+            //redirect模式：不带版本号的路径跳转到带版本号的路径
+            if (plan.versionlessRedirect && VersionlessRedirects.redirect(oRequest, oResponse, resPath, asset, plan.cachePolicy)) {
+                LOG.debug("Redirect webjar resource {} to {}", resPath, asset.getCanonicalPath());
+                return;
+            }
+            
+            if (plan.cachePolicy != null) {
+                //缓存策略：带版本号的路径长期缓存
+                plan.cachePolicy.apply(oResponse, resPath, asset);
+            } else {
+                oResponse.setHeader("Pragma", "No-cache"); 
+                oResponse.setHeader("Cache-Control", "No-cache"); 
+                oResponse.setDateHeader("Expires", 0);
+            }
+            
+            //按Accept-Encoding选择压缩版本，不同版本使用不同的ETag
+            String encoding = ContentEncodings.select(oRequest, oResponse, asset, plan.compressionPolicy);
+            
+            //输出校验头，条件请求命中时直接返回304，不读取jar
+            if (ConditionalRequests.checkNotModified(oRequest, oResponse, asset, asset.getETag(encoding))) {
+                LOG.debug("Webjar resource {} not modified", resPath);
+                return;
+            }
+            
+            //设置内容类型（创建资源元数据时已确定），只有含表达式的参数才在值栈中求值
+            String contentType = asset.getContentType();
+            String charSet = plan.contentCharSet.evaluate(invocation);
+            if (charSet != null && charSet.length() > 0) {
+                //配置的字符集替换资源类型中的字符集
+                int semicolon = contentType.indexOf(';');
+                contentType = (semicolon < 0 ? contentType : contentType.substring(0, semicolon)) + ";charset=" + charSet;
+            }
+            oResponse.setContentType(contentType);
+            
+            String disposition = plan.contentDisposition.evaluate(invocation);
+            if (disposition != null) {
+                oResponse.addHeader("Content-Disposition", disposition);
+            }
+            
+            long asyncTimeout = plan.asyncTimeout;
+            
+            //输出预先压缩好的版本（带有Range请求头时不压缩）
+            if (encoding != null && ContentEncodings.serve(oRequest, oResponse, registry, asset, encoding, plan.compressionPolicy, asyncTimeout)) {
+                LOG.debug("Served {} encoded webjar resource {}", encoding, resPath);
+                return;
+            }
+            
+            //Range请求：输出206或416
+            if (RangeRequests.serve(oRequest, oResponse, registry, asset, contentType)) {
+                LOG.debug("Served ranges of webjar resource {}", resPath);
+                return;
+            }
+            
+            //优先使用缓存的内容
+            AssetBody body = asyncTimeout > 0 ? registry.peekBody(asset) : null;
+            //异步模式下需要读取jar的冷资源交给I/O线程（Java 21上为虚拟线程）读取并输出
+            if (body == null && asyncTimeout > 0 && AsyncWrites.writeLater(oRequest, oResponse, registry.getIoExecutor(), new Callable<AssetBody>() {
+                @Override
+                public AssetBody call() throws IOException {
+                    return registry.getBody(asset);
+                }
+            }, asyncTimeout)) {
+                LOG.debug("Loading webjar resource {} asynchronously", resPath);
+                return;
+            }
+            if (body == null) {
+                body = registry.getBody(asset);
+            }
+            if (body == null) {
+                oResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            boolean asyncWrite = false;
+            try {
+                LOG.debug("Set the content length: {}", body.getLength());
+                if (body.getLength() >= 0 && body.getLength() <= Integer.MAX_VALUE) {
+                    oResponse.setContentLength((int) body.getLength());
+                }
+                
+                //解压后的文件交给容器以sendfile方式输出
+                if (Sendfile.serve(oRequest, oResponse, body, plan.sendfileMinSize)) {
+                    LOG.debug("Sending webjar resource {} with container sendfile", resPath);
+                    return;
+                }
+                
+                //内容在内存中时以非阻塞方式输出，不占用请求线程
+                asyncWrite = asyncTimeout > 0 && AsyncWrites.write(oRequest, oResponse, body, asyncTimeout);
+                if (asyncWrite) {
+                    LOG.debug("Writing webjar resource {} asynchronously", resPath);
+                    return;
+                }
+                
+            	output = oResponse.getOutputStream();
+            	
+            	//向输出流输出内容
+                if (body.write(output) < 0) {
+                	//没有input->404
                     oResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
-        		} else {
-					//获取文件的输入流
-					input = ResourceUtils.getURLAsStream(resource);
-					if (input != null) { 
-						//有input说明已经读到jar中内容
-                        String ext = FilenameUtils.getExtension(fullPath).toLowerCase();
-                        String contentType = MINE_TYPE_MAP.get(ext);
-                        if (contentType == null) {
-                            contentType = DEFAULT_MINE_TYPE;
-                        }
-                        //设置内容类型
-                        oResponse.setContentType(contentType);    
-						
-                        LOG.debug("Set the content type: {};charset{}", contentType, contentCharSet);
-                        if (contentCharSet != null && ! contentCharSet.equals("")) {
-                            oResponse.setContentType(conditionalParse(contentType, invocation)+";charset="+conditionalParse(contentCharSet, invocation));
-                        } else {
-                            oResponse.setContentType(conditionalParse(contentType, invocation));
-                        }
-                        
-                    	output = oResponse.getOutputStream();
-                    	
-                    	LOG.debug("Set the content-disposition: {}", contentDisposition);
-                        if (contentDisposition != null) {
-                            oResponse.addHeader("Content-Disposition", conditionalParse(contentDisposition, invocation));
-                        }
-
-                        LOG.debug("Set the cache control headers if necessary: {}", allowCaching);
-                        if (!allowCaching) {
-                            oResponse.setHeader("Pragma", "No-cache"); 
-                            oResponse.setHeader("Cache-Control", "No-cache"); 
-                            oResponse.setDateHeader("Expires", 0);
-                        }
-                        
-                    	//向输出流输出内容
-                        int contentLength = IOUtils.copy(input, output);  
-                        LOG.debug("Set the content length: {}", contentLength);
-                        if (contentLength >= 0) {
-                            oResponse.setContentLength(contentLength);
-                        }
-                        
-                        // Flush
-                        output.flush();
-                            
-   	        		} else {   
-                    	//没有input->404
-                        oResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
-                    }
-        		}
-        		COMPLIED_RESOURCE.putIfAbsent(resPath, fullPath);
-            } catch (Exception e) {
-            	LOG.error(e.getMessage(), e);
-                oResponse.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                } else {
+                	// Flush
+                	output.flush();
+                }
             } finally {
-                IOUtils.closeQuietly(input);
-                IOUtils.closeQuietly(output);
+                if (!asyncWrite) {
+                    body.release();
+                }
             }
-    	}
+        } catch (Exception e) {
+        	LOG.error(e.getMessage(), e);
+            oResponse.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        } finally {
+            IOUtils.closeQuietly(output);
+        }
+    }
+    
+    /**
+     * 取得当前实例的执行计划：已编译且属于同一注册表（同一 Web 应用）时直接使用，否则重新编译；并发编译时结果相同，后写入者覆盖即可
+     */
+    protected Plan plan(WebjarsAssetRegistry registry) {
+        Plan plan = this.plan;
+        if (plan == null || plan.registry != registry) {
+            plan = compile(registry);
+            this.plan = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * 将参数编译为不可变的执行计划：路径规则预编译，缓存、压缩策略及异步、sendfile 配置只计算一次
+     */
+    protected Plan compile(WebjarsAssetRegistry registry) {
+        WebjarsSettings settings = registry.getSettings();
+        CachePolicy cachePolicy = allowCaching ? registry.getCachePolicy().derive(versionedMaxAge, maxAge, staleWhileRevalidate) : null;
+        boolean versionlessRedirect = versionless == null ? settings.isVersionlessRedirect()
+                : WebjarsSettings.VERSIONLESS_REDIRECT.equalsIgnoreCase(versionless.trim());
+        boolean compress = compression == null ? settings.isCompressionEnabled() : compression.booleanValue();
+        CompressionPolicy compressionPolicy = compress ? registry.getCompressionPolicy().derive(compressionMinSize, compressionLevel) : null;
+        boolean asyncEnabled = async == null ? settings.isAsyncEnabled() : async.booleanValue();
+        long asyncTimeout = asyncEnabled ? Math.max(1, settings.getAsyncTimeout()) : 0;
+        return new Plan(registry, inputPattern == null ? null : PathPattern.compile(inputPattern), Param.of(inputName, parse),
+                cachePolicy, versionlessRedirect, compressionPolicy, asyncTimeout, settings.getSendfileMinSize(),
+                Param.of(contentCharSet, parse), Param.of(contentDisposition, parse));
+    }
+
+    /**
+     * 编译后的执行计划，创建后不再修改，可被多个请求同时使用
+     */
+    protected static final class Plan {
+
+        final WebjarsAssetRegistry registry;
+        /** 配置的路径规则；未配置时为 null，每次从值栈中查找 */
+        final PathPattern pattern;
+        final Param inputName;
+        final CachePolicy cachePolicy;
+        final boolean versionlessRedirect;
+        final CompressionPolicy compressionPolicy;
+        final long asyncTimeout;
+        final long sendfileMinSize;
+        final Param contentCharSet;
+        final Param contentDisposition;
+
+        Plan(WebjarsAssetRegistry registry, PathPattern pattern, Param inputName, CachePolicy cachePolicy,
+                boolean versionlessRedirect, CompressionPolicy compressionPolicy, long asyncTimeout, long sendfileMinSize,
+                Param contentCharSet, Param contentDisposition) {
+            this.registry = registry;
+            this.pattern = pattern;
+            this.inputName = inputName;
+            this.cachePolicy = cachePolicy;
+            this.versionlessRedirect = versionlessRedirect;
+            this.compressionPolicy = compressionPolicy;
+            this.asyncTimeout = asyncTimeout;
+            this.sendfileMinSize = sendfileMinSize;
+            this.contentCharSet = contentCharSet;
+            this.contentDisposition = contentDisposition;
+        }
+
+        boolean matches(String requestURI, int offset, ActionInvocation invocation) {
+            if (pattern != null) {
+                return pattern.matches(requestURI, offset);
+            }
+            LOG.debug("Find the inputPattern from the invocation variable stack");
+            String name = inputName.evaluate(invocation);
+            Object found = name == null ? null : invocation.getStack().findValue(name);
+            if (found == null) {
+                String msg = ("Can not find a pattern with the name [" + name + "] in the invocation stack. " +
+                    "Check the <param name=\"inputName\"> tag specified for this action.");
+                LOG.error(msg);
+                throw new IllegalArgumentException(msg);
+            }
+            return registry.getPathMatcher().match(found.toString(), requestURI.substring(offset));
+        }
+
+    }
+
+    /**
+     * 结果参数：不含 ${...}、%{...} 表达式的参数直接使用，不在值栈中求值
+     */
+    protected static final class Param {
+
+        static final Param NULL = new Param(null, false);
+
+        final String value;
+        final boolean expression;
+
+        private Param(String value, boolean expression) {
+            this.value = value;
+            this.expression = expression;
+        }
+
+        static Param of(String value, boolean parse) {
+            if (value == null) {
+                return NULL;
+            }
+            return new Param(value, parse && (value.contains("${") || value.contains("%{")));
+        }
+
+        String evaluate(ActionInvocation invocation) {
+            if (!expression) {
+                return value;
+            }
+            return TextParseUtil.translateVariables(value, invocation.getStack());
+        }
+
     }
 
 }
@@ -0,0 +1,106 @@
+package org.apache.struts2.webjars.asset;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.struts2.webjars.cache.AssetBodyCache;
+import org.apache.struts2.webjars.utils.IOUtils;
+
+/**
+ *
+ * @className	： AssetBody
+ * @description	： 待输出的资源内容：字节数在输出前即已确定，用于设置 Content-Length。
+ *              内容在内存中（缓存的内容、解压文件的内存映射）时可通过 {@link #buffer()} 取得只读视图，用于非阻塞输出；
+ *              使用完毕后必须调用 {@link #release()}。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午5:31:06
+ * @version 	V1.0
+ */
+public abstract class AssetBody {
+
+	private final long length;
+
+	protected AssetBody(long length) {
+		this.length = length;
+	}
+
+	/**
+	 * 内存中的内容（未被缓存接纳时使用）
+	 */
+	public static AssetBody of(final byte[] content) {
+		return new AssetBody(content.length) {
+			@Override
+			public long write(OutputStream output) throws IOException {
+				output.write(content);
+				return content.length;
+			}
+
+			@Override
+			public ByteBuffer buffer() {
+				return ByteBuffer.wrap(content).asReadOnlyBuffer();
+			}
+		};
+	}
+
+	/**
+	 * 缓存中的内容，{@link #release()} 时释放对缓存条目的引用
+	 */
+	public static AssetBody of(final AssetBodyCache.Body body) {
+		return new AssetBody(body.length()) {
+			@Override
+			public long write(OutputStream output) throws IOException {
+				return IOUtils.write(body.buffer(), output);
+			}
+
+			@Override
+			public ByteBuffer buffer() {
+				return body.buffer();
+			}
+
+			@Override
+			public void release() {
+				body.release();
+			}
+		};
+	}
+
+	/**
+	 * 将内容写出到输出流
+	 *
+	 * @param output 输出流，不会被关闭
+	 * @return 写出的字节数；资源无法读取时返回 -1
+	 * @throws IOException 读写失败
+	 */
+	public abstract long write(OutputStream output) throws IOException;
+
+	/**
+	 * @return 内容的只读视图，每次调用返回独立的读位置；内容不在内存中时返回 null
+	 * @throws IOException 映射文件失败
+	 */
+	public ByteBuffer buffer() throws IOException {
+		return null;
+	}
+
+	/**
+	 * @return 内容所在的本地文件（disk 存储方式下解压后的文件或 .gz 文件），可交给容器以 sendfile 方式输出；不在本地文件中时返回 null
+	 */
+	public File getFile() {
+		return null;
+	}
+
+	/**
+	 * 释放内容占用的资源
+	 */
+	public void release() {
+	}
+
+	/**
+	 * @return 内容的字节数，未知时为 -1
+	 */
+	public long getLength() {
+		return length;
+	}
+
+}
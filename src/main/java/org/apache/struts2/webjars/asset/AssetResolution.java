@@ -0,0 +1,49 @@
+package org.apache.struts2.webjars.asset;
+
+/**
+ *
+ * @className	： AssetResolution
+ * @description	： 请求路径的解析结果：找到资源、资源不存在或部分路径匹配到多个资源，解析过程不抛出异常。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午7:20:14
+ * @version 	V1.0
+ */
+public final class AssetResolution {
+
+	public enum Status {
+		FOUND, NOT_FOUND, AMBIGUOUS
+	}
+
+	public static final AssetResolution NOT_FOUND = new AssetResolution(Status.NOT_FOUND, null);
+
+	public static final AssetResolution AMBIGUOUS = new AssetResolution(Status.AMBIGUOUS, null);
+
+	private final Status status;
+
+	private final WebjarsAsset asset;
+
+	private AssetResolution(Status status, WebjarsAsset asset) {
+		this.status = status;
+		this.asset = asset;
+	}
+
+	public static AssetResolution found(WebjarsAsset asset) {
+		return new AssetResolution(Status.FOUND, asset);
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public boolean isFound() {
+		return status == Status.FOUND;
+	}
+
+	/**
+	 * @return 找到的资源；未找到时为 null
+	 */
+	public WebjarsAsset getAsset() {
+		return asset;
+	}
+
+}
@@ -0,0 +1,85 @@
+package org.apache.struts2.webjars.asset;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.struts2.webjars.cache.AssetBodyCache;
+import org.apache.struts2.webjars.utils.IOUtils;
+
+/**
+ *
+ * @className	： CompressedVariant
+ * @description	： 资源的一个压缩版本（gzip、br）：编码及压缩后的字节数在输出前即已确定，用于设置 Content-Length。
+ *              内容可能来自内存缓存、磁盘文件或 jar 中预先压缩好的同名 .gz/.br 条目；使用完毕后必须调用 {@link #release()}。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 上午10:32:08
+ * @version 	V1.0
+ */
+public abstract class CompressedVariant extends AssetBody {
+
+	private final String encoding;
+
+	protected CompressedVariant(String encoding, long length) {
+		super(length);
+		this.encoding = encoding;
+	}
+
+	/**
+	 * 内存中的压缩内容（未被缓存接纳时使用）
+	 */
+	public static CompressedVariant of(String encoding, final byte[] content) {
+		return new CompressedVariant(encoding, content.length) {
+			@Override
+			public long write(OutputStream output) throws IOException {
+				output.write(content);
+				return content.length;
+			}
+
+			@Override
+			public ByteBuffer buffer() {
+				return ByteBuffer.wrap(content).asReadOnlyBuffer();
+			}
+		};
+	}
+
+	/**
+	 * 缓存中的压缩内容，{@link #release()} 时释放对缓存条目的引用
+	 */
+	public static CompressedVariant of(String encoding, final AssetBodyCache.Body body) {
+		return new CompressedVariant(encoding, body.length()) {
+			@Override
+			public long write(OutputStream output) throws IOException {
+				return IOUtils.write(body.buffer(), output);
+			}
+
+			@Override
+			public ByteBuffer buffer() {
+				return body.buffer();
+			}
+
+			@Override
+			public void release() {
+				body.release();
+			}
+		};
+	}
+
+	/**
+	 * 将压缩内容写出到输出流
+	 *
+	 * @param output 输出流，不会被关闭
+	 * @return 写出的字节数
+	 * @throws IOException 读写失败
+	 */
+	@Override
+	public abstract long write(OutputStream output) throws IOException;
+
+	/**
+	 * @return Content-Encoding，如：gzip、br
+	 */
+	public String getEncoding() {
+		return encoding;
+	}
+
+}
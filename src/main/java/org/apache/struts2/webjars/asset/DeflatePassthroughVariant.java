@@ -0,0 +1,72 @@
+package org.apache.struts2.webjars.asset;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.ZipEntry;
+
+import org.apache.struts2.webjars.io.PooledGzipOutputStream;
+import org.apache.struts2.webjars.utils.IOUtils;
+
+/**
+ *
+ * @className	： DeflatePassthroughVariant
+ * @description	： 直接由 jar 中 DEFLATE 压缩条目的原始数据构成的 gzip 版本：gzip 与 zip 使用相同的 DEFLATE 格式，
+ *              只需在压缩数据前后加上 gzip 头及尾（CRC32 与原始大小均取自中央目录），既不解压也不重新压缩。
+ *              长度在输出前即可算出：10 字节头 + 压缩数据 + 8 字节尾。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 上午11:48:15
+ * @version 	V1.0
+ */
+public class DeflatePassthroughVariant extends CompressedVariant {
+
+	private final File jarFile;
+
+	private final long dataOffset;
+
+	private final long compressedSize;
+
+	private final byte[] trailer;
+
+	/**
+	 * @param encoding 内容编码，即 gzip
+	 * @param asset 资源元数据，必须是 DEFLATE 压缩的 jar 条目
+	 * @param dataOffset 压缩数据在 jar 文件中的起始位置
+	 */
+	public DeflatePassthroughVariant(String encoding, WebjarsAsset asset, long dataOffset) {
+		super(encoding, PooledGzipOutputStream.HEADER_SIZE + asset.getCompressedSize() + PooledGzipOutputStream.TRAILER_SIZE);
+		this.jarFile = asset.getJarFile();
+		this.dataOffset = dataOffset;
+		this.compressedSize = asset.getCompressedSize();
+		this.trailer = PooledGzipOutputStream.trailer(asset.getCrc(), asset.getSize());
+	}
+
+	@Override
+	public long write(OutputStream output) throws IOException {
+		FileChannel channel = FileChannel.open(jarFile.toPath(), StandardOpenOption.READ);
+		try {
+			PooledGzipOutputStream.writeHeader(output);
+			long copied = IOUtils.copyRange(channel, dataOffset, compressedSize, output);
+			if (copied < compressedSize) {
+				throw new IOException("Unexpected end of " + jarFile + " at " + (dataOffset + copied));
+			}
+			output.write(trailer);
+			return PooledGzipOutputStream.HEADER_SIZE + copied + PooledGzipOutputStream.TRAILER_SIZE;
+		} finally {
+			IOUtils.closeQuietly(channel);
+		}
+	}
+
+	/**
+	 * @param asset 资源元数据
+	 * @return 资源是否可以直接输出原始压缩数据：DEFLATE 压缩的 jar 条目，且 CRC32、大小均已知
+	 */
+	public static boolean supports(WebjarsAsset asset) {
+		return asset.getMethod() == ZipEntry.DEFLATED && asset.getJarFile() != null
+				&& asset.getEntryName() != null && asset.getCompressedSize() >= 0 && asset.getCrc() >= 0
+				&& asset.getSize() >= 0;
+	}
+
+}
@@ -0,0 +1,430 @@
+package org.apache.struts2.webjars.asset;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.jar.JarEntry;
+import java.util.zip.ZipEntry;
+
+import org.apache.struts2.webjars.index.WebjarsAssetIndex;
+import org.apache.struts2.webjars.utils.ResourceUtils;
+
+/**
+ *
+ * @className	： WebjarsAsset
+ * @description	： webjar 中单个资源的元数据：完整路径、类路径 URL、所在 jar 文件及条目名称、解压后的大小、CRC32、ETag 及修改时间，
+ *              以及内容类型和是否可压缩。
+ *              元数据全部来自 jar 的中央目录，不读取资源内容；每个资源只创建一次，由 WebjarsAssetRegistry 缓存。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午3:16:52
+ * @version 	V1.0
+ */
+public class WebjarsAsset {
+
+	private final String fullPath;
+
+	private final URL resource;
+
+	/** 资源所在的 jar 文件；资源位于文件系统（如未打包的 classes 目录）时为 null */
+	private final File jarFile;
+
+	/** jar 中的条目名称；资源位于文件系统时为 null */
+	private final String entryName;
+
+	/** 资源位于文件系统时对应的文件 */
+	private final File file;
+
+	private final long size;
+
+	/** jar 条目的 CRC32，未知时为 -1 */
+	private final long crc;
+
+	/** jar 条目的压缩方式（ZipEntry.STORED、ZipEntry.DEFLATED），资源位于文件系统或未知时为 -1 */
+	private final int method;
+
+	/** jar 条目压缩后的字节数，未知时为 -1 */
+	private final long compressedSize;
+
+	/** 强校验 ETag（含双引号），无法确定时为 null */
+	private final String eTag;
+
+	/** gzip、br 压缩版本的弱校验 ETag（W/ 前缀），压缩后的内容与原始内容是不同的表示，且字节随压缩来源及级别变化 */
+	private final String gzipETag;
+	private final String brotliETag;
+
+	/** 响应的内容类型 */
+	private final String contentType;
+
+	/** 内容类型是否可压缩 */
+	private final boolean compressible;
+
+	/** 同一 jar 中预先压缩好的 .gz、.br 条目的完整路径，不存在时为 null */
+	private final String gzipSibling;
+	private final String brotliSibling;
+
+	/** 修改时间（毫秒，精确到秒），未知时为 -1 */
+	private final long lastModified;
+
+	/** 预先格式化的 Last-Modified 响应头，未知时为 null */
+	private final String lastModifiedHeader;
+
+	/** webjar 名称及版本，如：jquery、3.4.1；资源不在 webjars 目录下时为 null */
+	private final String webjar;
+	private final String version;
+
+	/** 请求路径中出现 "/webjar/version/" 时即为带版本号的路径 */
+	private final String versionMarker;
+
+	/** 不带版本号的标准请求路径前缀，如：/webjars/jquery/ */
+	private final String versionlessPrefix;
+
+	/** 带版本号的标准请求路径，如：/webjars/jquery/3.4.1/jquery.min.js */
+	private final String canonicalPath;
+
+	protected WebjarsAsset(String fullPath, URL resource, File jarFile, String entryName, File file, long size, long crc,
+			int method, long compressedSize, long lastModified, String contentType, boolean compressible,
+			String gzipSibling, String brotliSibling) {
+		this.fullPath = fullPath;
+		this.resource = resource;
+		this.jarFile = jarFile;
+		this.entryName = entryName;
+		this.file = file;
+		this.size = size;
+		this.crc = crc;
+		this.method = method;
+		this.compressedSize = compressedSize;
+		this.eTag = eTag(file, size, crc);
+		this.gzipETag = encodedETag(eTag, "gzip");
+		this.brotliETag = encodedETag(eTag, "br");
+		this.contentType = contentType;
+		this.compressible = compressible;
+		this.gzipSibling = gzipSibling;
+		this.brotliSibling = brotliSibling;
+		// HTTP 日期只精确到秒
+		this.lastModified = lastModified > 0 ? lastModified / 1000 * 1000 : -1;
+		this.lastModifiedHeader = this.lastModified > 0 ? formatDate(this.lastModified) : null;
+		// META-INF/resources/webjars/<webjar>/<version>/...
+		String webjar = null;
+		String version = null;
+		if (fullPath.startsWith(WebjarsAssetIndex.WEBJARS_PATH_PREFIX)) {
+			int start = WebjarsAssetIndex.WEBJARS_PATH_PREFIX.length();
+			int slash = fullPath.indexOf('/', start);
+			int next = slash < 0 ? -1 : fullPath.indexOf('/', slash + 1);
+			if (next > slash + 1 && slash > start) {
+				webjar = fullPath.substring(start, slash);
+				version = fullPath.substring(slash + 1, next);
+			}
+		}
+		this.webjar = webjar;
+		this.version = version;
+		this.versionMarker = version == null ? null : "/" + webjar + "/" + version + "/";
+		this.versionlessPrefix = version == null ? null : WebjarsAssetIndex.WEBJARS_URI_PREFIX + webjar + "/";
+		this.canonicalPath = fullPath.startsWith(WebjarsAssetIndex.RESOURCES_PREFIX + "/")
+				? fullPath.substring(WebjarsAssetIndex.RESOURCES_PREFIX.length()) : null;
+	}
+
+	/**
+	 * 按 RFC 1123 格式化 HTTP 日期；每个资源只格式化一次，SimpleDateFormat 不是线程安全的，不做共享
+	 */
+	protected static String formatDate(long time) {
+		SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+		format.setTimeZone(TimeZone.getTimeZone("GMT"));
+		return format.format(new Date(time));
+	}
+
+	/**
+	 * jar 中的资源由 CRC32 与大小确定，同一个 jar 在集群的每个节点上得到相同的值；
+	 * 未打包的资源没有现成的 CRC32，使用修改时间与大小。
+	 */
+	protected static String eTag(File file, long size, long crc) {
+		if (size < 0) {
+			return null;
+		}
+		if (crc >= 0) {
+			return "\"" + Long.toHexString(crc) + "-" + Long.toHexString(size) + "\"";
+		}
+		if (file != null) {
+			return "\"" + Long.toHexString(file.lastModified()) + "-" + Long.toHexString(size) + "\"";
+		}
+		return null;
+	}
+
+	/**
+	 * 在原 ETag 的引号内追加编码名称并标记为弱 ETag，如：W/"54481ab5-14-gzip"。
+	 * 同一资源的压缩内容随来源（jar 中预先压缩的条目、运行时压缩）及压缩级别不同而不同，只是语义上等价，不能使用强 ETag。
+	 */
+	protected static String encodedETag(String eTag, String encoding) {
+		if (eTag == null) {
+			return null;
+		}
+		return "W/" + eTag.substring(0, eTag.length() - 1) + "-" + encoding + "\"";
+	}
+
+	/**
+	 * 根据类路径 URL 读取资源的元数据。
+	 *
+	 * @param fullPath 资源完整路径
+	 * @param resource 类路径中的资源 URL
+	 * @param contentType 响应的内容类型
+	 * @param compressible 内容类型是否可压缩
+	 * @param gzipSibling 预先压缩好的 .gz 条目的完整路径，可以为 null
+	 * @param brotliSibling 预先压缩好的 .br 条目的完整路径，可以为 null
+	 * @return 资源元数据
+	 * @throws IOException 读取 jar 目录信息失败
+	 */
+	public static WebjarsAsset of(String fullPath, URL resource, String contentType, boolean compressible,
+			String gzipSibling, String brotliSibling) throws IOException {
+		long size = -1;
+		long crc = -1;
+		int method = -1;
+		long compressedSize = -1;
+		long lastModified = -1;
+		File jarFile = null;
+		String entryName = null;
+		File file = null;
+		URLConnection connection = resource.openConnection();
+		if (connection instanceof JarURLConnection) {
+			JarURLConnection jarConnection = (JarURLConnection) connection;
+			JarEntry entry = jarConnection.getJarEntry();
+			if (entry != null) {
+				size = entry.getSize();
+				crc = entry.getCrc();
+				method = entry.getMethod();
+				compressedSize = entry.getCompressedSize();
+				lastModified = entryTime(entry);
+				entryName = entry.getName();
+			}
+			URL jarFileURL = jarConnection.getJarFileURL();
+			if (ResourceUtils.URL_PROTOCOL_FILE.equals(jarFileURL.getProtocol())) {
+				jarFile = ResourceUtils.getResourceAsFile(jarFileURL);
+				// 条目没有记录时间时使用 jar 文件的修改时间
+				if (lastModified <= 0) {
+					lastModified = jarFile.lastModified();
+				}
+			}
+		} else if (ResourceUtils.URL_PROTOCOL_FILE.equals(resource.getProtocol())) {
+			file = ResourceUtils.getResourceAsFile(resource);
+			size = file.length();
+			lastModified = file.lastModified();
+		}
+		return new WebjarsAsset(fullPath, resource, jarFile, entryName, file, size, crc, method, compressedSize, lastModified,
+				contentType, compressible, gzipSibling, brotliSibling);
+	}
+
+	/** 扩展时间戳（Info-ZIP "UT"）的 extra 字段标识 */
+	private static final int EXTENDED_TIMESTAMP = 0x5455;
+
+	/**
+	 * 条目的修改时间（UTC 毫秒）：优先使用扩展时间戳；没有时 ZipEntry.getTime() 按本机时区解释 DOS 时间，
+	 * 同一个 jar 在不同时区的节点上会得到不同的 Last-Modified，此处把 DOS 时间的各字段按 UTC 解释，与节点时区无关。
+	 *
+	 * @param entry jar 条目
+	 * @return 修改时间，未知时为 -1
+	 */
+	protected static long entryTime(ZipEntry entry) {
+		byte[] extra = entry.getExtra();
+		if (extra != null) {
+			int at = 0;
+			while (at + 4 <= extra.length) {
+				int tag = (extra[at] & 0xff) | (extra[at + 1] & 0xff) << 8;
+				int length = (extra[at + 2] & 0xff) | (extra[at + 3] & 0xff) << 8;
+				int data = at + 4;
+				if (data + length > extra.length) {
+					break;
+				}
+				// 标志位 0x01 表示含有修改时间（秒，有符号 32 位）
+				if (tag == EXTENDED_TIMESTAMP && length >= 5 && (extra[data] & 0x01) != 0) {
+					long seconds = (extra[data + 1] & 0xff) | (extra[data + 2] & 0xff) << 8
+							| (extra[data + 3] & 0xff) << 16 | extra[data + 4] << 24;
+					return seconds * 1000;
+				}
+				at = data + length;
+			}
+		}
+		long time = entry.getTime();
+		if (time == -1) {
+			return -1;
+		}
+		return time + TimeZone.getDefault().getOffset(time);
+	}
+
+	/**
+	 * 打开资源的输入流，调用方负责关闭。
+	 *
+	 * @return 输入流；资源为目录时返回 null
+	 * @throws IOException 打开失败
+	 */
+	public InputStream openStream() throws IOException {
+		return ResourceUtils.getURLAsStream(resource);
+	}
+
+	public String getFullPath() {
+		return fullPath;
+	}
+
+	public URL getResource() {
+		return resource;
+	}
+
+	public File getJarFile() {
+		return jarFile;
+	}
+
+	public String getEntryName() {
+		return entryName;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return 解压后的字节数，未知时为 -1
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return jar 条目的 CRC32，未知时为 -1
+	 */
+	public long getCrc() {
+		return crc;
+	}
+
+	/**
+	 * @return jar 条目的压缩方式，资源位于文件系统或未知时为 -1
+	 */
+	public int getMethod() {
+		return method;
+	}
+
+	/**
+	 * @return jar 条目压缩后的字节数，未知时为 -1
+	 */
+	public long getCompressedSize() {
+		return compressedSize;
+	}
+
+	/**
+	 * @return 输入流能否直接定位（未压缩的 jar 条目或文件系统中的文件），否则跳过内容需要先解压
+	 */
+	public boolean isSeekable() {
+		return file != null || method == ZipEntry.STORED;
+	}
+
+	/**
+	 * @return 强校验 ETag（含双引号），无法确定时为 null
+	 */
+	public String getETag() {
+		return eTag;
+	}
+
+	/**
+	 * @param encoding 响应的内容编码，null 表示原始内容
+	 * @return 原始内容返回强校验 ETag，gzip、br 压缩版本返回弱校验 ETag（如：W/"54481ab5-14-gzip"），无法确定时为 null
+	 */
+	public String getETag(String encoding) {
+		if (encoding == null) {
+			return eTag;
+		}
+		if ("gzip".equals(encoding)) {
+			return gzipETag;
+		}
+		if ("br".equals(encoding)) {
+			return brotliETag;
+		}
+		return eTag;
+	}
+
+	/**
+	 * @return 预先压缩好的 .gz 条目的完整路径，不存在时为 null
+	 */
+	public String getGzipSibling() {
+		return gzipSibling;
+	}
+
+	/**
+	 * @return 预先压缩好的 .br 条目的完整路径，不存在时为 null
+	 */
+	public String getBrotliSibling() {
+		return brotliSibling;
+	}
+
+	/**
+	 * @return 响应的内容类型
+	 */
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * @return 是否可以输出压缩版本：内容类型可压缩，且内容非空
+	 */
+	public boolean isCompressible() {
+		return compressible && size > 0;
+	}
+
+	/**
+	 * @return 修改时间（毫秒，精确到秒），未知时为 -1
+	 */
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * @return 预先格式化的 Last-Modified 响应头，未知时为 null
+	 */
+	public String getLastModifiedHeader() {
+		return lastModifiedHeader;
+	}
+
+	/**
+	 * @return webjar 名称，资源不在 webjars 目录下时为 null
+	 */
+	public String getWebjar() {
+		return webjar;
+	}
+
+	/**
+	 * @return webjar 版本，资源不在 webjars 目录下时为 null
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	/**
+	 * 请求路径是否带有该资源的版本号（如：/webjars/jquery/3.4.1/jquery.min.js），带版本号的路径对应的内容不会变化。
+	 *
+	 * @param path 请求路径
+	 * @return 是否为带版本号的路径
+	 */
+	public boolean isVersionedPath(String path) {
+		return versionMarker != null && path != null && path.indexOf(versionMarker) >= 0;
+	}
+
+	/**
+	 * 请求路径是否为省略了版本号的标准路径（如：/webjars/jquery/jquery.min.js）
+	 *
+	 * @param path 请求路径
+	 * @return 是否为不带版本号的标准路径
+	 */
+	public boolean isVersionlessPath(String path) {
+		return versionlessPrefix != null && path != null && path.startsWith(versionlessPrefix) && !isVersionedPath(path);
+	}
+
+	/**
+	 * @return 带版本号的标准请求路径（不含上下文），如：/webjars/jquery/3.4.1/jquery.min.js
+	 */
+	public String getCanonicalPath() {
+		return canonicalPath;
+	}
+
+}
@@ -0,0 +1,356 @@
+package org.apache.struts2.webjars.cache;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *
+ * @className	： AssetBodyCache
+ * @description	： 按字节数限制容量的资源内容缓存。淘汰顺序为 LRU，按条目大小计算占用；
+ *              新条目需要挤出旧条目时，只有其访问频率高于全部被挤出条目才会被接纳，
+ *              避免偶发的大文件把 jquery/bootstrap 等热点资源冲掉。
+ *              读取不加锁：条目存放在 ConcurrentHashMap 中，访问记录先写入按线程分段的环形缓冲区（满时丢弃，频率统计允许少量误差），
+ *              写入缓存或缓冲区积累到一定数量时才在锁内批量更新频率统计及 LRU 顺序，命中缓存的请求之间不会互相等待。
+ *              内容存放在 {@link BufferAllocator} 分配的缓冲区中（堆内或堆外），条目带引用计数，
+ *              被淘汰的条目要等正在输出它的请求释放后才会归还给分配器。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午2:58:33
+ * @version 	V1.0
+ */
+public class AssetBodyCache {
+
+	/** 每个分段缓冲区记录的访问数 */
+	private static final int READ_BUFFER_SIZE = 64;
+
+	private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+
+	/** 分段缓冲区每记录这么多次访问尝试批量处理一次 */
+	private static final int DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+
+	private static final int STRIPES = stripes();
+
+	private final long maxSize;
+
+	private final BufferAllocator allocator;
+
+	/** 条目，读取不加锁 */
+	private final ConcurrentHashMap<String, Body> entries = new ConcurrentHashMap<String, Body>();
+
+	/** 访问顺序（LRU），只在锁内修改 */
+	private final LinkedHashMap<String, Body> order = new LinkedHashMap<String, Body>(64, 0.75f, true);
+
+	private final FrequencySketch sketch;
+
+	private final ReadBuffer[] readBuffers;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private long weightedSize;
+
+	/**
+	 * @param maxSize 缓存内容的总字节数上限
+	 * @param expectedEntries 预计的资源数量，用于确定频率统计的规模
+	 */
+	public AssetBodyCache(long maxSize, int expectedEntries) {
+		this(maxSize, expectedEntries, new HeapBufferAllocator());
+	}
+
+	/**
+	 * @param maxSize 缓存内容的总字节数上限
+	 * @param expectedEntries 预计的资源数量，用于确定频率统计的规模
+	 * @param allocator 内容存储的分配器
+	 */
+	public AssetBodyCache(long maxSize, int expectedEntries, BufferAllocator allocator) {
+		this.maxSize = maxSize;
+		this.allocator = allocator;
+		this.sketch = new FrequencySketch(Math.max(expectedEntries, 64));
+		this.readBuffers = new ReadBuffer[STRIPES];
+		for (int i = 0; i < readBuffers.length; i++) {
+			readBuffers[i] = new ReadBuffer();
+		}
+	}
+
+	/**
+	 * 读取缓存，并记录一次访问。返回的条目使用完毕后必须调用 {@link Body#release()}。
+	 *
+	 * @param key 资源完整路径
+	 * @return 缓存的资源内容，未缓存时返回 null
+	 */
+	public Body acquire(String key) {
+		record(key);
+		Body body = entries.get(key);
+		// 条目可能刚被淘汰且内容已归还给分配器，此时按未缓存处理
+		return body != null && body.retain() ? body : null;
+	}
+
+	private void record(String key) {
+		ReadBuffer buffer = readBuffers[(int) Thread.currentThread().getId() & (STRIPES - 1)];
+		if (buffer.add(key) && lock.tryLock()) {
+			try {
+				drainReadBuffers();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * 将缓冲区中的访问记录计入频率统计，并更新 LRU 顺序，须持有锁
+	 */
+	private void drainReadBuffers() {
+		for (ReadBuffer buffer : readBuffers) {
+			buffer.drainTo(this);
+		}
+	}
+
+	private void onAccess(String key) {
+		sketch.increment(key);
+		order.get(key);
+	}
+
+	/**
+	 * 尝试写入缓存。被接纳时返回已被引用的条目，使用完毕后必须调用 {@link Body#release()}。
+	 *
+	 * @param key 资源完整路径
+	 * @param content 资源内容
+	 * @return 缓存条目；未被接纳时返回 null
+	 */
+	public Body put(String key, byte[] content) {
+		int weight = allocator.capacityFor(content.length);
+		if (weight > maxSize) {
+			return null;
+		}
+		List<Body> evicted = new ArrayList<Body>();
+		Body body;
+		lock.lock();
+		try {
+			drainReadBuffers();
+			body = admit(key, content, weight, evicted);
+		} finally {
+			lock.unlock();
+		}
+		for (Body victim : evicted) {
+			victim.release();
+		}
+		return body;
+	}
+
+	/**
+	 * 先决定是否接纳并淘汰需要挤出的条目，再分配存储；分配器仍然分配不出时（内存碎片、被淘汰的条目仍在输出），
+	 * 继续淘汰更冷的条目后重试。须持有锁。
+	 */
+	private Body admit(String key, byte[] content, int weight, List<Body> evicted) {
+		Body previous = order.get(key);
+		int candidateFrequency = sketch.frequency(key);
+		long excess = weightedSize - (previous == null ? 0 : previous.weight()) + weight - maxSize;
+		if (excess > 0) {
+			// 从最久未访问的条目开始选出需要淘汰的条目
+			List<String> victims = new ArrayList<String>();
+			long freed = 0;
+			for (Iterator<Map.Entry<String, Body>> it = order.entrySet().iterator(); it.hasNext() && freed < excess;) {
+				Map.Entry<String, Body> victim = it.next();
+				if (victim.getValue() == previous) {
+					continue;
+				}
+				if (sketch.frequency(victim.getKey()) >= candidateFrequency) {
+					return null;
+				}
+				victims.add(victim.getKey());
+				freed += victim.getValue().weight();
+			}
+			if (freed < excess) {
+				return null;
+			}
+			for (String victim : victims) {
+				evict(victim);
+			}
+		}
+		ByteBuffer buffer = allocator.allocate(content.length);
+		while (buffer == null) {
+			String victim = coldestVictim(previous, candidateFrequency);
+			if (victim == null) {
+				return null;
+			}
+			evict(victim);
+			buffer = allocator.allocate(content.length);
+		}
+		buffer.put(content);
+		((Buffer) buffer).flip();
+		Body body = new Body(buffer);
+		if (previous != null) {
+			weightedSize -= previous.weight();
+			evicted.add(previous);
+		}
+		order.put(key, body);
+		entries.put(key, body);
+		weightedSize += body.weight();
+		body.retain();
+		return body;
+	}
+
+	/**
+	 * @return 最久未访问、且访问频率低于新条目的条目，没有时返回 null
+	 */
+	private String coldestVictim(Body previous, int candidateFrequency) {
+		for (Map.Entry<String, Body> victim : order.entrySet()) {
+			if (victim.getValue() == previous) {
+				continue;
+			}
+			return sketch.frequency(victim.getKey()) < candidateFrequency ? victim.getKey() : null;
+		}
+		return null;
+	}
+
+	/**
+	 * 移除条目并立即释放缓存持有的引用，没有请求正在输出时存储随即归还给分配器，供后续分配重用。须持有锁。
+	 */
+	private void evict(String key) {
+		Body removed = order.remove(key);
+		entries.remove(key);
+		weightedSize -= removed.weight();
+		removed.release();
+	}
+
+	public void clear() {
+		List<Body> evicted;
+		lock.lock();
+		try {
+			evicted = new ArrayList<Body>(order.values());
+			order.clear();
+			entries.clear();
+			weightedSize = 0;
+		} finally {
+			lock.unlock();
+		}
+		for (Body body : evicted) {
+			body.release();
+		}
+	}
+
+	/**
+	 * @return 当前缓存占用的字节数
+	 */
+	public long weightedSize() {
+		lock.lock();
+		try {
+			return weightedSize;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	private static int stripes() {
+		int stripes = 1;
+		while (stripes < Runtime.getRuntime().availableProcessors() && stripes < 64) {
+			stripes <<= 1;
+		}
+		return stripes;
+	}
+
+	/**
+	 * 缓存条目：缓存本身持有一个引用，每次 acquire/put 再增加一个。
+	 */
+	public final class Body {
+
+		private final ByteBuffer buffer;
+
+		private final AtomicInteger refs = new AtomicInteger(1);
+
+		Body(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		/**
+		 * @return 资源内容的视图，每次调用返回独立的读位置，调用方不得修改内容
+		 */
+		public ByteBuffer buffer() {
+			return buffer.duplicate();
+		}
+
+		public int length() {
+			return buffer.limit();
+		}
+
+		int weight() {
+			return buffer.capacity();
+		}
+
+		/**
+		 * 引用计数已归零（内容已归还给分配器）时不再增加
+		 */
+		boolean retain() {
+			for (;;) {
+				int current = refs.get();
+				if (current <= 0) {
+					return false;
+				}
+				if (refs.compareAndSet(current, current + 1)) {
+					return true;
+				}
+			}
+		}
+
+		public void release() {
+			if (refs.decrementAndGet() == 0) {
+				allocator.release(buffer);
+			}
+		}
+
+	}
+
+	/**
+	 * 访问记录的环形缓冲区：写入不加锁，写满时覆盖尚未处理的记录
+	 */
+	private static final class ReadBuffer {
+
+		private final AtomicReferenceArray<String> keys = new AtomicReferenceArray<String>(READ_BUFFER_SIZE);
+
+		private final AtomicLong writes = new AtomicLong();
+
+		private long reads;
+
+		/**
+		 * @return 是否应尝试批量处理
+		 */
+		boolean add(String key) {
+			long index = writes.getAndIncrement();
+			keys.lazySet((int) (index & READ_BUFFER_MASK), key);
+			return ((index + 1) & (DRAIN_THRESHOLD - 1)) == 0;
+		}
+
+		/**
+		 * 须持有缓存的锁
+		 */
+		void drainTo(AssetBodyCache cache) {
+			long end = writes.get();
+			long start = Math.max(reads, end - READ_BUFFER_SIZE);
+			for (long i = start; i < end; i++) {
+				String key = keys.getAndSet((int) (i & READ_BUFFER_MASK), null);
+				if (key != null) {
+					cache.onAccess(key);
+				}
+			}
+			reads = end;
+		}
+
+	}
+
+}
@@ -0,0 +1,38 @@
+package org.apache.struts2.webjars.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ *
+ * @className	： BufferAllocator
+ * @description	： 资源内容缓存的存储分配器：决定缓存的内容放在堆内还是堆外。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午4:02:18
+ * @version 	V1.0
+ */
+public interface BufferAllocator {
+
+	/**
+	 * 分配 size 个字节时实际占用的容量（按块大小向上取整），缓存据此在分配前决定淘汰哪些条目。
+	 *
+	 * @param size 需要的字节数
+	 * @return 占用的字节数
+	 */
+	int capacityFor(int size);
+
+	/**
+	 * 分配一块可写入 size 个字节的缓冲区，position 为 0，limit 为 size。
+	 *
+	 * @param size 需要的字节数
+	 * @return 缓冲区；容量不足时返回 null
+	 */
+	ByteBuffer allocate(int size);
+
+	/**
+	 * 归还不再使用的缓冲区。
+	 *
+	 * @param buffer 由 {@link #allocate(int)} 分配的缓冲区
+	 */
+	void release(ByteBuffer buffer);
+
+}
@@ -0,0 +1,196 @@
+package org.apache.struts2.webjars.cache;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @className	： DirectBufferArena
+ * @description	： 堆外存储：以 256KB 的直接内存 slab 为单位向 JVM 申请，按 2 的幂切分为固定大小的块（256B ~ 256KB），
+ *              释放的块回到所属的 slab；slab 中的块全部释放后，slab 回到共享的空闲链表，可重新切分为其他大小的块，
+ *              缓存的资源大小分布变化后不会因为 slab 被某个大小永久占用而无法分配。超过 slab 大小的资源单独分配直接内存。
+ *              已申请的直接内存总量不超过 capacity，字体、图标集、source map 等大文件因此不会占用 Java 堆。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午4:11:27
+ * @version 	V1.0
+ */
+public class DirectBufferArena implements BufferAllocator {
+
+	protected static final Logger LOG = LoggerFactory.getLogger(DirectBufferArena.class);
+
+	private static final int MIN_SHIFT = 8;
+
+	private static final int SLAB_SHIFT = 18;
+
+	/** slab 大小：256KB */
+	public static final int SLAB_SIZE = 1 << SLAB_SHIFT;
+
+	private final long capacity;
+
+	/** 每种块大小中尚有空闲块的 slab */
+	private final LinkedHashSet<Slab>[] partialSlabs;
+
+	/** 块全部空闲的 slab，可切分为任意大小的块 */
+	private final ArrayDeque<ByteBuffer> emptySlabs = new ArrayDeque<ByteBuffer>();
+
+	/** 已分配的块 -> 所属的 slab（ByteBuffer 的 equals 按内容比较，须按引用查找） */
+	private final Map<ByteBuffer, Slab> owners = new IdentityHashMap<ByteBuffer, Slab>();
+
+	/** 已向 JVM 申请的直接内存字节数 */
+	private long reserved;
+
+	@SuppressWarnings("unchecked")
+	public DirectBufferArena(long capacity) {
+		this.capacity = capacity;
+		this.partialSlabs = new LinkedHashSet[SLAB_SHIFT - MIN_SHIFT + 1];
+		for (int i = 0; i < partialSlabs.length; i++) {
+			partialSlabs[i] = new LinkedHashSet<Slab>();
+		}
+	}
+
+	@Override
+	public int capacityFor(int size) {
+		return size > SLAB_SIZE ? size : 1 << (sizeClass(size) + MIN_SHIFT);
+	}
+
+	@Override
+	public synchronized ByteBuffer allocate(int size) {
+		if (size > SLAB_SIZE) {
+			if (!reserve(size)) {
+				return null;
+			}
+			ByteBuffer buffer = allocateDirect(size);
+			if (buffer == null) {
+				reserved -= size;
+			}
+			return buffer;
+		}
+		int sizeClass = sizeClass(size);
+		LinkedHashSet<Slab> partial = partialSlabs[sizeClass];
+		Slab slab = partial.isEmpty() ? null : partial.iterator().next();
+		if (slab == null) {
+			ByteBuffer memory = emptySlabs.poll();
+			if (memory == null) {
+				if (!reserve(SLAB_SIZE)) {
+					return null;
+				}
+				memory = allocateDirect(SLAB_SIZE);
+				if (memory == null) {
+					reserved -= SLAB_SIZE;
+					return null;
+				}
+			}
+			slab = new Slab(memory, sizeClass);
+			partial.add(slab);
+		}
+		ByteBuffer chunk = slab.free.poll();
+		if (slab.free.isEmpty()) {
+			partial.remove(slab);
+		}
+		owners.put(chunk, slab);
+		((Buffer) chunk).clear();
+		((Buffer) chunk).limit(size);
+		return chunk;
+	}
+
+	/**
+	 * 在容量内预留直接内存，不足时先丢弃空闲的 slab（由 GC 回收）
+	 */
+	private boolean reserve(int size) {
+		while (reserved + size > capacity && !emptySlabs.isEmpty()) {
+			emptySlabs.poll();
+			reserved -= SLAB_SIZE;
+		}
+		if (reserved + size > capacity) {
+			return false;
+		}
+		reserved += size;
+		return true;
+	}
+
+	@Override
+	public synchronized void release(ByteBuffer buffer) {
+		Slab slab = owners.remove(buffer);
+		if (slab == null) {
+			// 单独分配的直接内存由 GC 回收
+			reserved -= buffer.capacity();
+			return;
+		}
+		slab.free.add(buffer);
+		LinkedHashSet<Slab> partial = partialSlabs[slab.sizeClass];
+		if (slab.free.size() == slab.chunks) {
+			// 整个 slab 空闲，交给共享的空闲链表
+			partial.remove(slab);
+			emptySlabs.add(slab.memory);
+		} else if (slab.free.size() == 1) {
+			partial.add(slab);
+		}
+	}
+
+	/**
+	 * @return 已向 JVM 申请的直接内存字节数
+	 */
+	public synchronized long getReserved() {
+		return reserved;
+	}
+
+	/**
+	 * @return 块全部空闲、可切分为任意大小的 slab 数
+	 */
+	public synchronized int getEmptySlabs() {
+		return emptySlabs.size();
+	}
+
+	public long getCapacity() {
+		return capacity;
+	}
+
+	private static int sizeClass(int size) {
+		int shift = 32 - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1);
+		return Math.max(shift, MIN_SHIFT) - MIN_SHIFT;
+	}
+
+	private static ByteBuffer allocateDirect(int size) {
+		try {
+			return ByteBuffer.allocateDirect(size);
+		} catch (OutOfMemoryError e) {
+			LOG.warn("Unable to allocate {} bytes of direct memory for webjars cache: {}", size, e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * 按一种块大小切分的 slab
+	 */
+	private static final class Slab {
+
+		final ByteBuffer memory;
+
+		final int sizeClass;
+
+		final int chunks;
+
+		final ArrayDeque<ByteBuffer> free = new ArrayDeque<ByteBuffer>();
+
+		Slab(ByteBuffer memory, int sizeClass) {
+			this.memory = memory;
+			this.sizeClass = sizeClass;
+			int chunkSize = 1 << (sizeClass + MIN_SHIFT);
+			ByteBuffer view = memory.duplicate();
+			for (int offset = 0; offset < SLAB_SIZE; offset += chunkSize) {
+				((Buffer) view).limit(offset + chunkSize).position(offset);
+				free.add(view.slice());
+			}
+			this.chunks = free.size();
+		}
+
+	}
+
+}
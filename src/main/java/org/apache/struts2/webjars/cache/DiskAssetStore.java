@@ -0,0 +1,500 @@
+package org.apache.struts2.webjars.cache;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.apache.struts2.webjars.asset.WebjarsAsset;
+import org.apache.struts2.webjars.utils.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @className	： DiskAssetStore
+ * @description	： 磁盘存储：首次访问时把 jar 中的资源解压到本地缓存目录，之后通过 FileChannel.transferTo 或内存映射输出，
+ *              由操作系统页缓存负责缓存，不占用 Java 堆。
+ *              目录按 “jar 文件名-jar 内容 CRC32” 区分，重启后可直接复用；解压先写临时文件再原子重命名，
+ *              同一主机上的多个 JVM 可以安全地共享同一目录。
+ *              资源的 gzip 版本在首次需要时压缩一次，以 .gz 文件保存在解压文件旁，同样通过 transferTo 或内存映射输出。
+ *              内存映射按文件长度及修改时间校验，文件被重新生成后重新映射；映射数超过上限时丢弃最久未使用的映射，
+ *              由 GC 解除映射（正在输出的请求仍持有视图，不能强制解除）。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午5:07:45
+ * @version 	V1.0
+ */
+public class DiskAssetStore {
+
+	protected static final Logger LOG = LoggerFactory.getLogger(DiskAssetStore.class);
+
+	public static final String GZIP_SUFFIX = ".gz";
+
+	/** 未打包资源（不在 jar 中）的压缩文件存放的子目录 */
+	private static final String FILES_DIRECTORY = "_files";
+
+	private final File directory;
+
+	/** jar 文件绝对路径 -> 缓存子目录名 */
+	private final ConcurrentMap<String, String> jarKeys = new ConcurrentHashMap<String, String>();
+
+	private final SingleFlight<String, String> checksums = new SingleFlight<String, String>();
+
+	/** 合并同一资源的并发解压 */
+	private final SingleFlight<String, Boolean> extractions = new SingleFlight<String, Boolean>();
+
+	/** 默认保留的内存映射数 */
+	public static final int DEFAULT_MAX_MAPPINGS = 512;
+
+	/** 缓存键 -> 本地文件的内存映射 */
+	private final ConcurrentMap<String, Mapping> mappings = new ConcurrentHashMap<String, Mapping>();
+
+	private final int maxMappings;
+
+	/** 内存映射的访问时钟，用于选出最久未使用的映射 */
+	private final AtomicLong mappingClock = new AtomicLong();
+
+	public DiskAssetStore(File directory) {
+		this(directory, DEFAULT_MAX_MAPPINGS);
+	}
+
+	/**
+	 * @param directory 缓存目录
+	 * @param maxMappings 保留的内存映射数上限
+	 */
+	public DiskAssetStore(File directory, int maxMappings) {
+		this.directory = directory;
+		this.maxMappings = Math.max(maxMappings, 1);
+		if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+			LOG.warn("Unable to create webjars cache directory {}", directory);
+		}
+	}
+
+	/**
+	 * 获取资源在本地磁盘上的文件，必要时先从 jar 中解压。
+	 *
+	 * @param asset 资源元数据
+	 * @return 本地文件；资源无法读取时返回 null
+	 * @throws IOException 解压失败
+	 */
+	public File getFile(final WebjarsAsset asset) throws IOException {
+		final File target = getTarget(asset);
+		if (target == null || asset.getFile() != null || isExtracted(asset, target)) {
+			return target;
+		}
+		Boolean extracted = extractions.execute(target.getPath(), new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws IOException {
+				if (isExtracted(asset, target)) {
+					return Boolean.TRUE;
+				}
+				return Boolean.valueOf(extract(asset, target));
+			}
+		});
+		return extracted.booleanValue() ? target : null;
+	}
+
+	/**
+	 * 获取已经解压到本地磁盘的文件，不解压，也不计算 jar 的校验和。
+	 *
+	 * @param asset 资源元数据
+	 * @return 本地文件；尚未解压时返回 null
+	 */
+	public File findFile(WebjarsAsset asset) {
+		if (asset.getFile() != null) {
+			return asset.getFile();
+		}
+		if (asset.getJarFile() == null || asset.getEntryName() == null || asset.getEntryName().contains("..")) {
+			return null;
+		}
+		String jarKey = jarKeys.get(asset.getJarFile().getAbsolutePath());
+		if (jarKey == null) {
+			return null;
+		}
+		File target = new File(new File(directory, jarKey), asset.getEntryName());
+		return isExtracted(asset, target) ? target : null;
+	}
+
+	/**
+	 * 资源在本地磁盘上的路径，只计算路径，不解压。
+	 *
+	 * @param asset 资源元数据
+	 * @return 未打包的资源返回原文件，jar 中的资源返回解压目标；无法确定或条目名包含 ".." 时返回 null
+	 * @throws IOException 计算 jar 的校验和失败
+	 */
+	protected File getTarget(WebjarsAsset asset) throws IOException {
+		if (asset.getFile() != null) {
+			// 未打包的资源直接使用原文件
+			return asset.getFile();
+		}
+		if (asset.getJarFile() == null || asset.getEntryName() == null || asset.getEntryName().contains("..")) {
+			return null;
+		}
+		return new File(new File(directory, jarKey(asset.getJarFile())), asset.getEntryName());
+	}
+
+	private static boolean isExtracted(WebjarsAsset asset, File target) {
+		return target.isFile() && target.length() == asset.getSize();
+	}
+
+	/**
+	 * 获取资源 gzip 版本在本地磁盘上的文件，必要时先压缩。
+	 *
+	 * @param asset 资源元数据
+	 * @param level 压缩级别 1-9，-1 表示默认级别；不同级别的压缩文件分别保存
+	 * @return 压缩后的文件；资源无法读取时返回 null
+	 * @throws IOException 压缩失败
+	 */
+	public File getGzipFile(final WebjarsAsset asset, final int level) throws IOException {
+		final File source = getFile(asset);
+		if (source == null) {
+			return null;
+		}
+		final File target = gzipTarget(asset, source, level);
+		if (target == null) {
+			return null;
+		}
+		if (isFresh(target, source)) {
+			return target;
+		}
+		Boolean compressed = extractions.execute(target.getPath(), new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws IOException {
+				if (isFresh(target, source)) {
+					return Boolean.TRUE;
+				}
+				InputStream input = new FileInputStream(source);
+				return Boolean.valueOf(store(asset, input, target, Integer.valueOf(level)));
+			}
+		});
+		return compressed.booleanValue() ? target : null;
+	}
+
+	/**
+	 * 获取已经压缩好的 gzip 文件，不存在或已过期时不压缩，也不解压原始资源。
+	 *
+	 * @param asset 资源元数据
+	 * @param level 压缩级别 1-9，-1 表示默认级别
+	 * @return 压缩后的文件；尚未压缩或原始资源尚未解压时返回 null
+	 * @throws IOException 计算 jar 的校验和失败
+	 */
+	public File findGzipFile(WebjarsAsset asset, int level) throws IOException {
+		File source = getTarget(asset);
+		if (source == null || (asset.getFile() == null ? !isExtracted(asset, source) : !source.isFile())) {
+			return null;
+		}
+		File target = gzipTarget(asset, source, level);
+		return target != null && isFresh(target, source) ? target : null;
+	}
+
+	private File gzipTarget(WebjarsAsset asset, File source, int level) {
+		if (asset.getFile() != null) {
+			// 不能写入应用自身的目录；未打包的资源可能被修改，按修改时间判断是否需要重新压缩
+			if (asset.getFullPath().contains("..")) {
+				return null;
+			}
+			return new File(new File(directory, FILES_DIRECTORY), asset.getFullPath() + gzipSuffix(level));
+		}
+		// jar 的缓存子目录由 jar 内容决定，已存在的压缩文件一定与之对应
+		return new File(source.getPath() + gzipSuffix(level));
+	}
+
+	/**
+	 * @return 压缩文件的后缀，如：.gz、.9.gz
+	 */
+	public static String gzipSuffix(int level) {
+		return level == Deflater.DEFAULT_COMPRESSION ? GZIP_SUFFIX : "." + level + GZIP_SUFFIX;
+	}
+
+	private static boolean isFresh(File target, File source) {
+		return target.isFile() && target.length() > 0 && target.lastModified() >= source.lastModified();
+	}
+
+	/**
+	 * 将资源内容写出到输出流：输出流实现了 WritableByteChannel 时使用 FileChannel.transferTo，否则使用内存映射。
+	 *
+	 * @param asset 资源元数据
+	 * @param output 输出流，不会被关闭
+	 * @return 写出的字节数；资源无法读取时返回 -1
+	 * @throws IOException 读写失败
+	 */
+	public long write(WebjarsAsset asset, OutputStream output) throws IOException {
+		return write(asset, output, 0, -1);
+	}
+
+	/**
+	 * 将资源内容中 [offset, offset + length) 的部分写出到输出流，直接定位到 offset，不读取前面的内容。
+	 *
+	 * @param asset 资源元数据
+	 * @param output 输出流，不会被关闭
+	 * @param offset 起始位置
+	 * @param length 字节数，-1 表示到末尾
+	 * @return 写出的字节数；资源无法读取时返回 -1
+	 * @throws IOException 读写失败
+	 */
+	public long write(WebjarsAsset asset, OutputStream output, long offset, long length) throws IOException {
+		File file = getFile(asset);
+		if (file == null) {
+			return -1;
+		}
+		return write(file, asset.getFullPath(), output, offset, length);
+	}
+
+	/**
+	 * 将本地文件中 [offset, offset + length) 的部分写出到输出流。
+	 *
+	 * @param file 本地文件
+	 * @param key 内存映射的缓存键
+	 * @param output 输出流，不会被关闭
+	 * @param offset 起始位置
+	 * @param length 字节数，-1 表示到末尾
+	 * @return 写出的字节数
+	 * @throws IOException 读写失败
+	 */
+	public long write(File file, String key, OutputStream output, long offset, long length) throws IOException {
+		if (output instanceof WritableByteChannel) {
+			WritableByteChannel target = (WritableByteChannel) output;
+			FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			try {
+				long end = length < 0 ? channel.size() : Math.min(channel.size(), offset + length);
+				long position = offset;
+				while (position < end) {
+					position += channel.transferTo(position, end - position, target);
+				}
+				return Math.max(0, end - offset);
+			} finally {
+				IOUtils.closeQuietly(channel);
+			}
+		}
+		ByteBuffer buffer = map(key, file).duplicate();
+		int start = (int) Math.min(offset, buffer.limit());
+		((Buffer) buffer).position(start);
+		if (length >= 0) {
+			((Buffer) buffer).limit((int) Math.min(buffer.limit(), start + length));
+		}
+		return IOUtils.write(buffer, output);
+	}
+
+	/**
+	 * @param file 本地文件
+	 * @param key 内存映射的缓存键
+	 * @return 文件内存映射的只读视图，每次调用返回独立的读位置
+	 * @throws IOException 映射失败
+	 */
+	public ByteBuffer getBuffer(File file, String key) throws IOException {
+		return map(key, file).asReadOnlyBuffer();
+	}
+
+	protected ByteBuffer map(String key, File file) throws IOException {
+		long length = file.length();
+		long lastModified = file.lastModified();
+		Mapping mapping = mappings.get(key);
+		if (mapping != null && mapping.matches(file, length, lastModified)) {
+			mapping.lastAccess = mappingClock.incrementAndGet();
+			return mapping.buffer;
+		}
+		MappedByteBuffer buffer;
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			// 关闭通道后映射依然有效；文件被其他 JVM 替换时映射仍指向原文件，下次访问按长度及修改时间发现后重新映射
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			IOUtils.closeQuietly(channel);
+		}
+		Mapping created = new Mapping(file, length, lastModified, buffer);
+		created.lastAccess = mappingClock.incrementAndGet();
+		// 过期的映射直接替换，并发映射同一文件时以后写入的为准，先映射的由 GC 回收
+		mappings.put(key, created);
+		if (mappings.size() > maxMappings) {
+			evictMappings();
+		}
+		return buffer;
+	}
+
+	/**
+	 * 丢弃最久未使用的映射，直到映射数回到上限以内。只在新建映射时调用。
+	 */
+	private void evictMappings() {
+		while (mappings.size() > maxMappings) {
+			Map.Entry<String, Mapping> eldest = null;
+			for (Map.Entry<String, Mapping> entry : mappings.entrySet()) {
+				if (eldest == null || entry.getValue().lastAccess < eldest.getValue().lastAccess) {
+					eldest = entry;
+				}
+			}
+			if (eldest == null) {
+				return;
+			}
+			mappings.remove(eldest.getKey(), eldest.getValue());
+		}
+	}
+
+	/**
+	 * @return 当前保留的内存映射数
+	 */
+	public int getMappingCount() {
+		return mappings.size();
+	}
+
+	protected boolean extract(WebjarsAsset asset, File target) throws IOException {
+		InputStream input = openStream(asset);
+		if (input == null) {
+			return false;
+		}
+		return store(asset, input, target, null);
+	}
+
+	/**
+	 * 打开资源内容的输入流用于解压，子类可以改用其他读取方式
+	 *
+	 * @param asset 资源元数据
+	 * @return 输入流，资源无法读取时返回 null
+	 * @throws IOException 打开失败
+	 */
+	protected InputStream openStream(WebjarsAsset asset) throws IOException {
+		return asset.openStream();
+	}
+
+	/**
+	 * 先写临时文件再原子重命名为目标文件，输入流总会被关闭
+	 *
+	 * @param gzipLevel 压缩级别，null 表示不压缩
+	 */
+	protected boolean store(WebjarsAsset asset, InputStream input, File target, Integer gzipLevel) throws IOException {
+		File parent = target.getParentFile();
+		if (!parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+			IOUtils.closeQuietly(input);
+			throw new IOException("Unable to create directory " + parent);
+		}
+		File temp = File.createTempFile(target.getName(), ".tmp", parent);
+		try {
+			OutputStream output = new FileOutputStream(temp);
+			try {
+				if (gzipLevel != null) {
+					DeflaterOutputStream compressor = IOUtils.toGzipOutputStream(output, gzipLevel.intValue());
+					output = compressor;
+					IOUtils.copyLarge(input, compressor);
+					compressor.finish();
+				} else {
+					IOUtils.copyLarge(input, output);
+				}
+			} finally {
+				IOUtils.closeQuietly(output);
+			}
+			try {
+				Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			releaseMappings(target);
+			LOG.debug("{} {} to {}", gzipLevel != null ? "Compressed" : "Extracted", asset.getFullPath(), target);
+			return true;
+		} finally {
+			IOUtils.closeQuietly(input);
+			if (temp.exists() && !temp.delete()) {
+				temp.deleteOnExit();
+			}
+		}
+	}
+
+	/**
+	 * 文件被重新生成后丢弃其旧的内存映射
+	 */
+	private void releaseMappings(File file) {
+		for (Map.Entry<String, Mapping> entry : mappings.entrySet()) {
+			if (entry.getValue().file.equals(file)) {
+				mappings.remove(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * jar 内容的 CRC32 决定缓存子目录，jar 升级后自然使用新的目录。
+	 */
+	protected String jarKey(final File jarFile) throws IOException {
+		final String path = jarFile.getAbsolutePath();
+		String key = jarKeys.get(path);
+		if (key == null) {
+			// 同一个 jar 的校验和只计算一次
+			key = checksums.execute(path, new Callable<String>() {
+				@Override
+				public String call() throws IOException {
+					String computed = jarKeys.get(path);
+					if (computed == null) {
+						computed = jarFile.getName() + "-" + Long.toHexString(checksum(jarFile));
+						jarKeys.put(path, computed);
+					}
+					return computed;
+				}
+			});
+		}
+		return key;
+	}
+
+	protected static long checksum(File jarFile) throws IOException {
+		CRC32 crc = new CRC32();
+		InputStream input = new FileInputStream(jarFile);
+		try {
+			byte[] buffer = new byte[IOUtils.BUFFER_SIZE * 16];
+			int n;
+			while ((n = input.read(buffer)) != -1) {
+				crc.update(buffer, 0, n);
+			}
+		} finally {
+			IOUtils.closeQuietly(input);
+		}
+		return crc.getValue();
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * 本地文件的内存映射，记录映射时的文件长度及修改时间
+	 */
+	private static final class Mapping {
+
+		final File file;
+
+		final long length;
+
+		final long lastModified;
+
+		final ByteBuffer buffer;
+
+		volatile long lastAccess;
+
+		Mapping(File file, long length, long lastModified, ByteBuffer buffer) {
+			this.file = file;
+			this.length = length;
+			this.lastModified = lastModified;
+			this.buffer = buffer;
+		}
+
+		boolean matches(File file, long length, long lastModified) {
+			return this.file.equals(file) && this.length == length && this.lastModified == lastModified;
+		}
+
+	}
+
+}
@@ -0,0 +1,97 @@
+package org.apache.struts2.webjars.cache;
+
+/**
+ *
+ * @className	： FrequencySketch
+ * @description	： 基于 Count-Min Sketch 的访问频率估算（每个计数器 4 位，最大 15），
+ *              累计访问次数达到样本数后所有计数器减半，使历史热度随时间衰减。非线程安全，由调用方加锁。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午2:41:09
+ * @version 	V1.0
+ */
+public class FrequencySketch {
+
+	private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+	private static final long RESET_MASK = 0x7777777777777777L;
+
+	private final long[] table;
+
+	private final int tableMask;
+
+	private final int sampleSize;
+
+	private int size;
+
+	/**
+	 * @param expectedEntries 预计需要跟踪的键数量
+	 */
+	public FrequencySketch(int expectedEntries) {
+		int capacity = 16;
+		while (capacity < expectedEntries && capacity < (1 << 30)) {
+			capacity <<= 1;
+		}
+		this.table = new long[capacity];
+		this.tableMask = capacity - 1;
+		this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * capacity);
+	}
+
+	/**
+	 * @return 估算的访问次数（0 ~ 15）
+	 */
+	public int frequency(Object key) {
+		int hash = spread(key.hashCode());
+		int frequency = Integer.MAX_VALUE;
+		for (int i = 0; i < 4; i++) {
+			int index = indexOf(hash, i);
+			int offset = counterOffset(hash, i);
+			frequency = Math.min(frequency, (int) ((table[index] >>> offset) & 0xfL));
+		}
+		return frequency;
+	}
+
+	/**
+	 * 记录一次访问
+	 */
+	public void increment(Object key) {
+		int hash = spread(key.hashCode());
+		boolean added = false;
+		for (int i = 0; i < 4; i++) {
+			int index = indexOf(hash, i);
+			int offset = counterOffset(hash, i);
+			long mask = 0xfL << offset;
+			if ((table[index] & mask) != mask) {
+				table[index] += 1L << offset;
+				added = true;
+			}
+		}
+		if (added && ++size == sampleSize) {
+			reset();
+		}
+	}
+
+	private void reset() {
+		for (int i = 0; i < table.length; i++) {
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		size >>>= 1;
+	}
+
+	private int indexOf(int hash, int row) {
+		long h = (hash + SEEDS[row]) * SEEDS[row];
+		h += h >>> 32;
+		return ((int) h) & tableMask;
+	}
+
+	private static int counterOffset(int hash, int row) {
+		// 每个 long 含 16 个计数器，每行占用其中 4 个
+		return (((hash >>> (row << 3)) & 3) + (row << 2)) << 2;
+	}
+
+	private static int spread(int x) {
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		return (x >>> 16) ^ x;
+	}
+
+}
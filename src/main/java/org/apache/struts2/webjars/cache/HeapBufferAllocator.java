@@ -0,0 +1,29 @@
+package org.apache.struts2.webjars.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ *
+ * @className	： HeapBufferAllocator
+ * @description	： 堆内存储：每个资源对应一个 byte[]，释放交给 GC。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午4:05:40
+ * @version 	V1.0
+ */
+public class HeapBufferAllocator implements BufferAllocator {
+
+	@Override
+	public int capacityFor(int size) {
+		return size;
+	}
+
+	@Override
+	public ByteBuffer allocate(int size) {
+		return ByteBuffer.allocate(size);
+	}
+
+	@Override
+	public void release(ByteBuffer buffer) {
+	}
+
+}
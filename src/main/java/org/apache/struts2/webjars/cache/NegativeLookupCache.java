@@ -0,0 +1,90 @@
+package org.apache.struts2.webjars.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ *
+ * @className	： NegativeLookupCache
+ * @description	： 记录不存在的请求路径，在有效期内重复的 404 只需一次哈希查找。
+ *              条目数达到上限时先清理过期条目，仍然不足则任意淘汰一批，避免被大量不同的探测路径撑大。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午7:31:52
+ * @version 	V1.0
+ */
+public class NegativeLookupCache {
+
+	private final int maxSize;
+
+	private final long ttl;
+
+	/** 请求路径 -> 过期时间（毫秒） */
+	private final ConcurrentMap<String, Long> misses;
+
+	/**
+	 * @param maxSize 最多记录的路径数
+	 * @param ttl 有效期（毫秒）
+	 */
+	public NegativeLookupCache(int maxSize, long ttl) {
+		this.maxSize = maxSize;
+		this.ttl = ttl;
+		this.misses = new ConcurrentHashMap<String, Long>(Math.min(maxSize, 1024));
+	}
+
+	/**
+	 * @param key 请求路径
+	 * @return 是否为有效期内已确认不存在的路径
+	 */
+	public boolean contains(String key) {
+		Long expiry = misses.get(key);
+		if (expiry == null) {
+			return false;
+		}
+		if (expiry.longValue() < System.currentTimeMillis()) {
+			misses.remove(key, expiry);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * 记录一个不存在的路径
+	 *
+	 * @param key 请求路径
+	 */
+	public void add(String key) {
+		long now = System.currentTimeMillis();
+		if (misses.size() >= maxSize) {
+			evict(now);
+		}
+		misses.put(key, Long.valueOf(now + ttl));
+	}
+
+	/**
+	 * 一次至少腾出 1/10 的空间，使清理的开销分摊到后续的多次写入上
+	 */
+	private void evict(long now) {
+		int excess = Math.max(misses.size() - maxSize + 1, maxSize / 10);
+		for (Iterator<Map.Entry<String, Long>> it = misses.entrySet().iterator(); it.hasNext();) {
+			if (it.next().getValue().longValue() < now) {
+				it.remove();
+				excess--;
+			}
+		}
+		for (Iterator<String> it = misses.keySet().iterator(); it.hasNext() && excess > 0; excess--) {
+			it.next();
+			it.remove();
+		}
+	}
+
+	public void clear() {
+		misses.clear();
+	}
+
+	public int size() {
+		return misses.size();
+	}
+
+}
@@ -0,0 +1,77 @@
+package org.apache.struts2.webjars.cache;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ *
+ * @className	： SingleFlight
+ * @description	： 合并同一个键上的并发加载：第一个到达的线程执行加载，其余线程等待并共享其结果（或异常）；
+ *              加载结束后即移除，之后的调用会重新执行加载（结果的缓存由调用方负责）。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午8:05:26
+ * @version 	V1.0
+ */
+public class SingleFlight<K, V> {
+
+	private final ConcurrentMap<K, FutureTask<V>> calls = new ConcurrentHashMap<K, FutureTask<V>>();
+
+	/**
+	 * 执行或等待键上正在进行的加载。
+	 *
+	 * @param key 加载的键
+	 * @param loader 加载逻辑，仅在当前没有同键加载时执行
+	 * @return 加载结果
+	 * @throws IOException 加载失败
+	 */
+	public V execute(K key, Callable<V> loader) throws IOException {
+		FutureTask<V> task = calls.get(key);
+		boolean leader = false;
+		if (task == null) {
+			FutureTask<V> created = new FutureTask<V>(loader);
+			task = calls.putIfAbsent(key, created);
+			if (task == null) {
+				task = created;
+				leader = true;
+			}
+		}
+		if (leader) {
+			try {
+				task.run();
+			} finally {
+				calls.remove(key, task);
+			}
+		}
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for " + key);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * @return 正在进行的加载数
+	 */
+	public int inFlight() {
+		return calls.size();
+	}
+
+}
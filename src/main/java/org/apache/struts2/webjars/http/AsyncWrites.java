@@ -0,0 +1,315 @@
+package org.apache.struts2.webjars.http;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.struts2.webjars.asset.AssetBody;
+import org.apache.struts2.webjars.io.IoExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @className	： AsyncWrites
+ * @description	： 非阻塞输出：请求转为异步后，通过 Servlet 3.1 的 WriteListener 在连接可写时才写出下一段内容，
+ *              慢速客户端下载大文件期间不占用容器的请求线程。内容直接取自缓存或解压文件的内存映射（{@link AssetBody#buffer()}）。
+ *              插件按 Servlet 3.0 编译，WriteListener 及 isReady/setWriteListener 通过反射使用；
+ *              容器不支持 Servlet 3.1、请求不支持异步或内容不在内存中时返回 false，由调用方按原来的方式阻塞输出。
+ *              需要读取 jar 的冷资源由 {@link #writeLater(HttpServletRequest, HttpServletResponse, Executor, Callable, long)} 交给 {@link IoExecutors} 创建的线程池加载，
+ *              Java 21 上为虚拟线程，大量并发的冷资源读取不占用容器线程，也不需要同样数量的平台线程。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午5:48:22
+ * @version 	V1.0
+ */
+public final class AsyncWrites {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AsyncWrites.class);
+
+	/** 每次写出的字节数 */
+	private static final int CHUNK_SIZE = 32 * 1024;
+
+	private static final Class<?> WRITE_LISTENER;
+
+	private static final Method SET_WRITE_LISTENER;
+
+	private static final Method IS_READY;
+
+	static {
+		Class<?> listenerClass = null;
+		Method setWriteListener = null;
+		Method isReady = null;
+		try {
+			listenerClass = Class.forName("javax.servlet.WriteListener", false, ServletOutputStream.class.getClassLoader());
+			setWriteListener = ServletOutputStream.class.getMethod("setWriteListener", listenerClass);
+			isReady = ServletOutputStream.class.getMethod("isReady");
+		} catch (Exception e) {
+			// Servlet 3.0 容器
+			listenerClass = null;
+		}
+		WRITE_LISTENER = listenerClass;
+		SET_WRITE_LISTENER = setWriteListener;
+		IS_READY = isReady;
+	}
+
+	private AsyncWrites() {
+	}
+
+	/**
+	 * @return 容器是否提供 Servlet 3.1 的非阻塞输出
+	 */
+	public static boolean isAvailable() {
+		return WRITE_LISTENER != null;
+	}
+
+	/**
+	 * 以非阻塞方式输出内容，响应头须已设置完毕。
+	 *
+	 * @param request 当前请求
+	 * @param response 当前响应
+	 * @param body 待输出的内容；返回 true 时输出完成（或失败）后自动释放，返回 false 时仍由调用方负责
+	 * @param timeout 异步请求的超时时间（毫秒）
+	 * @return 已转为异步输出时返回 true，调用方不得再操作响应
+	 * @throws IOException 获取输出流失败
+	 */
+	public static boolean write(HttpServletRequest request, HttpServletResponse response, AssetBody body, long timeout)
+			throws IOException {
+		if (WRITE_LISTENER == null || !request.isAsyncSupported() || request.isAsyncStarted()) {
+			return false;
+		}
+		ByteBuffer buffer = body.buffer();
+		if (buffer == null) {
+			return false;
+		}
+		ServletOutputStream output = response.getOutputStream();
+		AsyncContext asyncContext = request.startAsync(request, response);
+		asyncContext.setTimeout(timeout);
+		pump(asyncContext, output, buffer, body);
+		return true;
+	}
+
+	/**
+	 * 请求转为异步后在 I/O 线程池（见 {@link IoExecutors}）中加载内容并输出，容器的请求线程立即返回：加载后的内容在内存中且容器支持 Servlet 3.1 时以非阻塞方式输出，
+	 * 否则直接在加载线程中阻塞输出。线程池的队列已满或已关闭时在请求线程中同步加载并输出。响应头（Content-Length 除外）须已设置完毕。
+	 *
+	 * @param request 当前请求
+	 * @param response 当前响应
+	 * @param executor 执行加载的线程池
+	 * @param loader 加载内容，返回 null 时输出 404
+	 * @param timeout 异步请求的超时时间（毫秒）
+	 * @return 已转为异步时返回 true，调用方不得再操作响应；请求不支持异步时返回 false
+	 */
+	public static boolean writeLater(HttpServletRequest request, final HttpServletResponse response, Executor executor,
+			final Callable<AssetBody> loader, long timeout) {
+		if (!request.isAsyncSupported() || request.isAsyncStarted()) {
+			return false;
+		}
+		final AsyncContext asyncContext = request.startAsync(request, response);
+		asyncContext.setTimeout(timeout);
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					load(asyncContext, response, loader);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			LOG.debug("Webjars I/O queue is full, writing synchronously");
+			load(asyncContext, response, loader);
+		}
+		return true;
+	}
+
+	private static void load(AsyncContext asyncContext, HttpServletResponse response, Callable<AssetBody> loader) {
+		AssetBody body = null;
+		boolean pumped = false;
+		try {
+			body = loader.call();
+			if (body == null) {
+				sendError(response, HttpServletResponse.SC_NOT_FOUND);
+				return;
+			}
+			if (body.getLength() >= 0 && body.getLength() <= Integer.MAX_VALUE) {
+				response.setContentLength((int) body.getLength());
+			}
+			ServletOutputStream output = response.getOutputStream();
+			ByteBuffer buffer = WRITE_LISTENER == null ? null : body.buffer();
+			if (buffer != null) {
+				pump(asyncContext, output, buffer, body);
+				pumped = true;
+				return;
+			}
+			body.write(output);
+			output.flush();
+		} catch (Exception e) {
+			LOG.error(e.getMessage(), e);
+			sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+		} finally {
+			if (!pumped) {
+				if (body != null) {
+					body.release();
+				}
+				complete(asyncContext);
+			}
+		}
+	}
+
+	private static void pump(AsyncContext asyncContext, ServletOutputStream output, ByteBuffer buffer, AssetBody body) {
+		Pump pump = new Pump(asyncContext, output, buffer, body);
+		asyncContext.addListener(pump);
+		Object listener = Proxy.newProxyInstance(WRITE_LISTENER.getClassLoader(), new Class<?>[] { WRITE_LISTENER }, pump);
+		try {
+			SET_WRITE_LISTENER.invoke(output, listener);
+		} catch (Exception e) {
+			pump.onError(unwrap(e));
+		}
+	}
+
+	private static void sendError(HttpServletResponse response, int status) {
+		if (response.isCommitted()) {
+			return;
+		}
+		try {
+			response.sendError(status);
+		} catch (IOException e) {
+			LOG.debug("Unable to send error {}", status, e);
+		}
+	}
+
+	private static void complete(AsyncContext asyncContext) {
+		try {
+			asyncContext.complete();
+		} catch (IllegalStateException e) {
+			// 已超时或已结束
+		}
+	}
+
+	private static Throwable unwrap(Throwable e) {
+		return e instanceof InvocationTargetException && e.getCause() != null ? e.getCause() : e;
+	}
+
+	/**
+	 * 连接可写时写出下一段内容；同时监听异步请求的结束，保证内容只释放一次
+	 */
+	static final class Pump implements InvocationHandler, AsyncListener {
+
+		private final AsyncContext asyncContext;
+
+		private final ServletOutputStream output;
+
+		private final ByteBuffer buffer;
+
+		private final AssetBody body;
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private byte[] chunk;
+
+		Pump(AsyncContext asyncContext, ServletOutputStream output, ByteBuffer buffer, AssetBody body) {
+			this.asyncContext = asyncContext;
+			this.output = output;
+			this.buffer = buffer;
+			this.body = body;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if ("onWritePossible".equals(name)) {
+				onWritePossible();
+				return null;
+			}
+			if ("onError".equals(name)) {
+				onError((Throwable) args[0]);
+				return null;
+			}
+			if ("equals".equals(name)) {
+				return Boolean.valueOf(proxy == args[0]);
+			}
+			if ("hashCode".equals(name)) {
+				return Integer.valueOf(System.identityHashCode(proxy));
+			}
+			return "WriteListener[" + buffer.remaining() + " bytes remaining]";
+		}
+
+		void onWritePossible() throws IOException {
+			while (isReady()) {
+				if (!buffer.hasRemaining()) {
+					release();
+					asyncContext.complete();
+					return;
+				}
+				int length = Math.min(CHUNK_SIZE, buffer.remaining());
+				if (buffer.hasArray()) {
+					output.write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+					((Buffer) buffer).position(buffer.position() + length);
+				} else {
+					if (chunk == null) {
+						chunk = new byte[CHUNK_SIZE];
+					}
+					buffer.get(chunk, 0, length);
+					output.write(chunk, 0, length);
+				}
+			}
+		}
+
+		private boolean isReady() throws IOException {
+			try {
+				return ((Boolean) IS_READY.invoke(output)).booleanValue();
+			} catch (InvocationTargetException e) {
+				Throwable cause = e.getCause();
+				throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+			} catch (IllegalAccessException e) {
+				throw new IOException(e);
+			}
+		}
+
+		void onError(Throwable t) {
+			LOG.debug("Asynchronous write failed", t);
+			release();
+			complete(asyncContext);
+		}
+
+		private void release() {
+			if (released.compareAndSet(false, true)) {
+				body.release();
+			}
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			release();
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			onError(event.getThrowable());
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			onError(event.getThrowable());
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+
+	}
+
+}
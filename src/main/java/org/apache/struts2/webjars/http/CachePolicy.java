@@ -0,0 +1,94 @@
+package org.apache.struts2.webjars.http;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.struts2.webjars.asset.WebjarsAsset;
+
+/**
+ *
+ * @className	： CachePolicy
+ * @description	： Cache-Control 策略：请求路径带有 webjar 版本号时内容不会变化，使用长期缓存并标记 immutable；
+ *              不带版本号的路径在升级 webjar 后会指向新内容，使用较短的 max-age，并允许在 stale-while-revalidate 期间先返回旧内容再后台校验。
+ *              两种响应头在创建时即拼接好，实例不可变；每个路由可以通过 {@link #derive(Long, Long, Long)} 覆盖其中的值。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午11:12:40
+ * @version 	V1.0
+ */
+public class CachePolicy {
+
+	public static final String HEADER_CACHE_CONTROL = "Cache-Control";
+
+	/** 一年（秒） */
+	public static final long ONE_YEAR = 365L * 24 * 60 * 60;
+
+	private final long versionedMaxAge;
+
+	private final long maxAge;
+
+	private final long staleWhileRevalidate;
+
+	private final String versionedCacheControl;
+
+	private final String cacheControl;
+
+	/**
+	 * @param versionedMaxAge 带版本号路径的缓存时间（秒）
+	 * @param maxAge 不带版本号路径的缓存时间（秒）
+	 * @param staleWhileRevalidate 不带版本号路径过期后仍可使用旧内容的时间（秒），0 表示不输出
+	 */
+	public CachePolicy(long versionedMaxAge, long maxAge, long staleWhileRevalidate) {
+		this.versionedMaxAge = Math.max(0, versionedMaxAge);
+		this.maxAge = Math.max(0, maxAge);
+		this.staleWhileRevalidate = Math.max(0, staleWhileRevalidate);
+		this.versionedCacheControl = "public, max-age=" + this.versionedMaxAge + ", immutable";
+		this.cacheControl = "public, max-age=" + this.maxAge
+				+ (this.staleWhileRevalidate > 0 ? ", stale-while-revalidate=" + this.staleWhileRevalidate : "");
+	}
+
+	/**
+	 * 覆盖部分配置，未指定（null）的值沿用当前策略
+	 *
+	 * @return 新的策略；没有任何覆盖时返回当前策略
+	 */
+	public CachePolicy derive(Long versionedMaxAge, Long maxAge, Long staleWhileRevalidate) {
+		if (versionedMaxAge == null && maxAge == null && staleWhileRevalidate == null) {
+			return this;
+		}
+		return new CachePolicy(versionedMaxAge != null ? versionedMaxAge.longValue() : this.versionedMaxAge,
+				maxAge != null ? maxAge.longValue() : this.maxAge,
+				staleWhileRevalidate != null ? staleWhileRevalidate.longValue() : this.staleWhileRevalidate);
+	}
+
+	/**
+	 * @param path 请求路径
+	 * @param asset 资源元数据
+	 * @return 对应的 Cache-Control 响应头
+	 */
+	public String getCacheControl(String path, WebjarsAsset asset) {
+		return asset.isVersionedPath(path) ? versionedCacheControl : cacheControl;
+	}
+
+	/**
+	 * 输出 Cache-Control 响应头
+	 *
+	 * @param response 响应
+	 * @param path 请求路径
+	 * @param asset 资源元数据
+	 */
+	public void apply(HttpServletResponse response, String path, WebjarsAsset asset) {
+		response.setHeader(HEADER_CACHE_CONTROL, getCacheControl(path, asset));
+	}
+
+	public long getVersionedMaxAge() {
+		return versionedMaxAge;
+	}
+
+	public long getMaxAge() {
+		return maxAge;
+	}
+
+	public long getStaleWhileRevalidate() {
+		return staleWhileRevalidate;
+	}
+
+}
@@ -0,0 +1,127 @@
+package org.apache.struts2.webjars.http;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+import org.apache.struts2.webjars.asset.WebjarsAsset;
+
+/**
+ *
+ * @className	： CompressionPolicy
+ * @description	： 压缩策略：只压缩可压缩的内容类型（文本、脚本、SVG、未压缩的字体等），PNG/JPEG/WOFF2 等本身已压缩的类型不再压缩；
+ *              小于最小字节数的资源压缩后节省的字节不及 gzip 头尾，直接输出原始内容。
+ *              内容类型是否可压缩在创建资源元数据时判断一次（{@link WebjarsAsset#isCompressible()}），请求处理时只比较大小。
+ *              每个路由可以通过 {@link #derive(Long, Integer)} 覆盖最小字节数及压缩级别。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午1:58:31
+ * @version 	V1.0
+ */
+public class CompressionPolicy {
+
+	/** 默认的可压缩类型，以 /* 结尾的表示该大类下的全部类型 */
+	public static final String DEFAULT_MIME_TYPES = "text/*,application/javascript,application/json,application/xml,"
+			+ "image/svg+xml,image/x-icon,font/ttf,font/otf,application/vnd.ms-fontobject,application/wasm";
+
+	/** 默认的最小字节数 */
+	public static final long DEFAULT_MIN_SIZE = 1024;
+
+	/** 未指定压缩级别，此时可以直接输出 jar 中的原始压缩数据 */
+	public static final int DEFAULT_LEVEL = Deflater.DEFAULT_COMPRESSION;
+
+	private final String[] mimeTypes;
+
+	private final long minSize;
+
+	private final int level;
+
+	/**
+	 * @param mimeTypes 逗号分隔的可压缩类型
+	 * @param minSize 最小字节数
+	 * @param level 压缩级别 1-9，-1 表示默认级别
+	 */
+	public CompressionPolicy(String mimeTypes, long minSize, int level) {
+		this(parseMimeTypes(mimeTypes), minSize, level);
+	}
+
+	protected CompressionPolicy(String[] mimeTypes, long minSize, int level) {
+		if (level != DEFAULT_LEVEL && (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION)) {
+			throw new IllegalArgumentException("Invalid compression level: " + level);
+		}
+		this.mimeTypes = mimeTypes;
+		this.minSize = Math.max(0, minSize);
+		this.level = level;
+	}
+
+	protected static String[] parseMimeTypes(String mimeTypes) {
+		List<String> parsed = new ArrayList<String>();
+		if (mimeTypes != null) {
+			for (String mimeType : mimeTypes.split(",")) {
+				String trimmed = mimeType.trim().toLowerCase(Locale.ENGLISH);
+				if (trimmed.length() > 0) {
+					// text/* 按前缀 text/ 匹配
+					parsed.add(trimmed.endsWith("/*") ? trimmed.substring(0, trimmed.length() - 1) : trimmed);
+				}
+			}
+		}
+		return parsed.toArray(new String[parsed.size()]);
+	}
+
+	/**
+	 * 覆盖部分配置，未指定（null）的值沿用当前策略
+	 *
+	 * @return 新的策略；没有任何覆盖时返回当前策略
+	 */
+	public CompressionPolicy derive(Long minSize, Integer level) {
+		if (minSize == null && level == null) {
+			return this;
+		}
+		return new CompressionPolicy(mimeTypes, minSize != null ? minSize.longValue() : this.minSize,
+				level != null ? level.intValue() : this.level);
+	}
+
+	/**
+	 * 内容类型是否可压缩，忽略 ;charset 等参数
+	 *
+	 * @param contentType 内容类型
+	 * @return 是否可压缩
+	 */
+	public boolean isCompressibleType(String contentType) {
+		if (contentType == null) {
+			return false;
+		}
+		int semicolon = contentType.indexOf(';');
+		int end = semicolon < 0 ? contentType.length() : semicolon;
+		while (end > 0 && contentType.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		for (String mimeType : mimeTypes) {
+			if (mimeType.endsWith("/") ? contentType.regionMatches(true, 0, mimeType, 0, mimeType.length())
+					: end == mimeType.length() && contentType.regionMatches(true, 0, mimeType, 0, end)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param asset 资源元数据
+	 * @return 是否输出该资源的压缩版本
+	 */
+	public boolean accepts(WebjarsAsset asset) {
+		return asset.isCompressible() && asset.getSize() >= minSize;
+	}
+
+	public long getMinSize() {
+		return minSize;
+	}
+
+	/**
+	 * @return 压缩级别 1-9，-1 表示默认级别
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+}
@@ -0,0 +1,161 @@
+package org.apache.struts2.webjars.http;
+
+import java.util.Enumeration;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.struts2.webjars.asset.WebjarsAsset;
+
+/**
+ *
+ * @className	： ConditionalRequests
+ * @description	： 条件请求处理：输出资源的校验头（ETag、Last-Modified），并在 If-None-Match 或 If-Modified-Since 命中时直接返回 304，
+ *              整个过程只使用已缓存的资源元数据，不读取 jar。
+ *              If-None-Match 支持多个值（逗号分隔或多个请求头）、"*" 以及弱比较（忽略 W/ 前缀）；
+ *              请求带有 If-None-Match 时按 RFC 7232 忽略 If-Modified-Since。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午10:38:12
+ * @version 	V1.0
+ */
+public final class ConditionalRequests {
+
+	public static final String HEADER_ETAG = "ETag";
+
+	public static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+
+	public static final String HEADER_LAST_MODIFIED = "Last-Modified";
+
+	public static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+
+	private static final String WEAK_PREFIX = "W/";
+
+	private ConditionalRequests() {
+	}
+
+	/**
+	 * 输出校验头，判断是否可以返回 304；可以时设置响应状态，调用方不应再输出内容。
+	 *
+	 * @param request 请求
+	 * @param response 响应
+	 * @param asset 资源元数据
+	 * @return 是否已返回 304
+	 */
+	public static boolean checkNotModified(HttpServletRequest request, HttpServletResponse response, WebjarsAsset asset) {
+		return checkNotModified(request, response, asset, asset.getETag());
+	}
+
+	/**
+	 * 输出校验头，判断是否可以返回 304；响应为压缩版本时使用该版本的 ETag。
+	 *
+	 * @param request 请求
+	 * @param response 响应
+	 * @param asset 资源元数据
+	 * @param eTag 响应内容的 ETag，可以为 null
+	 * @return 是否已返回 304
+	 */
+	public static boolean checkNotModified(HttpServletRequest request, HttpServletResponse response, WebjarsAsset asset,
+			String eTag) {
+		if (eTag != null) {
+			response.setHeader(HEADER_ETAG, eTag);
+		}
+		String lastModified = asset.getLastModifiedHeader();
+		if (lastModified != null) {
+			response.setHeader(HEADER_LAST_MODIFIED, lastModified);
+		}
+		// 只有 GET、HEAD 可以返回 304
+		if (!isGetOrHead(request)) {
+			return false;
+		}
+		Enumeration<String> headers = request.getHeaders(HEADER_IF_NONE_MATCH);
+		if (headers != null && headers.hasMoreElements()) {
+			while (eTag != null && headers.hasMoreElements()) {
+				if (matchesETag(headers.nextElement(), eTag)) {
+					response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+					return true;
+				}
+			}
+			return false;
+		}
+		if (lastModified != null && isNotModifiedSince(request, asset)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 浏览器通常原样回传 Last-Modified 的值，与预先格式化的响应头相同时不再解析日期。
+	 */
+	private static boolean isNotModifiedSince(HttpServletRequest request, WebjarsAsset asset) {
+		String header = request.getHeader(HEADER_IF_MODIFIED_SINCE);
+		if (header == null) {
+			return false;
+		}
+		if (header.equals(asset.getLastModifiedHeader())) {
+			return true;
+		}
+		long since;
+		try {
+			since = request.getDateHeader(HEADER_IF_MODIFIED_SINCE);
+		} catch (IllegalArgumentException e) {
+			// 无法解析的日期按没有该请求头处理
+			return false;
+		}
+		return since >= 0 && asset.getLastModified() <= since;
+	}
+
+	/**
+	 * 按弱比较判断 If-None-Match 的值是否包含指定的 ETag，直接在请求头上扫描，不切分字符串。
+	 *
+	 * @param header If-None-Match 请求头的值
+	 * @param eTag 资源的 ETag（含双引号）
+	 * @return 是否命中
+	 */
+	public static boolean matchesETag(String header, String eTag) {
+		if (header == null || eTag == null) {
+			return false;
+		}
+		int opaqueStart = eTag.startsWith(WEAK_PREFIX) ? WEAK_PREFIX.length() : 0;
+		int opaqueLength = eTag.length() - opaqueStart;
+		int length = header.length();
+		int i = 0;
+		while (i < length) {
+			char c = header.charAt(i);
+			if (c == ',' || c <= ' ') {
+				i++;
+				continue;
+			}
+			if (c == '*') {
+				return true;
+			}
+			if (header.startsWith(WEAK_PREFIX, i)) {
+				i += WEAK_PREFIX.length();
+			}
+			int start = i;
+			int end;
+			if (i < length && header.charAt(i) == '"') {
+				// 带引号的值可以包含逗号
+				int close = header.indexOf('"', i + 1);
+				end = close < 0 ? length : close + 1;
+			} else {
+				end = header.indexOf(',', i);
+				end = end < 0 ? length : end;
+				while (end > start && header.charAt(end - 1) <= ' ') {
+					end--;
+				}
+			}
+			if (end - start == opaqueLength && header.regionMatches(start, eTag, opaqueStart, opaqueLength)) {
+				return true;
+			}
+			i = end;
+		}
+		return false;
+	}
+
+	private static boolean isGetOrHead(HttpServletRequest request) {
+		String method = request.getMethod();
+		return "GET".equals(method) || "HEAD".equals(method);
+	}
+
+}
@@ -0,0 +1,273 @@
+package org.apache.struts2.webjars.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Enumeration;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.struts2.webjars.WebjarsAssetRegistry;
+import org.apache.struts2.webjars.asset.CompressedVariant;
+import org.apache.struts2.webjars.asset.WebjarsAsset;
+
+/**
+ *
+ * @className	： ContentEncodings
+ * @description	： 内容编码协商：按 RFC 7231 解析 Accept-Encoding（含 q 值及 "*"），从资源可用的编码中选出客户端最偏好的一种；
+ *              q 值相同时优先 br，其次 gzip，再次不压缩（identity）；客户端明确给 identity 更高的 q 值时输出原始内容；是否压缩由 {@link CompressionPolicy} 决定。
+ *              压缩后的内容由 {@link WebjarsAssetRegistry#getVariant(WebjarsAsset, String, int)} 预先生成并缓存，
+ *              输出时带有准确的 Content-Length、Content-Encoding 及 Vary: Accept-Encoding。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 上午10:14:26
+ * @version 	V1.0
+ */
+public final class ContentEncodings {
+
+	public static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+
+	public static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+
+	public static final String HEADER_VARY = "Vary";
+
+	public static final String GZIP = "gzip";
+
+	public static final String BROTLI = "br";
+
+	private static final String X_GZIP = "x-gzip";
+
+	private static final String IDENTITY = "identity";
+
+	/** q 值按千分位保存，避免解析浮点数 */
+	private static final int Q_UNSET = -1;
+
+	private static final int Q_MAX = 1000;
+
+	private ContentEncodings() {
+	}
+
+	/**
+	 * 选择响应使用的内容编码；资源存在压缩版本时输出 Vary: Accept-Encoding。
+	 * Range 请求的区间按原始内容计算，始终不压缩。
+	 *
+	 * @param request 请求
+	 * @param response 响应
+	 * @param asset 资源元数据
+	 * @param policy 压缩策略，null 表示不压缩
+	 * @return 选中的编码（gzip、br）；不压缩时返回 null
+	 */
+	public static String select(HttpServletRequest request, HttpServletResponse response, WebjarsAsset asset,
+			CompressionPolicy policy) {
+		if (policy == null || !policy.accepts(asset)) {
+			return null;
+		}
+		response.addHeader(HEADER_VARY, HEADER_ACCEPT_ENCODING);
+		if (request.getHeader(RangeRequests.HEADER_RANGE) != null) {
+			return null;
+		}
+		Enumeration<String> headers = request.getHeaders(HEADER_ACCEPT_ENCODING);
+		if (headers == null || !headers.hasMoreElements()) {
+			return null;
+		}
+		String header = headers.nextElement();
+		if (headers.hasMoreElements()) {
+			// 多个请求头按逗号合并，极少出现
+			StringBuilder merged = new StringBuilder(header);
+			while (headers.hasMoreElements()) {
+				merged.append(',').append(headers.nextElement());
+			}
+			header = merged.toString();
+		}
+		return negotiate(header, asset.getBrotliSibling() != null, true);
+	}
+
+	/**
+	 * 按 Accept-Encoding 从可用的编码中选出 q 值最高的一种；明确列出的 identity 与压缩编码比较 q 值，未列出时不参与比较。
+	 *
+	 * @param header Accept-Encoding 请求头
+	 * @param brotli 是否可以输出 br
+	 * @param gzip 是否可以输出 gzip
+	 * @return 选中的编码；客户端不接受任何可用的编码时返回 null，即输出原始内容
+	 */
+	public static String negotiate(String header, boolean brotli, boolean gzip) {
+		if (header == null) {
+			return null;
+		}
+		int brQ = Q_UNSET;
+		int gzipQ = Q_UNSET;
+		int anyQ = Q_UNSET;
+		int identityQ = Q_UNSET;
+		int length = header.length();
+		int i = 0;
+		while (i < length) {
+			int comma = header.indexOf(',', i);
+			int end = comma < 0 ? length : comma;
+			int semicolon = header.indexOf(';', i);
+			int tokenEnd = semicolon >= 0 && semicolon < end ? semicolon : end;
+			int start = skipSpaces(header, i, tokenEnd);
+			int stop = trimSpaces(header, start, tokenEnd);
+			if (stop > start) {
+				int q = tokenEnd < end ? parseQuality(header, tokenEnd + 1, end) : Q_MAX;
+				if (q >= 0) {
+					if (matches(header, start, stop, BROTLI)) {
+						brQ = Math.max(brQ, q);
+					} else if (matches(header, start, stop, GZIP) || matches(header, start, stop, X_GZIP)) {
+						gzipQ = Math.max(gzipQ, q);
+					} else if (matches(header, start, stop, IDENTITY)) {
+						identityQ = Math.max(identityQ, q);
+					} else if (matches(header, start, stop, "*")) {
+						anyQ = Math.max(anyQ, q);
+					}
+				}
+			}
+			i = end + 1;
+		}
+		// 未列出的编码使用 "*" 的 q 值
+		if (brQ == Q_UNSET) {
+			brQ = anyQ;
+		}
+		if (gzipQ == Q_UNSET) {
+			gzipQ = anyQ;
+		}
+		if (brotli && brQ > 0 && (!gzip || brQ >= gzipQ) && brQ >= identityQ) {
+			return BROTLI;
+		}
+		if (gzip && gzipQ > 0 && gzipQ >= identityQ) {
+			return GZIP;
+		}
+		return null;
+	}
+
+	/**
+	 * 输出选中编码的压缩内容
+	 *
+	 * @param response 响应
+	 * @param registry 资源注册表
+	 * @param asset 资源元数据
+	 * @param encoding 选中的编码
+	 * @param policy 压缩策略
+	 * @return 是否已输出；压缩内容不可用时返回 false，调用方照常输出原始内容
+	 * @throws IOException 输出失败
+	 */
+	public static boolean serve(HttpServletResponse response, WebjarsAssetRegistry registry, WebjarsAsset asset,
+			String encoding, CompressionPolicy policy) throws IOException {
+		return serve(null, response, registry, asset, encoding, policy, 0);
+	}
+
+	/**
+	 * 输出选中编码的压缩内容：压缩内容在本地文件中时交给容器以 sendfile 方式输出（{@link Sendfile}），
+	 * 在内存中且容器支持时以非阻塞方式输出（{@link AsyncWrites}）
+	 *
+	 * @param request 请求，为 null 时阻塞输出，且不使用 sendfile
+	 * @param response 响应
+	 * @param registry 资源注册表
+	 * @param asset 资源元数据
+	 * @param encoding 选中的编码
+	 * @param policy 压缩策略
+	 * @param asyncTimeout 异步输出的超时时间（毫秒），0 表示阻塞输出
+	 * @return 是否已输出；压缩内容不可用时返回 false，调用方照常输出原始内容
+	 * @throws IOException 输出失败
+	 */
+	public static boolean serve(HttpServletRequest request, HttpServletResponse response, WebjarsAssetRegistry registry,
+			WebjarsAsset asset, String encoding, CompressionPolicy policy, long asyncTimeout) throws IOException {
+		CompressedVariant variant = registry.getVariant(asset, encoding, policy.getLevel());
+		if (variant == null) {
+			return false;
+		}
+		boolean async = false;
+		try {
+			response.setHeader(HEADER_CONTENT_ENCODING, variant.getEncoding());
+			response.setHeader("Content-Length", Long.toString(variant.getLength()));
+			// disk 存储方式下的 .gz 文件交给容器以 sendfile 方式输出
+			if (Sendfile.serve(request, response, variant, registry.getSettings().getSendfileMinSize())) {
+				return true;
+			}
+			async = request != null && asyncTimeout > 0 && AsyncWrites.write(request, response, variant, asyncTimeout);
+			if (!async) {
+				OutputStream output = response.getOutputStream();
+				variant.write(output);
+				output.flush();
+			}
+			return true;
+		} finally {
+			// 异步输出完成后自行释放
+			if (!async) {
+				variant.release();
+			}
+		}
+	}
+
+	/**
+	 * 解析 ";q=0.8" 形式的参数
+	 *
+	 * @return 千分位的 q 值；格式错误时返回 -1，忽略该编码
+	 */
+	private static int parseQuality(String s, int start, int end) {
+		int q = Q_MAX;
+		int i = start;
+		while (i < end) {
+			int next = s.indexOf(';', i);
+			int paramEnd = next < 0 || next > end ? end : next;
+			int p = skipSpaces(s, i, paramEnd);
+			if (p + 1 < paramEnd && (s.charAt(p) == 'q' || s.charAt(p) == 'Q')) {
+				int eq = skipSpaces(s, p + 1, paramEnd);
+				if (eq < paramEnd && s.charAt(eq) == '=') {
+					q = parseQValue(s, skipSpaces(s, eq + 1, paramEnd), trimSpaces(s, eq + 1, paramEnd));
+					if (q < 0) {
+						return -1;
+					}
+				}
+			}
+			i = paramEnd + 1;
+		}
+		return q;
+	}
+
+	/**
+	 * qvalue = ( "0" [ "." 0*3DIGIT ] ) / ( "1" [ "." 0*3("0") ] )
+	 */
+	private static int parseQValue(String s, int start, int end) {
+		if (start >= end) {
+			return -1;
+		}
+		char first = s.charAt(start);
+		if (first != '0' && first != '1') {
+			return -1;
+		}
+		int value = (first - '0') * Q_MAX;
+		if (start + 1 == end) {
+			return value;
+		}
+		if (s.charAt(start + 1) != '.' || end - start - 2 > 3) {
+			return -1;
+		}
+		int scale = 100;
+		for (int i = start + 2; i < end; i++, scale /= 10) {
+			char c = s.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value += (c - '0') * scale;
+		}
+		return value > Q_MAX ? -1 : value;
+	}
+
+	private static boolean matches(String s, int start, int end, String token) {
+		return end - start == token.length() && s.regionMatches(true, start, token, 0, token.length());
+	}
+
+	private static int skipSpaces(String s, int start, int end) {
+		while (start < end && s.charAt(start) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	private static int trimSpaces(String s, int start, int end) {
+		while (end > start && s.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+}
@@ -0,0 +1,86 @@
+package org.apache.struts2.webjars.http;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.ServletContext;
+
+/**
+ *
+ * @className	： MimeTypes
+ * @description	： 资源扩展名到内容类型的映射，供 WebjarsResourceFilter 与 WebjarsStreamResult 共用；
+ *              文本类型带有 UTF-8 字符集，未登记的扩展名再查询容器的 MIME 映射（web.xml 的 &lt;mime-mapping&gt;）。
+ *              内容类型在创建资源元数据时确定一次，请求处理过程中不再查表。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午1:42:09
+ * @version 	V1.0
+ */
+public final class MimeTypes {
+
+	public static final String RESOURCE_CHARSET = "UTF-8";
+
+	public static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+
+	private static final String TEXT_CHARSET = ";charset=" + RESOURCE_CHARSET;
+
+	private static final Map<String, String> MIME_TYPE_MAP;
+
+	static {
+
+		MIME_TYPE_MAP = new HashMap<String, String>();
+		MIME_TYPE_MAP.put("js", "application/javascript" + TEXT_CHARSET);
+		MIME_TYPE_MAP.put("mjs", "application/javascript" + TEXT_CHARSET);
+		MIME_TYPE_MAP.put("css", "text/css" + TEXT_CHARSET);
+		MIME_TYPE_MAP.put("html", "text/html" + TEXT_CHARSET);
+		MIME_TYPE_MAP.put("htm", "text/html" + TEXT_CHARSET);
+		MIME_TYPE_MAP.put("txt", "text/plain" + TEXT_CHARSET);
+		MIME_TYPE_MAP.put("md", "text/markdown" + TEXT_CHARSET);
+		MIME_TYPE_MAP.put("json", "application/json" + TEXT_CHARSET);
+		MIME_TYPE_MAP.put("map", "application/json" + TEXT_CHARSET);
+		MIME_TYPE_MAP.put("xml", "application/xml" + TEXT_CHARSET);
+		MIME_TYPE_MAP.put("svg", "image/svg+xml");
+		MIME_TYPE_MAP.put("gif", "image/gif");
+		MIME_TYPE_MAP.put("jpg", "image/jpeg");
+		MIME_TYPE_MAP.put("jpeg", "image/jpeg");
+		MIME_TYPE_MAP.put("png", "image/png");
+		MIME_TYPE_MAP.put("webp", "image/webp");
+		MIME_TYPE_MAP.put("ico", "image/x-icon");
+		MIME_TYPE_MAP.put("woff", "font/woff");
+		MIME_TYPE_MAP.put("woff2", "font/woff2");
+		MIME_TYPE_MAP.put("ttf", "font/ttf");
+		MIME_TYPE_MAP.put("otf", "font/otf");
+		MIME_TYPE_MAP.put("eot", "application/vnd.ms-fontobject");
+		MIME_TYPE_MAP.put("wasm", "application/wasm");
+		MIME_TYPE_MAP.put("gz", "application/gzip");
+		MIME_TYPE_MAP.put("zip", "application/zip");
+
+	}
+
+	private MimeTypes() {
+	}
+
+	/**
+	 * @param path 资源路径
+	 * @param servletContext 用于查询未登记的扩展名，可以为 null
+	 * @return 内容类型，未知时为 application/octet-stream
+	 */
+	public static String getContentType(String path, ServletContext servletContext) {
+		int slash = path.lastIndexOf('/');
+		int dot = path.lastIndexOf('.');
+		if (dot > slash) {
+			String contentType = MIME_TYPE_MAP.get(path.substring(dot + 1).toLowerCase(Locale.ENGLISH));
+			if (contentType != null) {
+				return contentType;
+			}
+		}
+		if (servletContext != null) {
+			String contentType = servletContext.getMimeType(path.substring(slash + 1));
+			if (contentType != null) {
+				return contentType;
+			}
+		}
+		return DEFAULT_MIME_TYPE;
+	}
+
+}
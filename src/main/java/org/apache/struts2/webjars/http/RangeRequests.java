@@ -0,0 +1,340 @@
+package org.apache.struts2.webjars.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.struts2.webjars.WebjarsAssetRegistry;
+import org.apache.struts2.webjars.asset.AssetBody;
+import org.apache.struts2.webjars.asset.WebjarsAsset;
+
+/**
+ *
+ * @className	： RangeRequests
+ * @description	： Range 请求处理：单个区间返回 206 及 Content-Range，多个区间返回 multipart/byteranges（重叠或相邻的区间先合并），无法满足的区间返回 416；
+ *              If-Range 与当前 ETag（强比较）或 Last-Modified 不一致时按普通请求输出完整内容。
+ *              区间内容由 {@link WebjarsAssetRegistry#write(WebjarsAsset, OutputStream, long, long)} 直接定位输出，
+ *              disk 存储方式下单个区间交给容器以 sendfile 方式输出（{@link Sendfile}）。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 上午12:21:37
+ * @version 	V1.0
+ */
+public final class RangeRequests {
+
+	public static final String HEADER_RANGE = "Range";
+
+	public static final String HEADER_IF_RANGE = "If-Range";
+
+	public static final String HEADER_ACCEPT_RANGES = "Accept-Ranges";
+
+	public static final String HEADER_CONTENT_RANGE = "Content-Range";
+
+	private static final String BYTES_UNIT = "bytes";
+
+	/** 一次请求最多处理的区间数，超过时按普通请求输出完整内容，避免大量细碎区间放大开销 */
+	private static final int MAX_RANGES = 16;
+
+	private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+	private static final Random BOUNDARY_RANDOM = new Random();
+
+	private RangeRequests() {
+	}
+
+	/**
+	 * 输出 Accept-Ranges；请求带有有效的 Range 时输出 206 或 416。
+	 *
+	 * @param request 请求
+	 * @param response 响应
+	 * @param registry 资源注册表
+	 * @param asset 资源元数据
+	 * @param contentType 资源的内容类型，用于 multipart 各部分
+	 * @return 是否已按区间处理；false 时调用方照常输出完整内容
+	 * @throws IOException 输出失败
+	 */
+	public static boolean serve(HttpServletRequest request, HttpServletResponse response, WebjarsAssetRegistry registry,
+			WebjarsAsset asset, String contentType) throws IOException {
+		long size = asset.getSize();
+		if (size < 0) {
+			return false;
+		}
+		response.setHeader(HEADER_ACCEPT_RANGES, BYTES_UNIT);
+		String header = request.getHeader(HEADER_RANGE);
+		if (header == null || !"GET".equals(request.getMethod()) || !matchesIfRange(request, asset)) {
+			return false;
+		}
+		long[] ranges = parse(header, size);
+		if (ranges == null) {
+			return false;
+		}
+		if (ranges.length == 0) {
+			response.setHeader(HEADER_CONTENT_RANGE, BYTES_UNIT + " */" + size);
+			response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+			return true;
+		}
+		response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+		if (ranges.length == 2) {
+			long start = ranges[0];
+			long end = ranges[1];
+			response.setHeader(HEADER_CONTENT_RANGE, contentRange(start, end, size));
+			response.setHeader("Content-Length", Long.toString(end - start + 1));
+			// 已解压的文件交给容器以 sendfile 方式输出区间内容
+			if (sendfile(request, response, registry, asset, start, end - start + 1)) {
+				return true;
+			}
+			OutputStream output = response.getOutputStream();
+			registry.write(asset, output, start, end - start + 1);
+			output.flush();
+			return true;
+		}
+		// 多个区间：multipart/byteranges，先算出总长度
+		String boundary = Long.toHexString(BOUNDARY_RANDOM.nextLong() | Long.MIN_VALUE);
+		byte[][] headers = new byte[ranges.length / 2][];
+		long length = 0;
+		for (int i = 0; i < ranges.length; i += 2) {
+			String part = "\r\n--" + boundary + "\r\n"
+					+ (contentType != null ? "Content-Type: " + contentType + "\r\n" : "")
+					+ HEADER_CONTENT_RANGE + ": " + contentRange(ranges[i], ranges[i + 1], size) + "\r\n\r\n";
+			headers[i / 2] = part.getBytes(ISO_8859_1);
+			length += headers[i / 2].length + ranges[i + 1] - ranges[i] + 1;
+		}
+		byte[] trailer = ("\r\n--" + boundary + "--\r\n").getBytes(ISO_8859_1);
+		length += trailer.length;
+		response.setContentType("multipart/byteranges; boundary=" + boundary);
+		response.setHeader("Content-Length", Long.toString(length));
+		OutputStream output = response.getOutputStream();
+		for (int i = 0; i < ranges.length; i += 2) {
+			output.write(headers[i / 2]);
+			registry.write(asset, output, ranges[i], ranges[i + 1] - ranges[i] + 1);
+		}
+		output.write(trailer);
+		output.flush();
+		return true;
+	}
+
+	private static boolean sendfile(HttpServletRequest request, HttpServletResponse response, WebjarsAssetRegistry registry,
+			WebjarsAsset asset, long start, long length) throws IOException {
+		long minSize = registry.getSettings().getSendfileMinSize();
+		if (minSize < 0 || length < minSize) {
+			return false;
+		}
+		AssetBody body = registry.peekBody(asset);
+		if (body == null) {
+			return false;
+		}
+		try {
+			File file = body.getFile();
+			return file != null && Sendfile.serve(request, response, file, body, start, length, minSize);
+		} finally {
+			body.release();
+		}
+	}
+
+	/**
+	 * 解析 Range 请求头，如：bytes=0-499、bytes=500-、bytes=-500、bytes=0-0,-1
+	 *
+	 * @param header Range 请求头
+	 * @param size 资源大小
+	 * @return 依次存放每个可满足区间的起止位置（含），存在重叠或相邻的区间时按起始位置排序后合并；
+	 *         没有可满足的区间时为空数组；请求头无效或区间过多时返回 null，表示忽略 Range
+	 */
+	public static long[] parse(String header, long size) {
+		int length = header.length();
+		int i = 0;
+		while (i < length && header.charAt(i) <= ' ') {
+			i++;
+		}
+		if (!header.regionMatches(true, i, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+			return null;
+		}
+		i += BYTES_UNIT.length();
+		while (i < length && header.charAt(i) <= ' ') {
+			i++;
+		}
+		if (i >= length || header.charAt(i) != '=') {
+			return null;
+		}
+		i++;
+		long[] ranges = new long[4];
+		int count = 0;
+		int specs = 0;
+		while (i < length) {
+			int comma = header.indexOf(',', i);
+			int end = comma < 0 ? length : comma;
+			int dash = header.indexOf('-', i);
+			if (dash < 0 || dash >= end) {
+				if (isBlank(header, i, end)) {
+					// 允许空的列表元素
+					i = end + 1;
+					continue;
+				}
+				return null;
+			}
+			long first = parseNumber(header, i, dash);
+			long last = parseNumber(header, dash + 1, end);
+			long start;
+			long stop;
+			if (first == -1) {
+				// -N：最后 N 个字节
+				if (last < 0) {
+					return null;
+				}
+				start = Math.max(0, size - last);
+				stop = size - 1;
+				if (last == 0) {
+					start = size;
+				}
+			} else if (first >= 0) {
+				if (last == -2 || (last >= 0 && last < first)) {
+					return null;
+				}
+				start = first;
+				stop = last == -1 ? size - 1 : Math.min(last, size - 1);
+			} else {
+				return null;
+			}
+			if (++specs > MAX_RANGES) {
+				return null;
+			}
+			if (start < size && start <= stop) {
+				if (count == ranges.length) {
+					long[] grown = new long[ranges.length * 2];
+					System.arraycopy(ranges, 0, grown, 0, count);
+					ranges = grown;
+				}
+				ranges[count++] = start;
+				ranges[count++] = stop;
+			}
+			i = end + 1;
+		}
+		if (specs == 0) {
+			return null;
+		}
+		if (overlaps(ranges, count)) {
+			count = coalesce(ranges, count);
+		}
+		if (count == ranges.length) {
+			return ranges;
+		}
+		long[] result = new long[count];
+		System.arraycopy(ranges, 0, result, 0, count);
+		return result;
+	}
+
+	/**
+	 * @return 是否存在重叠或相邻的区间（区间数不超过 {@link #MAX_RANGES}，逐对比较即可）
+	 */
+	private static boolean overlaps(long[] ranges, int count) {
+		for (int i = 0; i < count; i += 2) {
+			for (int j = i + 2; j < count; j += 2) {
+				if (ranges[i] <= ranges[j + 1] + 1 && ranges[j] <= ranges[i + 1] + 1) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 按起始位置排序并合并重叠或相邻的区间，同一段内容不会重复输出
+	 *
+	 * @return 合并后的元素个数
+	 */
+	private static int coalesce(long[] ranges, int count) {
+		// 插入排序，区间数很少
+		for (int i = 2; i < count; i += 2) {
+			long start = ranges[i];
+			long stop = ranges[i + 1];
+			int j = i - 2;
+			while (j >= 0 && ranges[j] > start) {
+				ranges[j + 2] = ranges[j];
+				ranges[j + 3] = ranges[j + 1];
+				j -= 2;
+			}
+			ranges[j + 2] = start;
+			ranges[j + 3] = stop;
+		}
+		int merged = 2;
+		for (int i = 2; i < count; i += 2) {
+			if (ranges[i] <= ranges[merged - 1] + 1) {
+				ranges[merged - 1] = Math.max(ranges[merged - 1], ranges[i + 1]);
+			} else {
+				ranges[merged++] = ranges[i];
+				ranges[merged++] = ranges[i + 1];
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * If-Range 为 ETag 时按强比较，为日期时与 Last-Modified 精确比较；不一致时说明客户端持有的内容已过期，应返回完整内容。
+	 */
+	static boolean matchesIfRange(HttpServletRequest request, WebjarsAsset asset) {
+		String ifRange = request.getHeader(HEADER_IF_RANGE);
+		if (ifRange == null) {
+			return true;
+		}
+		ifRange = ifRange.trim();
+		if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+			return ifRange.equals(asset.getETag());
+		}
+		if (asset.getLastModifiedHeader() == null) {
+			return false;
+		}
+		if (ifRange.equals(asset.getLastModifiedHeader())) {
+			return true;
+		}
+		try {
+			return request.getDateHeader(HEADER_IF_RANGE) == asset.getLastModified();
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	private static String contentRange(long start, long end, long size) {
+		return BYTES_UNIT + " " + start + "-" + end + "/" + size;
+	}
+
+	/**
+	 * @return 数值；区间为空时返回 -1，格式错误时返回 -2
+	 */
+	private static long parseNumber(String s, int start, int end) {
+		while (start < end && s.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && s.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (start == end) {
+			return -1;
+		}
+		// 超过 18 位的数值按格式错误处理，避免溢出
+		if (end - start > 18) {
+			return -2;
+		}
+		long value = 0;
+		for (int i = start; i < end; i++) {
+			char c = s.charAt(i);
+			if (c < '0' || c > '9') {
+				return -2;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	private static boolean isBlank(String s, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (s.charAt(i) > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
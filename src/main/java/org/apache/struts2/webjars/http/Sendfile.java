@@ -0,0 +1,143 @@
+package org.apache.struts2.webjars.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.struts2.webjars.asset.AssetBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @className	： Sendfile
+ * @description	： 把本地文件交给容器的零拷贝输出，不经过 Java 的复制循环（用于 disk 存储方式下解压后的文件及 .gz 文件）：
+ *              Tomcat 的 NIO/NIO2/APR 连接器支持 sendfile 时，设置 org.apache.tomcat.sendfile.* 请求属性，由连接器在请求结束后直接发送文件；
+ *              Jetty 的输出流提供 sendContent(ByteBuffer)，直接发送文件的内存映射，不复制到堆内。
+ *              其他容器、文件小于最小字节数或输出流被包装时返回 false，由调用方照常输出。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午8:16:33
+ * @version 	V1.0
+ */
+public final class Sendfile {
+
+	private static final Logger LOG = LoggerFactory.getLogger(Sendfile.class);
+
+	public static final String TOMCAT_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+	public static final String TOMCAT_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+	public static final String TOMCAT_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+	public static final String TOMCAT_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+	private static final String JETTY_SEND_CONTENT = "sendContent";
+
+	/** 输出流类型 -> sendContent(ByteBuffer) 方法，没有该方法时为 NO_METHOD */
+	private static final ConcurrentMap<Class<?>, Method> SEND_CONTENT_METHODS = new ConcurrentHashMap<Class<?>, Method>();
+
+	private static final Method NO_METHOD;
+
+	static {
+		try {
+			NO_METHOD = Object.class.getMethod("toString");
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Sendfile() {
+	}
+
+	/**
+	 * 输出本地文件中的全部内容，Content-Length 须已设置。
+	 *
+	 * @param request 当前请求
+	 * @param response 当前响应
+	 * @param body 待输出的内容，不在本地文件中时返回 false；不会被释放
+	 * @param minSize 交给容器的最小字节数，小文件直接复制更快；小于 0 表示不使用
+	 * @return 已交给容器时返回 true，调用方不得再写出内容
+	 * @throws IOException 输出失败
+	 */
+	public static boolean serve(HttpServletRequest request, HttpServletResponse response, AssetBody body, long minSize)
+			throws IOException {
+		File file = body.getFile();
+		if (file == null) {
+			return false;
+		}
+		return serve(request, response, file, body, 0, body.getLength(), minSize);
+	}
+
+	/**
+	 * 输出本地文件中 [start, start + length) 的部分，Content-Length 须已设置。
+	 *
+	 * @param request 当前请求
+	 * @param response 当前响应
+	 * @param file 本地文件
+	 * @param body 文件的内存映射来源，Jetty 使用；可以为 null
+	 * @param start 起始位置
+	 * @param length 字节数
+	 * @param minSize 交给容器的最小字节数；小于 0 表示不使用
+	 * @return 已交给容器时返回 true，调用方不得再写出内容
+	 * @throws IOException 输出失败
+	 */
+	public static boolean serve(HttpServletRequest request, HttpServletResponse response, File file, AssetBody body,
+			long start, long length, long minSize) throws IOException {
+		if (minSize < 0 || length < minSize || length <= 0 || request == null) {
+			return false;
+		}
+		if (Boolean.TRUE.equals(request.getAttribute(TOMCAT_SUPPORT_ATTRIBUTE))) {
+			request.setAttribute(TOMCAT_FILENAME_ATTRIBUTE, file.getAbsolutePath());
+			request.setAttribute(TOMCAT_START_ATTRIBUTE, Long.valueOf(start));
+			request.setAttribute(TOMCAT_END_ATTRIBUTE, Long.valueOf(start + length));
+			return true;
+		}
+		if (body == null) {
+			return false;
+		}
+		ServletOutputStream output = response.getOutputStream();
+		Method sendContent = sendContentMethod(output.getClass());
+		if (sendContent == null) {
+			return false;
+		}
+		ByteBuffer buffer = body.buffer();
+		if (buffer == null) {
+			return false;
+		}
+		((Buffer) buffer).position((int) start);
+		((Buffer) buffer).limit((int) (start + length));
+		try {
+			sendContent.invoke(output, buffer.slice());
+			return true;
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+		} catch (IllegalAccessException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static Method sendContentMethod(Class<?> outputClass) {
+		Method method = SEND_CONTENT_METHODS.get(outputClass);
+		if (method == null) {
+			try {
+				method = outputClass.getMethod(JETTY_SEND_CONTENT, ByteBuffer.class);
+				LOG.debug("Using {}.sendContent(ByteBuffer) for disk-backed webjars", outputClass.getName());
+			} catch (NoSuchMethodException e) {
+				method = NO_METHOD;
+			}
+			SEND_CONTENT_METHODS.put(outputClass, method);
+		}
+		return method == NO_METHOD ? null : method;
+	}
+
+}
@@ -0,0 +1,57 @@
+package org.apache.struts2.webjars.http;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.struts2.webjars.asset.WebjarsAsset;
+
+/**
+ *
+ * @className	： VersionlessRedirects
+ * @description	： redirect 模式下，把不带版本号的路径（/webjars/jquery/jquery.js）302 跳转到带版本号的标准路径，
+ *              浏览器随后按带版本号的路径长期缓存；跳转只使用已缓存的资源元数据，不读取 jar。
+ *              两种路径解析到同一个资源，共用同一份元数据及内容缓存。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午11:46:05
+ * @version 	V1.0
+ */
+public final class VersionlessRedirects {
+
+	private VersionlessRedirects() {
+	}
+
+	/**
+	 * 请求路径不带版本号时跳转到带版本号的路径
+	 *
+	 * @param request 请求
+	 * @param response 响应
+	 * @param path 去掉上下文后的请求路径
+	 * @param asset 解析到的资源
+	 * @param cachePolicy 跳转响应使用的缓存策略，可以为 null
+	 * @return 是否已跳转
+	 * @throws IOException 输出响应失败
+	 */
+	public static boolean redirect(HttpServletRequest request, HttpServletResponse response, String path,
+			WebjarsAsset asset, CachePolicy cachePolicy) throws IOException {
+		if (!asset.isVersionlessPath(path) || asset.getCanonicalPath() == null) {
+			return false;
+		}
+		String contextPath = request.getContextPath();
+		String query = request.getQueryString();
+		StringBuilder location = new StringBuilder(contextPath.length() + asset.getCanonicalPath().length()
+				+ (query == null ? 0 : query.length() + 1));
+		location.append(contextPath).append(asset.getCanonicalPath());
+		if (query != null) {
+			location.append('?').append(query);
+		}
+		if (cachePolicy != null) {
+			// 不带版本号的路径在 webjar 升级后会跳转到新版本，只能短期缓存
+			cachePolicy.apply(response, path, asset);
+		}
+		response.sendRedirect(location.toString());
+		return true;
+	}
+
+}
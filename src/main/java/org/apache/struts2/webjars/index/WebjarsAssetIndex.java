@@ -0,0 +1,538 @@
+package org.apache.struts2.webjars.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ *
+ * @className	： WebjarsAssetIndex
+ * @description	： 启动时根据全部 webjar 资源构建的只读路径索引：
+ *              <ul>
+ *              <li>精确路径（/webjars/jquery/3.4.1/jquery.js）走开放寻址哈希表，一次探测即可命中；</li>
+ *              <li>不带版本号的路径（/webjars/jquery/jquery.js）按启动时建立的 webjar 名称 -> 版本表补全版本号后走同一个哈希表，
+ *              与带版本号的路径得到同一个资源；类路径中同一 webjar 存在多个版本时不补全；</li>
+ *              <li>部分路径（jquery.js、3.4.1/jquery.js）走按目录段倒序组织的压缩 Trie，一次遍历即可得出结果。</li>
+ *              </ul>
+ *              索引只保存每个资源的完整路径字符串一份，哈希表与 Trie 中均以下标引用，查找过程不分配对象。
+ *              与 WebJarAssetLocator 一致，部分路径必须按目录段对齐匹配：query.js 不会匹配到 jquery.js。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 上午11:05:12
+ * @version 	V1.0
+ */
+public final class WebjarsAssetIndex {
+
+	/** webjar 资源在类路径中的根目录 */
+	public static final String RESOURCES_PREFIX = "META-INF/resources";
+
+	/** webjar 资源完整路径的前缀 */
+	public static final String WEBJARS_PATH_PREFIX = RESOURCES_PREFIX + "/webjars/";
+
+	/** webjar 资源请求路径的前缀 */
+	public static final String WEBJARS_URI_PREFIX = "/webjars/";
+
+	/** 未找到 */
+	public static final int NOT_FOUND = -1;
+
+	/** 部分路径匹配到多个资源 */
+	public static final int AMBIGUOUS = -2;
+
+	private static final int PREFIX_LENGTH = RESOURCES_PREFIX.length();
+
+	private static final char SEPARATOR = '/';
+
+	/** 按字典序排列的资源完整路径 */
+	private final String[] paths;
+
+	/** 每个资源相对路径（去掉 META-INF/resources）的哈希值，与 String.hashCode 一致 */
+	private final int[] hashes;
+
+	/** 开放寻址哈希表：存放 资源下标 + 1，0 表示空槽 */
+	private final int[] slots;
+
+	private final Node root;
+
+	/** 按字典序排列的 webjar 名称及对应的版本，只包含类路径中唯一版本的 webjar */
+	private final String[] webjars;
+	private final String[] versions;
+
+	private WebjarsAssetIndex(String[] paths) {
+		this.paths = paths;
+		this.hashes = new int[paths.length];
+		this.slots = new int[tableSize(paths.length)];
+		int mask = slots.length - 1;
+		for (int i = 0; i < paths.length; i++) {
+			int h = hash(paths[i], PREFIX_LENGTH);
+			hashes[i] = h;
+			int slot = spread(h) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = i + 1;
+		}
+		int[] all = new int[paths.length];
+		for (int i = 0; i < all.length; i++) {
+			all[i] = i;
+		}
+		this.root = build(all, 0, new HashMap<String, String>());
+		// webjar 名称 -> 版本
+		TreeMap<String, String> webjarVersions = new TreeMap<String, String>();
+		List<String> conflicts = new ArrayList<String>();
+		int offset = WEBJARS_PATH_PREFIX.length();
+		for (String path : paths) {
+			int slash = path.indexOf(SEPARATOR, offset);
+			int next = slash < 0 ? -1 : path.indexOf(SEPARATOR, slash + 1);
+			if (slash <= offset || next <= slash + 1) {
+				continue;
+			}
+			String webjar = path.substring(offset, slash);
+			String version = path.substring(slash + 1, next);
+			String existing = webjarVersions.put(webjar, version);
+			if (existing != null && !existing.equals(version)) {
+				conflicts.add(webjar);
+			}
+		}
+		webjarVersions.keySet().removeAll(conflicts);
+		this.webjars = webjarVersions.keySet().toArray(new String[webjarVersions.size()]);
+		this.versions = webjarVersions.values().toArray(new String[webjarVersions.size()]);
+	}
+
+	/**
+	 * 根据资源完整路径集合构建索引。
+	 *
+	 * @param fullPaths 资源完整路径，如：META-INF/resources/webjars/jquery/3.4.1/jquery.js
+	 * @return 只读索引
+	 */
+	public static WebjarsAssetIndex build(Collection<String> fullPaths) {
+		List<String> accepted = new ArrayList<String>(fullPaths.size());
+		for (String fullPath : fullPaths) {
+			if (fullPath != null && fullPath.startsWith(WEBJARS_PATH_PREFIX) && fullPath.charAt(fullPath.length() - 1) != SEPARATOR) {
+				accepted.add(fullPath);
+			}
+		}
+		String[] paths = accepted.toArray(new String[accepted.size()]);
+		Arrays.sort(paths);
+		// 去重
+		int n = 0;
+		for (int i = 0; i < paths.length; i++) {
+			if (n == 0 || !paths[n - 1].equals(paths[i])) {
+				paths[n++] = paths[i];
+			}
+		}
+		return new WebjarsAssetIndex(n == paths.length ? paths : Arrays.copyOf(paths, n));
+	}
+
+	/**
+	 * @return 索引中的资源数量
+	 */
+	public int size() {
+		return paths.length;
+	}
+
+	/**
+	 * @param index 资源下标
+	 * @return 资源完整路径
+	 */
+	public String getPath(int index) {
+		return paths[index];
+	}
+
+	/**
+	 * @param webjar webjar 名称，如：jquery
+	 * @return 类路径中该 webjar 的唯一版本；不存在或存在多个版本时返回 null
+	 */
+	public String getVersion(String webjar) {
+		int index = webjar == null ? -1 : search(webjars, webjar, 0, webjar.length());
+		return index < 0 ? null : versions[index];
+	}
+
+	/**
+	 * @return 全部资源完整路径（只读）
+	 */
+	public List<String> listAssets() {
+		return Collections.unmodifiableList(Arrays.asList(paths));
+	}
+
+	/**
+	 * 查找资源：先按精确路径探测哈希表，再按部分路径遍历 Trie。
+	 *
+	 * @param path 请求路径或部分路径
+	 * @return 资源下标；{@link #NOT_FOUND} 或 {@link #AMBIGUOUS}
+	 */
+	public int find(String path) {
+		int index = findExact(path);
+		if (index < 0) {
+			index = findVersionless(path);
+		}
+		return index >= 0 ? index : findPartial(path);
+	}
+
+	/**
+	 * 在指定 webjar 中查找资源。
+	 *
+	 * @param webjar webjar 名称，如：jquery
+	 * @param path 请求路径或部分路径
+	 * @return 资源下标；{@link #NOT_FOUND} 或 {@link #AMBIGUOUS}
+	 */
+	public int find(String webjar, String path) {
+		int index = findExact(path);
+		if (index < 0) {
+			index = findVersionless(path);
+		}
+		if (index >= 0) {
+			return inWebjar(paths[index], webjar) ? index : NOT_FOUND;
+		}
+		Node node = walk(path);
+		if (node == null) {
+			return NOT_FOUND;
+		}
+		if (node.asset >= 0) {
+			return inWebjar(paths[node.asset], webjar) ? node.asset : NOT_FOUND;
+		}
+		// 少见情况：部分路径跨多个资源，只在子树中筛选
+		int found = NOT_FOUND;
+		List<Integer> candidates = new ArrayList<Integer>();
+		collect(node, candidates);
+		for (Integer candidate : candidates) {
+			if (inWebjar(paths[candidate], webjar)) {
+				if (found != NOT_FOUND) {
+					return AMBIGUOUS;
+				}
+				found = candidate;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * 按精确的相对路径查找，如：/webjars/jquery/3.4.1/jquery.js
+	 *
+	 * @param path 去掉上下文后的请求路径
+	 * @return 资源下标或 {@link #NOT_FOUND}
+	 */
+	public int findExact(String path) {
+		if (path == null || paths.length == 0) {
+			return NOT_FOUND;
+		}
+		int h = path.hashCode();
+		int mask = slots.length - 1;
+		int len = path.length();
+		for (int slot = spread(h) & mask;; slot = (slot + 1) & mask) {
+			int entry = slots[slot];
+			if (entry == 0) {
+				return NOT_FOUND;
+			}
+			int index = entry - 1;
+			String fullPath = paths[index];
+			if (hashes[index] == h && fullPath.length() - PREFIX_LENGTH == len
+					&& fullPath.regionMatches(PREFIX_LENGTH, path, 0, len)) {
+				return index;
+			}
+		}
+	}
+
+	/**
+	 * 按资源完整路径查找，如：META-INF/resources/webjars/jquery/3.4.1/jquery.js
+	 *
+	 * @param fullPath 资源完整路径
+	 * @return 资源下标或 {@link #NOT_FOUND}
+	 */
+	public int findFullPath(String fullPath) {
+		if (fullPath == null || !fullPath.startsWith(RESOURCES_PREFIX)) {
+			return NOT_FOUND;
+		}
+		return findExact(fullPath.substring(PREFIX_LENGTH));
+	}
+
+	/**
+	 * 按不带版本号的路径查找，如：/webjars/jquery/jquery.js 补全为 /webjars/jquery/3.4.1/jquery.js；
+	 * 补全后的路径不拼接字符串，哈希值与比较均分段计算。
+	 *
+	 * @param path 去掉上下文后的请求路径
+	 * @return 资源下标或 {@link #NOT_FOUND}
+	 */
+	public int findVersionless(String path) {
+		if (path == null || webjars.length == 0 || !path.startsWith(WEBJARS_URI_PREFIX)) {
+			return NOT_FOUND;
+		}
+		int start = WEBJARS_URI_PREFIX.length();
+		int slash = path.indexOf(SEPARATOR, start);
+		if (slash <= start) {
+			return NOT_FOUND;
+		}
+		int webjar = search(webjars, path, start, slash - start);
+		if (webjar < 0) {
+			return NOT_FOUND;
+		}
+		String version = versions[webjar];
+		int split = slash + 1;
+		int vlen = version.length();
+		if (path.startsWith(version, split) && path.length() > split + vlen && path.charAt(split + vlen) == SEPARATOR) {
+			// 已经带有版本号
+			return NOT_FOUND;
+		}
+		// path[0, split) + version + "/" + path[split, len)
+		int h = 0;
+		for (int i = 0; i < split; i++) {
+			h = 31 * h + path.charAt(i);
+		}
+		for (int i = 0; i < vlen; i++) {
+			h = 31 * h + version.charAt(i);
+		}
+		h = 31 * h + SEPARATOR;
+		for (int i = split; i < path.length(); i++) {
+			h = 31 * h + path.charAt(i);
+		}
+		int len = path.length() + vlen + 1;
+		int mask = slots.length - 1;
+		for (int slot = spread(h) & mask;; slot = (slot + 1) & mask) {
+			int entry = slots[slot];
+			if (entry == 0) {
+				return NOT_FOUND;
+			}
+			int index = entry - 1;
+			String fullPath = paths[index];
+			if (hashes[index] == h && fullPath.length() - PREFIX_LENGTH == len
+					&& fullPath.regionMatches(PREFIX_LENGTH, path, 0, split)
+					&& fullPath.regionMatches(PREFIX_LENGTH + split, version, 0, vlen)
+					&& fullPath.charAt(PREFIX_LENGTH + split + vlen) == SEPARATOR
+					&& fullPath.regionMatches(PREFIX_LENGTH + split + vlen + 1, path, split, path.length() - split)) {
+				return index;
+			}
+		}
+	}
+
+	/**
+	 * 按部分路径查找，目录段需对齐，如：jquery.js、3.4.1/jquery.js
+	 *
+	 * @param path 部分路径
+	 * @return 资源下标；{@link #NOT_FOUND} 或 {@link #AMBIGUOUS}
+	 */
+	public int findPartial(String path) {
+		Node node = walk(path);
+		return node == null ? NOT_FOUND : node.asset;
+	}
+
+	/**
+	 * 列出部分路径匹配到的全部资源。
+	 *
+	 * @param path 部分路径
+	 * @return 匹配的资源完整路径
+	 */
+	public List<String> findAll(String path) {
+		Node node = walk(path);
+		if (node == null) {
+			return Collections.emptyList();
+		}
+		List<Integer> candidates = new ArrayList<Integer>();
+		collect(node, candidates);
+		List<String> matches = new ArrayList<String>(candidates.size());
+		for (Integer candidate : candidates) {
+			matches.add(paths[candidate]);
+		}
+		return matches;
+	}
+
+	/**
+	 * 从路径末尾开始逐段遍历 Trie；到达唯一资源的节点后直接与该资源路径比对剩余部分。
+	 */
+	private Node walk(String path) {
+		if (path == null || root == null) {
+			return null;
+		}
+		int begin = 0;
+		while (begin < path.length() && path.charAt(begin) == SEPARATOR) {
+			begin++;
+		}
+		int end = path.length();
+		if (begin == end || path.charAt(end - 1) == SEPARATOR) {
+			return null;
+		}
+		Node node = root;
+		while (end > begin) {
+			if (node.names == null) {
+				return matchesTail(paths[node.asset], path, begin, path.length()) ? node : null;
+			}
+			int start = path.lastIndexOf(SEPARATOR, end - 1) + 1;
+			if (start < begin) {
+				start = begin;
+			}
+			if (start == end) {
+				// 连续的分隔符
+				return null;
+			}
+			int child = search(node.names, path, start, end - start);
+			if (child < 0) {
+				return null;
+			}
+			node = node.children[child];
+			end = start - 1;
+		}
+		return node;
+	}
+
+	private static boolean matchesTail(String fullPath, String path, int begin, int end) {
+		int len = end - begin;
+		int offset = fullPath.length() - len;
+		return offset >= 0 && fullPath.regionMatches(offset, path, begin, len)
+				&& (offset == 0 || fullPath.charAt(offset - 1) == SEPARATOR);
+	}
+
+	private static int search(String[] names, String path, int start, int len) {
+		int low = 0;
+		int high = names.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = compare(names[mid], path, start, len);
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	private static int compare(String name, String path, int start, int len) {
+		int n = Math.min(name.length(), len);
+		for (int i = 0; i < n; i++) {
+			char c1 = name.charAt(i);
+			char c2 = path.charAt(start + i);
+			if (c1 != c2) {
+				return c1 - c2;
+			}
+		}
+		return name.length() - len;
+	}
+
+	private void collect(Node node, List<Integer> out) {
+		if (node.names == null) {
+			out.add(node.asset);
+			return;
+		}
+		for (Node child : node.children) {
+			collect(child, out);
+		}
+	}
+
+	private boolean inWebjar(String fullPath, String webjar) {
+		if (webjar == null || webjar.length() == 0) {
+			return true;
+		}
+		int offset = WEBJARS_PATH_PREFIX.length();
+		return fullPath.length() > offset + webjar.length()
+				&& fullPath.regionMatches(offset, webjar, 0, webjar.length())
+				&& fullPath.charAt(offset + webjar.length()) == SEPARATOR;
+	}
+
+	/**
+	 * 递归构建压缩 Trie：assets 中的资源在末尾 depth 个目录段上相同；只剩一个资源时不再向下展开。
+	 */
+	private Node build(int[] assets, int depth, Map<String, String> pool) {
+		if (assets.length == 0) {
+			return null;
+		}
+		if (assets.length == 1) {
+			return new Node(assets[0]);
+		}
+		TreeMap<String, List<Integer>> groups = new TreeMap<String, List<Integer>>();
+		for (int asset : assets) {
+			String segment = segment(paths[asset], depth);
+			if (segment == null) {
+				continue;
+			}
+			String name = pool.get(segment);
+			if (name == null) {
+				pool.put(segment, segment);
+				name = segment;
+			}
+			List<Integer> group = groups.get(name);
+			if (group == null) {
+				group = new ArrayList<Integer>(2);
+				groups.put(name, group);
+			}
+			group.add(asset);
+		}
+		String[] names = new String[groups.size()];
+		Node[] children = new Node[groups.size()];
+		int i = 0;
+		for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+			List<Integer> members = group.getValue();
+			int[] subset = new int[members.size()];
+			for (int j = 0; j < subset.length; j++) {
+				subset[j] = members.get(j);
+			}
+			names[i] = group.getKey();
+			children[i] = build(subset, depth + 1, pool);
+			i++;
+		}
+		return new Node(names, children);
+	}
+
+	/**
+	 * 取路径倒数第 depth 个目录段（从 0 开始）
+	 */
+	private static String segment(String path, int depth) {
+		int end = path.length();
+		for (int i = 0; i < depth; i++) {
+			end = path.lastIndexOf(SEPARATOR, end - 1);
+			if (end < 0) {
+				return null;
+			}
+		}
+		return path.substring(path.lastIndexOf(SEPARATOR, end - 1) + 1, end);
+	}
+
+	private static int tableSize(int count) {
+		int size = 2;
+		while (size < count * 2) {
+			size <<= 1;
+		}
+		return size;
+	}
+
+	private static int spread(int h) {
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * 与 String.hashCode 相同的算法，只计算 offset 之后的部分
+	 */
+	private static int hash(String s, int offset) {
+		int h = 0;
+		for (int i = offset; i < s.length(); i++) {
+			h = 31 * h + s.charAt(i);
+		}
+		return h;
+	}
+
+	private static final class Node {
+
+		/** 子节点目录段名称（有序）；为 null 表示该子树只有一个资源 */
+		final String[] names;
+		final Node[] children;
+		/** 子树中唯一的资源下标，多个资源时为 {@link #AMBIGUOUS} */
+		final int asset;
+
+		Node(int asset) {
+			this.names = null;
+			this.children = null;
+			this.asset = asset;
+		}
+
+		Node(String[] names, Node[] children) {
+			this.names = names;
+			this.children = children;
+			this.asset = AMBIGUOUS;
+		}
+
+	}
+
+}
@@ -20,8 +20,7 @@ import javax.servlet.http.HttpServletRequest;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.struts2.ServletActionContext;
-import org.apache.struts2.webjars.matcher.AntPathMatcher;
-import org.apache.struts2.webjars.matcher.PathMatcher;
+import org.apache.struts2.webjars.matcher.PathPattern;
 
 import com.opensymphony.xwork2.ActionInvocation;
 import com.opensymphony.xwork2.interceptor.AbstractInterceptor;
@@ -30,8 +29,9 @@ import com.opensymphony.xwork2.interceptor.AbstractInterceptor;
 public class WebjarsRequestInterceptor extends AbstractInterceptor {
 
 	protected static final Logger LOG = LogManager.getLogger(WebjarsRequestInterceptor.class);
-    protected final PathMatcher pathMatcher = new AntPathMatcher();
     protected String inputPattern;
+    /** 配置时预编译的规则：先比较字面前缀，绝大多数不相关的请求比较几个字符即被排除 */
+    protected PathPattern compiledPattern;
     
     public String getInputPattern() {
 		return inputPattern;
@@ -39,6 +39,7 @@ public class WebjarsRequestInterceptor extends AbstractInterceptor {
     
 	public void setInputPattern(String inputPattern) {
 		this.inputPattern = inputPattern;
+		this.compiledPattern = inputPattern == null ? null : PathPattern.compile(inputPattern);
 	}
 
 	public String intercept(ActionInvocation invocation) throws Exception {
@@ -46,11 +47,8 @@ public class WebjarsRequestInterceptor extends AbstractInterceptor {
 		LOG.debug("Find the Request in context");
         HttpServletRequest oRequest = ServletActionContext.getRequest();
         
-        //uri去掉web上下文
-    	String resPath = oRequest.getRequestURI().substring(oRequest.getContextPath().length());
-    	
-		//匹配资源路径是否需要处理
-    	if(pathMatcher.match(inputPattern, resPath)){
+		//匹配资源路径是否需要处理（从web上下文之后开始匹配，不截取uri）
+    	if(compiledPattern != null && compiledPattern.matches(oRequest.getRequestURI(), oRequest.getContextPath().length())){
     		return "webjars";
     	}
     	
@@ -0,0 +1,169 @@
+package org.apache.struts2.webjars.io;
+
+/**
+ *
+ * @className	： CodecPool
+ * @description	： 有界的 Deflater/Inflater 对象池：每个对象都持有本地内存，频繁创建会造成本地内存抖动并加重 Cleaner 的负担。
+ *              池按 CPU 核数分段，线程按线程号选择所在的分段，各分段独立加锁，减少竞争；分段已满时归还的对象直接释放。
+ *              记录命中、未命中、创建及因池满释放的次数，用于观察池的大小是否合适。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午3:05:44
+ * @version 	V1.0
+ */
+public abstract class CodecPool<T> {
+
+	/** 每个分段缓存的对象数上限 */
+	protected static final int DEFAULT_STRIPE_CAPACITY = 4;
+
+	private final Stripe<T>[] stripes;
+
+	private final int mask;
+
+	private final Counter hits = new Counter();
+
+	private final Counter misses = new Counter();
+
+	private final Counter created = new Counter();
+
+	private final Counter discarded = new Counter();
+
+	protected CodecPool() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_STRIPE_CAPACITY);
+	}
+
+	/**
+	 * @param concurrency 预计的并发数，分段数为不小于它的 2 的幂（最多 64）
+	 * @param stripeCapacity 每个分段缓存的对象数上限
+	 */
+	@SuppressWarnings("unchecked")
+	protected CodecPool(int concurrency, int stripeCapacity) {
+		int count = 1;
+		while (count < Math.min(Math.max(concurrency, 1), 64)) {
+			count <<= 1;
+		}
+		this.stripes = new Stripe[count];
+		for (int i = 0; i < count; i++) {
+			stripes[i] = new Stripe<T>(stripeCapacity);
+		}
+		this.mask = count - 1;
+	}
+
+	/**
+	 * 取出一个对象，池中没有时新建。使用完毕后必须调用 {@link #release(Object)}。
+	 */
+	public T borrow() {
+		T codec = stripe().poll();
+		if (codec != null) {
+			hits.increment();
+			return codec;
+		}
+		misses.increment();
+		created.increment();
+		return create();
+	}
+
+	/**
+	 * 重置并归还对象；所在分段已满时释放对象的本地内存
+	 */
+	public void release(T codec) {
+		if (codec == null) {
+			return;
+		}
+		reset(codec);
+		if (!stripe().offer(codec)) {
+			discarded.increment();
+			end(codec);
+		}
+	}
+
+	private Stripe<T> stripe() {
+		long id = Thread.currentThread().getId();
+		return stripes[(int) (id ^ (id >>> 16)) & mask];
+	}
+
+	protected abstract T create();
+
+	protected abstract void reset(T codec);
+
+	protected abstract void end(T codec);
+
+	/**
+	 * @return 从池中取到对象的次数
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return 池中没有可用对象的次数
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return 新建对象的次数
+	 */
+	public long getCreated() {
+		return created.get();
+	}
+
+	/**
+	 * @return 归还时因分段已满而释放的次数
+	 */
+	public long getDiscarded() {
+		return discarded.get();
+	}
+
+	/**
+	 * @return 池中空闲的对象数
+	 */
+	public int getIdle() {
+		int idle = 0;
+		for (Stripe<T> stripe : stripes) {
+			idle += stripe.size();
+		}
+		return idle;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[hits=" + getHits() + ", misses=" + getMisses() + ", created=" + getCreated()
+				+ ", discarded=" + getDiscarded() + ", idle=" + getIdle() + "]";
+	}
+
+	private static final class Stripe<T> {
+
+		private final Object[] items;
+
+		private int count;
+
+		Stripe(int capacity) {
+			this.items = new Object[capacity];
+		}
+
+		@SuppressWarnings("unchecked")
+		synchronized T poll() {
+			if (count == 0) {
+				return null;
+			}
+			T item = (T) items[--count];
+			items[count] = null;
+			return item;
+		}
+
+		synchronized boolean offer(T item) {
+			if (count == items.length) {
+				return false;
+			}
+			items[count++] = item;
+			return true;
+		}
+
+		synchronized int size() {
+			return count;
+		}
+
+	}
+
+}
@@ -0,0 +1,35 @@
+package org.apache.struts2.webjars.io;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * @className	： Counter
+ * @description	： 用于统计指标的计数器，频繁累加、偶尔读取：Java 7 基线实现为 AtomicLong；
+ *              Java 21 及以上版本由多版本 jar 中的同名类替代，使用分段累加的 LongAdder，多线程同时累加时不争用同一个缓存行。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午7:07:40
+ * @version 	V1.0
+ */
+public final class Counter {
+
+	private final AtomicLong value = new AtomicLong();
+
+	public void increment() {
+		value.incrementAndGet();
+	}
+
+	public void add(long delta) {
+		value.addAndGet(delta);
+	}
+
+	public long get() {
+		return value.get();
+	}
+
+	@Override
+	public String toString() {
+		return Long.toString(get());
+	}
+
+}
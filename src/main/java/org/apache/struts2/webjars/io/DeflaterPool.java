@@ -0,0 +1,49 @@
+package org.apache.struts2.webjars.io;
+
+import java.util.zip.Deflater;
+
+/**
+ *
+ * @className	： DeflaterPool
+ * @description	： gzip 压缩使用的 Deflater 池（nowrap，即不带 zlib 头尾的原始 DEFLATE），取出时按需设置压缩级别。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午3:18:20
+ * @version 	V1.0
+ */
+public class DeflaterPool extends CodecPool<Deflater> {
+
+	private static final DeflaterPool SHARED = new DeflaterPool();
+
+	/**
+	 * @return 进程内共享的实例
+	 */
+	public static DeflaterPool getShared() {
+		return SHARED;
+	}
+
+	/**
+	 * @param level 压缩级别 1-9，-1 表示默认级别
+	 * @return 已设置好压缩级别的 Deflater
+	 */
+	public Deflater borrow(int level) {
+		Deflater deflater = borrow();
+		deflater.setLevel(level);
+		return deflater;
+	}
+
+	@Override
+	protected Deflater create() {
+		return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+	}
+
+	@Override
+	protected void reset(Deflater deflater) {
+		deflater.reset();
+	}
+
+	@Override
+	protected void end(Deflater deflater) {
+		deflater.end();
+	}
+
+}
@@ -0,0 +1,39 @@
+package org.apache.struts2.webjars.io;
+
+import java.util.zip.Inflater;
+
+/**
+ *
+ * @className	： InflaterPool
+ * @description	： 解压 jar 条目使用的 Inflater 池（nowrap，jar 中的条目为原始 DEFLATE 数据）。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午3:19:02
+ * @version 	V1.0
+ */
+public class InflaterPool extends CodecPool<Inflater> {
+
+	private static final InflaterPool SHARED = new InflaterPool();
+
+	/**
+	 * @return 进程内共享的实例
+	 */
+	public static InflaterPool getShared() {
+		return SHARED;
+	}
+
+	@Override
+	protected Inflater create() {
+		return new Inflater(true);
+	}
+
+	@Override
+	protected void reset(Inflater inflater) {
+		inflater.reset();
+	}
+
+	@Override
+	protected void end(Inflater inflater) {
+		inflater.end();
+	}
+
+}
@@ -0,0 +1,55 @@
+package org.apache.struts2.webjars.io;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * @className	： IoExecutors
+ * @description	： 创建执行阻塞 I/O（冷资源读取 jar、解压）的线程池：请求转为异步后，读取在这里完成，容器的请求线程立即返回。
+ *              线程池由注册表持有，随 Web 应用停止而关闭；等待执行的任务数有上限，超过时拒绝，由调用方在请求线程中同步输出。
+ *              Java 7 基线实现为守护线程池，线程数为 CPU 核数的 4 倍（至少 8 个），空闲 60 秒后回收；
+ *              Java 21 及以上版本由多版本 jar 中 META-INF/versions/21 下的同名类替代，每个任务使用一个虚拟线程。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午7:02:51
+ * @version 	V1.0
+ */
+public final class IoExecutors {
+
+	private IoExecutors() {
+	}
+
+	/**
+	 * 创建线程池，调用方负责关闭。
+	 *
+	 * @param queueSize 等待执行的任务数上限，超过时 execute 抛出 RejectedExecutionException
+	 * @return 线程池
+	 */
+	public static ExecutorService create(int queueSize) {
+		int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+		final AtomicInteger threadNumber = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(Math.max(1, queueSize)), new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable, "webjars-io-" + threadNumber.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * @return 任务是否运行在虚拟线程上
+	 */
+	public static boolean isVirtual() {
+		return false;
+	}
+
+}
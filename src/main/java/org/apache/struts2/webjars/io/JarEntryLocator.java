@@ -0,0 +1,250 @@
+package org.apache.struts2.webjars.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.struts2.webjars.cache.SingleFlight;
+import org.apache.struts2.webjars.index.WebjarsAssetIndex;
+import org.apache.struts2.webjars.utils.IOUtils;
+
+/**
+ *
+ * @className	： JarEntryLocator
+ * @description	： 直接读取 jar（zip）的中央目录及本地文件头，定位 DEFLATE 压缩条目的原始压缩数据在 jar 文件中的位置，
+ *              用于不解压而直接输出压缩数据，或使用池中的 Inflater 直接解压。每个 jar 的中央目录只在首次需要时解析一次，且只记录 META-INF/resources 下的压缩条目；
+ *              本地文件头中的 ZIP64 扩展字段按长度跳过；大小或位置只记录在 ZIP64 扩展记录中的条目及加密的条目不支持（返回 -1，由调用方改用其他方式输出）。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 上午11:26:50
+ * @version 	V1.0
+ */
+public class JarEntryLocator {
+
+	private static final int END_SIGNATURE = 0x06054b50;
+
+	private static final int CENTRAL_SIGNATURE = 0x02014b50;
+
+	private static final int LOCAL_SIGNATURE = 0x04034b50;
+
+	private static final int END_HEADER_SIZE = 22;
+
+	private static final int CENTRAL_HEADER_SIZE = 46;
+
+	private static final int LOCAL_HEADER_SIZE = 30;
+
+	/** 目录结束记录之后最多还有 65535 字节的注释 */
+	private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+	private static final int METHOD_DEFLATED = 8;
+
+	private static final int FLAG_ENCRYPTED = 1;
+
+	private static final int FLAG_UTF8 = 1 << 11;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+	/** jar 文件绝对路径 -> 解析后的目录 */
+	private final ConcurrentMap<String, Directory> directories = new ConcurrentHashMap<String, Directory>();
+
+	private final SingleFlight<String, Directory> directoryLoads = new SingleFlight<String, Directory>();
+
+	/**
+	 * 获取 DEFLATE 压缩条目的数据在 jar 文件中的起始位置。
+	 *
+	 * @param jarFile jar 文件
+	 * @param entryName 条目名称
+	 * @return 压缩数据的起始位置；条目不存在、未压缩或格式不支持时返回 -1
+	 * @throws IOException 读取 jar 失败
+	 */
+	public long getDataOffset(final File jarFile, String entryName) throws IOException {
+		final String path = jarFile.getAbsolutePath();
+		Directory directory = directories.get(path);
+		if (directory == null) {
+			directory = directoryLoads.execute(path, new Callable<Directory>() {
+				@Override
+				public Directory call() throws IOException {
+					Directory loaded = directories.get(path);
+					if (loaded == null) {
+						loaded = readDirectory(jarFile);
+						directories.put(path, loaded);
+					}
+					return loaded;
+				}
+			});
+		}
+		return directory.getDataOffset(jarFile, entryName);
+	}
+
+	/**
+	 * 打开 DEFLATE 压缩条目的解压输入流：直接从 jar 文件中读取压缩数据，使用池中的 Inflater 解压，不经过 JarURLConnection。
+	 *
+	 * @param jarFile jar 文件
+	 * @param entryName 条目名称
+	 * @param compressedSize 压缩后的字节数
+	 * @param pool Inflater 池
+	 * @return 解压后的输入流，调用方负责关闭；无法定位条目时返回 null
+	 * @throws IOException 读取 jar 失败
+	 */
+	public InputStream openInflated(File jarFile, String entryName, long compressedSize, InflaterPool pool) throws IOException {
+		long dataOffset = getDataOffset(jarFile, entryName);
+		if (dataOffset < 0) {
+			return null;
+		}
+		FileChannel channel = FileChannel.open(jarFile.toPath(), StandardOpenOption.READ);
+		try {
+			channel.position(dataOffset);
+		} catch (IOException e) {
+			IOUtils.closeQuietly(channel);
+			throw e;
+		}
+		// 关闭时依次关闭通道并归还 Inflater
+		return new PooledInflaterInputStream(new BoundedInputStream(Channels.newInputStream(channel), compressedSize), pool);
+	}
+
+	/**
+	 * 解析中央目录，记录压缩条目本地文件头的位置
+	 */
+	protected static Directory readDirectory(File jarFile) throws IOException {
+		Map<String, Long> headers = new HashMap<String, Long>();
+		FileChannel channel = FileChannel.open(jarFile.toPath(), StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			int tailSize = (int) Math.min(size, END_HEADER_SIZE + MAX_COMMENT_SIZE);
+			ByteBuffer tail = read(channel, size - tailSize, tailSize);
+			int end = -1;
+			for (int i = tailSize - END_HEADER_SIZE; i >= 0; i--) {
+				if (tail.getInt(i) == END_SIGNATURE) {
+					end = i;
+					break;
+				}
+			}
+			if (end < 0) {
+				return new Directory(headers);
+			}
+			int entries = tail.getShort(end + 10) & 0xFFFF;
+			long centralSize = tail.getInt(end + 12) & 0xFFFFFFFFL;
+			long centralOffset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+			// ZIP64 的目录位置记录在扩展记录中，不做处理
+			if (entries == 0xFFFF || centralSize == 0xFFFFFFFFL || centralOffset == 0xFFFFFFFFL
+					|| centralOffset + centralSize > size || centralSize > Integer.MAX_VALUE) {
+				return new Directory(headers);
+			}
+			ByteBuffer central = read(channel, centralOffset, (int) centralSize);
+			byte[] prefix = WebjarsAssetIndex.RESOURCES_PREFIX.getBytes(ISO_8859_1);
+			int at = 0;
+			while (at + CENTRAL_HEADER_SIZE <= central.limit() && central.getInt(at) == CENTRAL_SIGNATURE) {
+				int flags = central.getShort(at + 8) & 0xFFFF;
+				int method = central.getShort(at + 10) & 0xFFFF;
+				long compressedSize = central.getInt(at + 20) & 0xFFFFFFFFL;
+				long uncompressedSize = central.getInt(at + 24) & 0xFFFFFFFFL;
+				int nameLength = central.getShort(at + 28) & 0xFFFF;
+				int extraLength = central.getShort(at + 30) & 0xFFFF;
+				int commentLength = central.getShort(at + 32) & 0xFFFF;
+				long localOffset = central.getInt(at + 42) & 0xFFFFFFFFL;
+				int nameStart = at + CENTRAL_HEADER_SIZE;
+				if (nameStart + nameLength > central.limit()) {
+					break;
+				}
+				// 目录条目（以 / 结尾）也可能标记为 DEFLATE，不记录
+				if (method == METHOD_DEFLATED && (flags & FLAG_ENCRYPTED) == 0 && compressedSize != 0xFFFFFFFFL
+						&& uncompressedSize != 0xFFFFFFFFL && localOffset != 0xFFFFFFFFL
+						&& startsWith(central, nameStart, nameLength, prefix) && central.get(nameStart + nameLength - 1) != '/') {
+					headers.put(decode(central, nameStart, nameLength, flags), Long.valueOf(localOffset));
+				}
+				at = nameStart + nameLength + extraLength + commentLength;
+			}
+		} finally {
+			IOUtils.closeQuietly(channel);
+		}
+		return new Directory(headers);
+	}
+
+	private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				break;
+			}
+		}
+		((Buffer) buffer).flip();
+		return buffer;
+	}
+
+	private static boolean startsWith(ByteBuffer buffer, int start, int length, byte[] prefix) {
+		if (length < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (buffer.get(start + i) != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String decode(ByteBuffer buffer, int start, int length, int flags) {
+		byte[] name = new byte[length];
+		for (int i = 0; i < length; i++) {
+			name[i] = buffer.get(start + i);
+		}
+		// 未标记 UTF-8 的名称按规范应为 CP437，webjar 中的路径均为 ASCII，两者一致
+		return new String(name, (flags & FLAG_UTF8) != 0 ? UTF_8 : ISO_8859_1);
+	}
+
+	/**
+	 * 单个 jar 的压缩条目：条目名称 -> 本地文件头位置；本地文件头中的扩展字段长度可能与中央目录不同，数据位置在首次使用时读取并记住。
+	 */
+	protected static final class Directory {
+
+		private final Map<String, Long> headers;
+
+		private final ConcurrentMap<String, Long> dataOffsets = new ConcurrentHashMap<String, Long>();
+
+		Directory(Map<String, Long> headers) {
+			this.headers = headers;
+		}
+
+		long getDataOffset(File jarFile, String entryName) throws IOException {
+			Long offset = dataOffsets.get(entryName);
+			if (offset != null) {
+				return offset.longValue();
+			}
+			Long header = headers.get(entryName);
+			if (header == null) {
+				return -1;
+			}
+			long dataOffset = -1;
+			FileChannel channel = FileChannel.open(jarFile.toPath(), StandardOpenOption.READ);
+			try {
+				ByteBuffer local = read(channel, header.longValue(), LOCAL_HEADER_SIZE);
+				if (local.limit() == LOCAL_HEADER_SIZE && local.getInt(0) == LOCAL_SIGNATURE
+						&& (local.getShort(8) & 0xFFFF) == METHOD_DEFLATED) {
+					int nameLength = local.getShort(26) & 0xFFFF;
+					int extraLength = local.getShort(28) & 0xFFFF;
+					dataOffset = header.longValue() + LOCAL_HEADER_SIZE + nameLength + extraLength;
+				}
+			} finally {
+				IOUtils.closeQuietly(channel);
+			}
+			dataOffsets.put(entryName, Long.valueOf(dataOffset));
+			return dataOffset;
+		}
+
+	}
+
+}
@@ -0,0 +1,91 @@
+package org.apache.struts2.webjars.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ *
+ * @className	： PooledGzipOutputStream
+ * @description	： 使用 {@link DeflaterPool} 中 Deflater 的 gzip 输出流：gzip 头尾自行写出，关闭时把 Deflater 归还到池中而不是释放，
+ *              与 GZIPOutputStream 的输出格式相同。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午3:27:36
+ * @version 	V1.0
+ */
+public class PooledGzipOutputStream extends DeflaterOutputStream {
+
+	public static final int HEADER_SIZE = 10;
+
+	public static final int TRAILER_SIZE = 8;
+
+	/** ID1 ID2 CM=8(deflate) FLG=0 MTIME=0 XFL=0 OS=255(unknown) */
+	private static final byte[] HEADER = { 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+	private static final int BUFFER_SIZE = 8 * 1024;
+
+	private final DeflaterPool pool;
+
+	private final CRC32 crc = new CRC32();
+
+	private boolean released;
+
+	/**
+	 * @param output 压缩内容的输出流
+	 * @param pool Deflater 池
+	 * @param level 压缩级别 1-9，-1 表示默认级别
+	 * @throws IOException 写出 gzip 头失败
+	 */
+	public PooledGzipOutputStream(OutputStream output, DeflaterPool pool, int level) throws IOException {
+		super(output, pool.borrow(level), BUFFER_SIZE);
+		this.pool = pool;
+		writeHeader(output);
+	}
+
+	/**
+	 * 写出 gzip 头
+	 */
+	public static void writeHeader(OutputStream output) throws IOException {
+		output.write(HEADER);
+	}
+
+	/**
+	 * gzip 尾：CRC32 与原始大小（模 2^32），均为小端序
+	 */
+	public static byte[] trailer(long crc, long size) {
+		byte[] trailer = new byte[TRAILER_SIZE];
+		for (int i = 0; i < 4; i++) {
+			trailer[i] = (byte) (crc >>> (8 * i));
+			trailer[4 + i] = (byte) (size >>> (8 * i));
+		}
+		return trailer;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		super.write(b, off, len);
+		crc.update(b, off, len);
+	}
+
+	@Override
+	public void finish() throws IOException {
+		if (!def.finished()) {
+			super.finish();
+			out.write(trailer(crc.getValue(), def.getBytesRead()));
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			super.close();
+		} finally {
+			if (!released) {
+				released = true;
+				pool.release(def);
+			}
+		}
+	}
+
+}
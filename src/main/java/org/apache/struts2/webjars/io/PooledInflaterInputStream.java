@@ -0,0 +1,62 @@
+package org.apache.struts2.webjars.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ *
+ * @className	： PooledInflaterInputStream
+ * @description	： 使用 {@link InflaterPool} 中 Inflater 解压原始 DEFLATE 数据的输入流，关闭时把 Inflater 归还到池中而不是释放。
+ *              与 ZipFile 的做法相同，压缩数据读完后补一个空字节，nowrap 模式的 Inflater 可能需要它才能结束。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午3:36:14
+ * @version 	V1.0
+ */
+public class PooledInflaterInputStream extends InflaterInputStream {
+
+	private static final int BUFFER_SIZE = 8 * 1024;
+
+	private final InflaterPool pool;
+
+	private boolean eof;
+
+	private boolean released;
+
+	/**
+	 * @param input 原始 DEFLATE 数据
+	 * @param pool Inflater 池
+	 */
+	public PooledInflaterInputStream(InputStream input, InflaterPool pool) {
+		super(input, pool.borrow(), BUFFER_SIZE);
+		this.pool = pool;
+	}
+
+	@Override
+	protected void fill() throws IOException {
+		if (eof) {
+			throw new EOFException("Unexpected end of ZLIB input stream");
+		}
+		len = in.read(buf, 0, buf.length);
+		if (len == -1) {
+			buf[0] = 0;
+			len = 1;
+			eof = true;
+		}
+		inf.setInput(buf, 0, len);
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			super.close();
+		} finally {
+			if (!released) {
+				released = true;
+				pool.release(inf);
+			}
+		}
+	}
+
+}
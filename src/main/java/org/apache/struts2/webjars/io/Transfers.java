@@ -0,0 +1,32 @@
+package org.apache.struts2.webjars.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.struts2.webjars.utils.IOUtils;
+
+/**
+ *
+ * @className	： Transfers
+ * @description	： 输入流到输出流的复制：Java 7 基线实现使用缓冲区循环复制；
+ *              Java 21 及以上版本由多版本 jar 中的同名类替代，使用 InputStream.transferTo，文件流之间由 JDK 直接走通道传输。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午7:05:12
+ * @version 	V1.0
+ */
+public final class Transfers {
+
+	private Transfers() {
+	}
+
+	/**
+	 * 复制全部内容，两个流均不关闭
+	 *
+	 * @return 复制的字节数
+	 */
+	public static long transfer(InputStream input, OutputStream output) throws IOException {
+		return IOUtils.copyLarge(input, output, new byte[IOUtils.BUFFER_SIZE * 2]);
+	}
+
+}
@@ -0,0 +1,81 @@
+package org.apache.struts2.webjars.matcher;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ *
+ * @className	： CompiledPathMatcher
+ * @description	： 基于 {@link PathPattern} 的 {@link PathMatcher} 实现：每个规则只编译一次，之后的匹配不切分字符串、不使用正则表达式，
+ *              匹配结果与 {@link AntPathMatcher} 相同。规则缓存达到上限后新规则不再缓存（每次临时编译），已缓存的规则不受影响。
+ *              match、matchStart 之外的方法委托给 {@link AntPathMatcher}。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午10:06:37
+ * @version 	V1.0
+ */
+public class CompiledPathMatcher implements PathMatcher {
+
+	private static final int MAX_CACHED_PATTERNS = 4096;
+
+	private final AntPathMatcher delegate = new AntPathMatcher();
+
+	private final ConcurrentMap<String, PathPattern> patterns = new ConcurrentHashMap<String, PathPattern>(64);
+
+	/**
+	 * 获取编译后的规则；需要反复匹配同一规则的调用方可以直接持有返回值，省去每次的缓存查找。
+	 *
+	 * @param pattern Ant 风格路径规则
+	 * @return 编译后的规则
+	 */
+	public PathPattern compile(String pattern) {
+		PathPattern compiled = patterns.get(pattern);
+		if (compiled == null) {
+			compiled = PathPattern.compile(pattern);
+			if (patterns.size() < MAX_CACHED_PATTERNS) {
+				PathPattern existing = patterns.putIfAbsent(pattern, compiled);
+				if (existing != null) {
+					compiled = existing;
+				}
+			}
+		}
+		return compiled;
+	}
+
+	@Override
+	public boolean isPattern(String path) {
+		return delegate.isPattern(path);
+	}
+
+	@Override
+	public boolean match(String pattern, String path) {
+		return compile(pattern).matches(path, 0);
+	}
+
+	@Override
+	public boolean matchStart(String pattern, String path) {
+		return compile(pattern).matchStart(path, 0);
+	}
+
+	@Override
+	public String extractPathWithinPattern(String pattern, String path) {
+		return delegate.extractPathWithinPattern(pattern, path);
+	}
+
+	@Override
+	public Map<String, String> extractUriTemplateVariables(String pattern, String path) {
+		return delegate.extractUriTemplateVariables(pattern, path);
+	}
+
+	@Override
+	public Comparator<String> getPatternComparator(String path) {
+		return delegate.getPatternComparator(path);
+	}
+
+	@Override
+	public String combine(String pattern1, String pattern2) {
+		return delegate.combine(pattern1, pattern2);
+	}
+
+}
@@ -0,0 +1,505 @@
+package org.apache.struts2.webjars.matcher;
+
+/**
+ *
+ * @className	： PathPattern
+ * @description	： 编译后的 Ant 风格路径规则：规则只在编译时切分一次，每一段编译为字符级的状态序列（字面字符、?、*），
+ *              匹配时直接在请求 URI 上按下标前后扫描，不截取字符串、不切分数组、不使用正则表达式，也不分配任何对象。
+ *              匹配结果与默认配置（分隔符 "/"、去除首尾空白）的 {@link AntPathMatcher} 一致：{var} 等同于 *，
+ *              ? 与 * 不匹配换行符；{var:regex} 这类无法用状态序列表达的规则委托给 {@link AntPathMatcher}。
+ *              实例不可变，可被多个线程共享。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午9:41:08
+ * @version 	V1.0
+ */
+public final class PathPattern {
+
+	private static final char SEPARATOR = '/';
+
+	/** 段内状态：匹配任意一个字符 */
+	private static final int ANY_CHAR = -1;
+
+	/** 段内状态：匹配任意多个字符 */
+	private static final int ANY_CHARS = -2;
+
+	private final String pattern;
+
+	private final boolean caseSensitive;
+
+	private final boolean trimTokens;
+
+	/** 每一段的状态序列，"**" 段为 null */
+	private final int[][] segments;
+
+	/** 不含通配符的段，匹配时直接逐字符比较 */
+	private final boolean[] literals;
+
+	/** 恰好为 "*" 的段 */
+	private final boolean[] wildcards;
+
+	/** 规则是否以 "/" 开头、结尾 */
+	private final boolean absolute;
+	private final boolean trailingSeparator;
+
+	/** 无法编译的规则委托给 AntPathMatcher */
+	private final AntPathMatcher fallback;
+
+	/** 第一个通配符之前的字面前缀（去掉末尾的 "/"），用于在完整匹配前快速排除 */
+	private final String prefix;
+
+	private PathPattern(String pattern, boolean caseSensitive, boolean trimTokens, int[][] segments, boolean[] literals,
+			boolean[] wildcards, AntPathMatcher fallback) {
+		this.pattern = pattern;
+		this.caseSensitive = caseSensitive;
+		this.trimTokens = trimTokens;
+		this.segments = segments;
+		this.literals = literals;
+		this.wildcards = wildcards;
+		this.absolute = pattern.length() > 0 && pattern.charAt(0) == SEPARATOR;
+		this.trailingSeparator = pattern.length() > 0 && pattern.charAt(pattern.length() - 1) == SEPARATOR;
+		this.fallback = fallback;
+		this.prefix = literalPrefix(pattern);
+	}
+
+	/**
+	 * 含有 "//" 或空白的前缀与切分后的段不再一一对应，不能用于快速排除
+	 */
+	private static String literalPrefix(String pattern) {
+		int end = 0;
+		while (end < pattern.length()) {
+			char c = pattern.charAt(end);
+			if (c == '*' || c == '?' || c == '{') {
+				break;
+			}
+			if (c <= ' ' || (c == SEPARATOR && end > 0 && pattern.charAt(end - 1) == SEPARATOR)) {
+				return "";
+			}
+			end++;
+		}
+		while (end > 0 && pattern.charAt(end - 1) == SEPARATOR) {
+			end--;
+		}
+		return pattern.substring(0, end);
+	}
+
+	public static PathPattern compile(String pattern) {
+		return compile(pattern, true, true);
+	}
+
+	/**
+	 * 编译路径规则
+	 *
+	 * @param pattern Ant 风格路径规则
+	 * @param caseSensitive 是否区分大小写（与 AntPathMatcher 一致，只对 ASCII 字符生效）
+	 * @param trimTokens 是否去除每一段首尾的空白
+	 * @return 编译后的规则
+	 */
+	public static PathPattern compile(String pattern, boolean caseSensitive, boolean trimTokens) {
+		if (pattern == null) {
+			throw new IllegalArgumentException("Pattern must not be null");
+		}
+		// 先统计段数，只分配一次数组
+		int count = 0;
+		for (long token = nextToken(pattern, 0, pattern.length(), trimTokens); token >= 0;
+				token = nextToken(pattern, tokenEnd(token), pattern.length(), trimTokens)) {
+			count++;
+		}
+		int[][] segments = new int[count][];
+		boolean[] literals = new boolean[count];
+		boolean[] wildcards = new boolean[count];
+		int index = 0;
+		for (long token = nextToken(pattern, 0, pattern.length(), trimTokens); token >= 0;
+				token = nextToken(pattern, tokenEnd(token), pattern.length(), trimTokens)) {
+			String segment = pattern.substring(tokenStart(token), tokenEnd(token));
+			if ("**".equals(segment)) {
+				segments[index++] = null;
+				continue;
+			}
+			int[] states = compileSegment(segment);
+			if (states == null) {
+				AntPathMatcher fallback = new AntPathMatcher();
+				fallback.setCaseSensitive(caseSensitive);
+				fallback.setTrimTokens(trimTokens);
+				return new PathPattern(pattern, caseSensitive, trimTokens, null, null, null, fallback);
+			}
+			boolean literal = true;
+			for (int state : states) {
+				literal &= state >= 0;
+			}
+			literals[index] = literal;
+			wildcards[index] = "*".equals(segment);
+			segments[index++] = states;
+		}
+		return new PathPattern(pattern, caseSensitive, trimTokens, segments, literals, wildcards, null);
+	}
+
+	/**
+	 * 把一段规则编译为状态序列：字面字符保留原值，? 为 ANY_CHAR，* 与 {var} 为 ANY_CHARS（连续的合并为一个）。
+	 *
+	 * @return 状态序列；段中含有 {var:regex}、嵌套或转义的花括号时返回 null
+	 */
+	private static int[] compileSegment(String segment) {
+		int[] states = new int[segment.length()];
+		int length = 0;
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			int state = c;
+			if (c == '?') {
+				state = ANY_CHAR;
+			} else if (c == '*') {
+				state = ANY_CHARS;
+			} else if (c == '{') {
+				int close = segment.indexOf('}', i + 1);
+				// "{}" 和没有闭合的 "{" 按字面字符处理
+				if (close > i + 1) {
+					for (int j = i + 1; j < close; j++) {
+						char v = segment.charAt(j);
+						if (v == '{' || v == ':' || v == '\\') {
+							return null;
+						}
+					}
+					state = ANY_CHARS;
+					i = close;
+				}
+			}
+			if (state == ANY_CHARS && length > 0 && states[length - 1] == ANY_CHARS) {
+				continue;
+			}
+			states[length++] = state;
+		}
+		if (length == states.length) {
+			return states;
+		}
+		int[] trimmed = new int[length];
+		System.arraycopy(states, 0, trimmed, 0, length);
+		return trimmed;
+	}
+
+	public String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * 规则是否完整匹配路径
+	 *
+	 * @param path 请求路径
+	 * @return 是否匹配
+	 */
+	public boolean matches(String path) {
+		return matches(path, 0);
+	}
+
+	/**
+	 * 规则是否完整匹配 path 从 offset 开始的部分，如用上下文路径的长度作为 offset 直接匹配请求 URI。
+	 *
+	 * @param path 请求路径
+	 * @param offset 起始位置
+	 * @return 是否匹配
+	 */
+	public boolean matches(String path, int offset) {
+		return doMatch(path, offset, true);
+	}
+
+	/**
+	 * 规则是否至少匹配到路径的末尾（路径可视为规则的前缀部分）
+	 *
+	 * @param path 请求路径
+	 * @param offset 起始位置
+	 * @return 是否匹配
+	 */
+	public boolean matchStart(String path, int offset) {
+		return doMatch(path, offset, false);
+	}
+
+	/**
+	 * 与 AntPathMatcher.doMatch 相同的算法：先从头匹配到第一个 "**"，再从尾匹配到最后一个 "**"，
+	 * 中间部分依次查找每两个 "**" 之间的段序列。路径的段以 [start, end) 下标对表示，不切分字符串。
+	 */
+	private boolean doMatch(String path, int offset, boolean fullMatch) {
+		if (rejects(path, offset, fullMatch)) {
+			return false;
+		}
+		if (fallback != null) {
+			String tail = offset == 0 ? path : path.substring(offset);
+			return fullMatch ? fallback.match(pattern, tail) : fallback.matchStart(pattern, tail);
+		}
+		int end = path.length();
+		boolean pathAbsolute = offset < end && path.charAt(offset) == SEPARATOR;
+		if (pathAbsolute != absolute) {
+			return false;
+		}
+		int pattStart = 0;
+		int pattEnd = segments.length - 1;
+		// 路径中尚未匹配的区间 [head, tail)
+		int head = offset;
+		int tail = end;
+
+		// 匹配到第一个 "**"
+		while (pattStart <= pattEnd) {
+			if (segments[pattStart] == null) {
+				break;
+			}
+			long token = nextToken(path, head, tail, trimTokens);
+			if (token < 0) {
+				break;
+			}
+			if (!matchSegment(pattStart, path, tokenStart(token), tokenEnd(token))) {
+				return false;
+			}
+			pattStart++;
+			head = tokenEnd(token);
+		}
+
+		if (nextToken(path, head, tail, trimTokens) < 0) {
+			// 路径已匹配完，剩余的规则只能是 * 或 **
+			boolean pathTrailingSeparator = end > offset && path.charAt(end - 1) == SEPARATOR;
+			if (pattStart > pattEnd) {
+				return trailingSeparator == pathTrailingSeparator;
+			}
+			if (!fullMatch) {
+				return true;
+			}
+			if (pattStart == pattEnd && isSingleWildcard(pattStart) && pathTrailingSeparator) {
+				return true;
+			}
+			return onlyDoubleWildcards(pattStart, pattEnd);
+		} else if (pattStart > pattEnd) {
+			// 规则已匹配完，路径还有剩余
+			return false;
+		} else if (!fullMatch && segments[pattStart] == null) {
+			return true;
+		}
+
+		// 从尾部匹配到最后一个 "**"
+		while (pattStart <= pattEnd) {
+			if (segments[pattEnd] == null) {
+				break;
+			}
+			long token = previousToken(path, tail, head, trimTokens);
+			if (token < 0) {
+				break;
+			}
+			if (!matchSegment(pattEnd, path, tokenStart(token), tokenEnd(token))) {
+				return false;
+			}
+			pattEnd--;
+			tail = tokenStart(token);
+		}
+		if (nextToken(path, head, tail, trimTokens) < 0) {
+			return onlyDoubleWildcards(pattStart, pattEnd);
+		}
+
+		// 两个 "**" 之间的段序列在路径中从左到右查找第一个匹配的位置
+		while (pattStart != pattEnd && nextToken(path, head, tail, trimTokens) >= 0) {
+			int pattNext = pattStart + 1;
+			while (pattNext <= pattEnd && segments[pattNext] != null) {
+				pattNext++;
+			}
+			if (pattNext == pattStart + 1) {
+				// "**/**" 的情况，跳过一个
+				pattStart++;
+				continue;
+			}
+			int found = -1;
+			for (long candidate = nextToken(path, head, tail, trimTokens); candidate >= 0 && found < 0;
+					candidate = nextToken(path, tokenEnd(candidate), tail, trimTokens)) {
+				long token = candidate;
+				int matched = pattStart + 1;
+				while (matched < pattNext && token >= 0
+						&& matchSegment(matched, path, tokenStart(token), tokenEnd(token))) {
+					matched++;
+					if (matched < pattNext) {
+						token = nextToken(path, tokenEnd(token), tail, trimTokens);
+					}
+				}
+				if (matched == pattNext) {
+					found = tokenEnd(token);
+				} else if (token < 0) {
+					// 剩余的段已不够
+					return false;
+				}
+			}
+			if (found < 0) {
+				return false;
+			}
+			pattStart = pattNext;
+			head = found;
+		}
+		return onlyDoubleWildcards(pattStart, pattEnd);
+	}
+
+	/**
+	 * 逐字符比较字面前缀，在第一个不同的字符处判定不匹配。路径在该处出现 "//" 或空白时，
+	 * 切分后的段可能仍然匹配，此时不做判定，交给完整匹配。
+	 *
+	 * @return 是否可以确定不匹配
+	 */
+	private boolean rejects(String path, int offset, boolean fullMatch) {
+		int length = prefix.length();
+		for (int i = 0; i < length; i++) {
+			int position = offset + i;
+			if (position >= path.length()) {
+				// 路径比前缀短：完整匹配时剩余的字面段不可能被匹配
+				return fullMatch;
+			}
+			char c = path.charAt(position);
+			if (!same(prefix.charAt(i), c)) {
+				return c > ' ' && !(c == SEPARATOR && i > 0 && path.charAt(position - 1) == SEPARATOR);
+			}
+		}
+		return false;
+	}
+
+	private boolean onlyDoubleWildcards(int from, int to) {
+		for (int i = from; i <= to; i++) {
+			if (segments[i] != null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isSingleWildcard(int index) {
+		return wildcards[index];
+	}
+
+	/**
+	 * 在 path 的 [start, end) 上匹配一段规则，* 匹配失败时回溯到最近的一个 *（贪心 + 单点回溯，线性扫描）
+	 */
+	private boolean matchSegment(int index, String path, int start, int end) {
+		int[] states = segments[index];
+		int count = states.length;
+		if (literals[index]) {
+			if (end - start != count) {
+				return false;
+			}
+			for (int i = 0; i < count; i++) {
+				if (!same(states[i], path.charAt(start + i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		int state = 0;
+		int position = start;
+		int star = -1;
+		int mark = start;
+		while (position < end) {
+			char c = path.charAt(position);
+			if (state < count && states[state] != ANY_CHARS
+					&& (states[state] == ANY_CHAR ? !isLineTerminator(c) : same(states[state], c))) {
+				state++;
+				position++;
+			} else if (state < count && states[state] == ANY_CHARS) {
+				star = state++;
+				mark = position;
+			} else if (star >= 0) {
+				// 让最近的 * 多吞一个字符
+				if (isLineTerminator(path.charAt(mark))) {
+					return false;
+				}
+				position = ++mark;
+				state = star + 1;
+			} else {
+				return false;
+			}
+		}
+		while (state < count && states[state] == ANY_CHARS) {
+			state++;
+		}
+		return state == count;
+	}
+
+	private boolean same(int expected, char actual) {
+		if (expected == actual) {
+			return true;
+		}
+		// 与 Pattern.CASE_INSENSITIVE 一致，只忽略 ASCII 字母的大小写
+		return !caseSensitive && expected < 128 && actual < 128 && toLowerCase(expected) == toLowerCase(actual);
+	}
+
+	private static int toLowerCase(int c) {
+		return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+	}
+
+	/**
+	 * 正则中的 "." 默认不匹配的行结束符
+	 */
+	private static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+
+	/**
+	 * 查找 [from, to) 内的下一段：跳过分隔符，按需去除首尾空白（与 String.trim 相同），忽略空段。
+	 *
+	 * @return 段的起止下标打包为 long（高 32 位为起始，低 32 位为结束）；没有更多段时返回 -1
+	 */
+	private static long nextToken(String s, int from, int to, boolean trim) {
+		int i = from;
+		while (i < to) {
+			while (i < to && s.charAt(i) == SEPARATOR) {
+				i++;
+			}
+			int start = i;
+			while (i < to && s.charAt(i) != SEPARATOR) {
+				i++;
+			}
+			int end = i;
+			if (trim) {
+				while (start < end && s.charAt(start) <= ' ') {
+					start++;
+				}
+				while (end > start && s.charAt(end - 1) <= ' ') {
+					end--;
+				}
+			}
+			if (start < end) {
+				return ((long) start << 32) | end;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 从 to 向前查找 [from, to) 内的上一段，规则同 {@link #nextToken(String, int, int, boolean)}
+	 */
+	private static long previousToken(String s, int to, int from, boolean trim) {
+		int i = to;
+		while (i > from) {
+			while (i > from && s.charAt(i - 1) == SEPARATOR) {
+				i--;
+			}
+			int end = i;
+			while (i > from && s.charAt(i - 1) != SEPARATOR) {
+				i--;
+			}
+			int start = i;
+			if (trim) {
+				while (start < end && s.charAt(start) <= ' ') {
+					start++;
+				}
+				while (end > start && s.charAt(end - 1) <= ' ') {
+					end--;
+				}
+			}
+			if (start < end) {
+				return ((long) start << 32) | end;
+			}
+		}
+		return -1;
+	}
+
+	private static int tokenStart(long token) {
+		return (int) (token >>> 32);
+	}
+
+	private static int tokenEnd(long token) {
+		return (int) token;
+	}
+
+	@Override
+	public String toString() {
+		return pattern;
+	}
+
+}
@@ -0,0 +1,255 @@
+package org.apache.struts2.webjars.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ *
+ * @className	： PathPatternTrie
+ * @description	： 把多个 Ant 风格路径规则按字面前缀（第一个 *、?、{ 之前的部分）编译成一棵字符 Trie，
+ *              一次扫描请求 URI 即可找出可能命中的规则，再由深到浅（字面前缀越长越具体）逐个确认，返回第一个命中的规则。
+ *              形如 /webjars/** 的前缀规则和不含通配符的精确规则直接在 Trie 上判定；其余规则编译为 {@link PathPattern}，直接在 URI 上确认，不截取字符串。
+ *              AntPathMatcher 按段匹配，忽略空段及每段首尾的空白，"//webjars" 也能匹配 "/webjars"：只有规则和 URI 都是规范形式
+ *              （以 "/" 开头，不含 "//" 及空白）时才按字面前缀查找，其余规则在 Trie 之后逐条确认，不规范的 URI 则逐条匹配全部规则，
+ *              结果与逐条调用 AntPathMatcher 一致。
+ *              规则必须在使用前全部添加，之后只读，可被多个线程共享。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午9:02:33
+ * @version 	V1.0
+ */
+public class PathPatternTrie<T> {
+
+	private static final String ANY_PATH_SUFFIX = "/**";
+
+	private final Node<T> root = new Node<T>(null);
+
+	/** 全部规则，按添加顺序 */
+	private final List<Route<T>> routes = new ArrayList<Route<T>>();
+
+	/** 不规范的规则，不放入 Trie，逐条确认 */
+	private final List<Route<T>> scanned = new ArrayList<Route<T>>();
+
+	/**
+	 * 添加一条规则
+	 *
+	 * @param pattern Ant 风格路径规则，如：/webjars/**
+	 * @param target 规则对应的目标
+	 */
+	public void add(String pattern, T target) {
+		Route<T> route;
+		String literal;
+		if (!isNormalized(pattern, 0)) {
+			route = new Route<T>(pattern, target, Route.PATTERN);
+			routes.add(route);
+			scanned.add(route);
+			return;
+		}
+		if (pattern.endsWith(ANY_PATH_SUFFIX) && pattern.length() > ANY_PATH_SUFFIX.length()
+				&& literalLength(pattern, pattern.length() - ANY_PATH_SUFFIX.length()) < 0) {
+			// /webjars/** 同时匹配 /webjars 本身
+			literal = pattern.substring(0, pattern.length() - ANY_PATH_SUFFIX.length());
+			route = new Route<T>(pattern, target, Route.PREFIX);
+		} else {
+			int length = literalLength(pattern, pattern.length());
+			if (length < 0) {
+				literal = pattern;
+				route = new Route<T>(pattern, target, Route.EXACT);
+			} else {
+				// 去掉字面前缀末尾的 "/"：/b/**/** 也匹配 /b
+				while (length > 0 && pattern.charAt(length - 1) == '/') {
+					length--;
+				}
+				literal = pattern.substring(0, length);
+				route = new Route<T>(pattern, target, Route.PATTERN);
+			}
+		}
+		Node<T> node = root;
+		for (int i = 0; i < literal.length(); i++) {
+			node = node.childOrCreate(literal.charAt(i));
+		}
+		node.addRoute(route);
+		routes.add(route);
+	}
+
+	/**
+	 * 查找第一个命中的规则
+	 *
+	 * @param uri 请求 URI
+	 * @param offset 路径在 URI 中的起始位置（即上下文路径的长度）
+	 * @return 命中的规则；没有命中时返回 null
+	 */
+	public Route<T> match(String uri, int offset) {
+		if (!isNormalized(uri, offset)) {
+			// 段的切分与字面前缀不再一一对应，逐条匹配
+			for (int i = 0; i < routes.size(); i++) {
+				Route<T> route = routes.get(i);
+				if (route.compiled.matches(uri, offset)) {
+					return route;
+				}
+			}
+			return null;
+		}
+		int length = uri.length();
+		Node<T> node = root;
+		int depth = 0;
+		// 沿 URI 尽可能向下走
+		while (offset + depth < length) {
+			Node<T> child = node.child(uri.charAt(offset + depth));
+			if (child == null) {
+				break;
+			}
+			node = child;
+			depth++;
+		}
+		// 由深到浅确认候选规则
+		for (; node != null; node = node.parent, depth--) {
+			if (node.routes == null) {
+				continue;
+			}
+			int position = offset + depth;
+			for (int i = 0; i < node.routes.size(); i++) {
+				Route<T> route = node.routes.get(i);
+				switch (route.kind) {
+				case Route.EXACT:
+					if (position == length) {
+						return route;
+					}
+					break;
+				case Route.PREFIX:
+					if (position == length || uri.charAt(position) == '/') {
+						return route;
+					}
+					break;
+				default:
+					if (route.compiled.matches(uri, offset)) {
+						return route;
+					}
+				}
+			}
+		}
+		for (int i = 0; i < scanned.size(); i++) {
+			Route<T> route = scanned.get(i);
+			if (route.compiled.matches(uri, offset)) {
+				return route;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 规范形式：以 "/" 开头，不含 "//" 及空白字符（AntPathMatcher 会去除每段首尾的空白）
+	 */
+	private static boolean isNormalized(String path, int offset) {
+		int length = path.length();
+		if (offset >= length || path.charAt(offset) != '/') {
+			return false;
+		}
+		for (int i = offset + 1; i < length; i++) {
+			char c = path.charAt(i);
+			if (c <= ' ' || (c == '/' && path.charAt(i - 1) == '/')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public boolean isEmpty() {
+		return routes.isEmpty();
+	}
+
+	public int size() {
+		return routes.size();
+	}
+
+	/**
+	 * @return 字面前缀的长度；不含通配符时返回 -1
+	 */
+	private static int literalLength(String pattern, int end) {
+		for (int i = 0; i < end; i++) {
+			char c = pattern.charAt(i);
+			if (c == '*' || c == '?' || c == '{') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 一条已编译的规则
+	 */
+	public static final class Route<T> {
+
+		static final int EXACT = 0;
+		static final int PREFIX = 1;
+		static final int PATTERN = 2;
+
+		private final String pattern;
+		private final T target;
+		private final int kind;
+		private final PathPattern compiled;
+
+		Route(String pattern, T target, int kind) {
+			this.pattern = pattern;
+			this.target = target;
+			this.kind = kind;
+			this.compiled = PathPattern.compile(pattern);
+		}
+
+		public String getPattern() {
+			return pattern;
+		}
+
+		public T getTarget() {
+			return target;
+		}
+
+	}
+
+	private static final class Node<T> {
+
+		final Node<T> parent;
+		char[] keys = new char[0];
+		List<Node<T>> children = new ArrayList<Node<T>>(1);
+		List<Route<T>> routes;
+
+		Node(Node<T> parent) {
+			this.parent = parent;
+		}
+
+		Node<T> child(char c) {
+			int index = Arrays.binarySearch(keys, c);
+			return index < 0 ? null : children.get(index);
+		}
+
+		Node<T> childOrCreate(char c) {
+			int index = Arrays.binarySearch(keys, c);
+			if (index >= 0) {
+				return children.get(index);
+			}
+			int insert = -index - 1;
+			char[] grown = new char[keys.length + 1];
+			System.arraycopy(keys, 0, grown, 0, insert);
+			grown[insert] = c;
+			System.arraycopy(keys, insert, grown, insert + 1, keys.length - insert);
+			keys = grown;
+			Node<T> child = new Node<T>(this);
+			children.add(insert, child);
+			return child;
+		}
+
+		void addRoute(Route<T> route) {
+			if (routes == null) {
+				routes = new ArrayList<Route<T>>(1);
+			}
+			// 同一节点上 /webjars/** 这类前缀规则最后确认，/webjars/*.js 等更具体的规则优先
+			int index = routes.size();
+			while (route.kind != Route.PREFIX && index > 0 && routes.get(index - 1).kind == Route.PREFIX) {
+				index--;
+			}
+			routes.add(index, route);
+		}
+
+	}
+
+}
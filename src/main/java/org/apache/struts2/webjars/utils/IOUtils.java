@@ -22,13 +22,19 @@ import java.io.PrintStream;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
+import java.util.zip.DeflaterOutputStream;
 
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang3.Validate;
+import org.apache.struts2.webjars.io.DeflaterPool;
+import org.apache.struts2.webjars.io.PooledGzipOutputStream;
 
 /**
  * 
@@ -42,6 +48,14 @@ public abstract class IOUtils extends org.apache.commons.io.IOUtils {
 
 	public static final int BUFFER_SIZE = 1024 * 4;
 
+	/** 直接内存写出到流时复用的临时数组 */
+	private static final ThreadLocal<byte[]> TRANSFER_BUFFER = new ThreadLocal<byte[]>() {
+		@Override
+		protected byte[] initialValue() {
+			return new byte[BUFFER_SIZE * 2];
+		}
+	};
+
 	// ---------------------------------------------------------------------
 	// Copy methods for java.io.InputStream / java.io.OutputStream
 	// ---------------------------------------------------------------------
@@ -164,6 +178,42 @@ public abstract class IOUtils extends org.apache.commons.io.IOUtils {
 		out.write(in);
 	}
 
+	/**
+	 * Write the remaining contents of the given ByteBuffer to the given OutputStream.
+	 * Leaves the stream open when done. 输出流本身实现了 WritableByteChannel 时直接写入通道；
+	 * 堆内缓冲区直接写出底层数组；直接内存缓冲区经线程内复用的临时数组分段复制。
+	 * 
+	 * @param buffer
+	 *            the buffer to copy from, its position is advanced
+	 * @param out
+	 *            the OutputStream to copy to
+	 * @return the number of bytes written
+	 * @throws IOException
+	 *             in case of I/O errors
+	 */
+	public static long write(ByteBuffer buffer, OutputStream out) throws IOException {
+		Validate.notNull(buffer, "No ByteBuffer specified");
+		Validate.notNull(out, "No OutputStream specified");
+		long count = buffer.remaining();
+		if (out instanceof WritableByteChannel) {
+			WritableByteChannel channel = (WritableByteChannel) out;
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} else if (buffer.hasArray()) {
+			out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+			((Buffer) buffer).position(buffer.limit());
+		} else {
+			byte[] chunk = TRANSFER_BUFFER.get();
+			while (buffer.hasRemaining()) {
+				int n = Math.min(chunk.length, buffer.remaining());
+				buffer.get(chunk, 0, n);
+				out.write(chunk, 0, n);
+			}
+		}
+		return count;
+	}
+
 	/**
 	 * 方法用途和描述: 输出流
 	 * 
@@ -422,6 +472,94 @@ public abstract class IOUtils extends org.apache.commons.io.IOUtils {
 		return isPrint(output) ? (PrintStream) output : new PrintStream(output);
 	}
 
+	/**
+	 * 读取并丢弃压缩流的前 offset 个字节：InflaterInputStream.skip 每次只解压 512 字节，
+	 * 这里使用线程复用的较大数组，减少解压调用的次数。
+	 *
+	 * @return 实际跳过的字节数，小于 offset 表示流已结束
+	 */
+	public static long skipByReading(InputStream input, long offset) throws IOException {
+		byte[] buffer = TRANSFER_BUFFER.get();
+		long remaining = offset;
+		while (remaining > 0) {
+			int n = input.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+			if (n < 0) {
+				break;
+			}
+			remaining -= n;
+		}
+		return offset - remaining;
+	}
+
+	/**
+	 * 跳过可直接定位的输入流（未压缩的 jar 条目、文件）的前 offset 个字节，skip 不再前进时改为读取并丢弃。
+	 *
+	 * @return 实际跳过的字节数，小于 offset 表示流已结束
+	 */
+	public static long skipSeekable(InputStream input, long offset) throws IOException {
+		long remaining = offset;
+		while (remaining > 0) {
+			long n = input.skip(remaining);
+			if (n <= 0) {
+				remaining -= skipByReading(input, remaining);
+				break;
+			}
+			remaining -= n;
+		}
+		return offset - remaining;
+	}
+
+	/**
+	 * 从输入流当前位置复制 length 个字节到输出流，使用线程复用的数组
+	 *
+	 * @return 实际复制的字节数
+	 */
+	public static long copyRange(InputStream input, OutputStream output, long length) throws IOException {
+		return copyLarge(input, output, 0, length, TRANSFER_BUFFER.get());
+	}
+
+	/**
+	 * 将文件通道中 [position, position + length) 的部分写出到输出流，不改变通道的位置：
+	 * 输出流实现了 WritableByteChannel 时使用 transferTo，否则经线程复用的数组按位置读取。
+	 *
+	 * @return 实际写出的字节数，小于 length 表示文件已结束
+	 */
+	public static long copyRange(FileChannel channel, long position, long length, OutputStream output) throws IOException {
+		long end = Math.min(channel.size(), position + length);
+		long at = position;
+		if (output instanceof WritableByteChannel) {
+			WritableByteChannel target = (WritableByteChannel) output;
+			while (at < end) {
+				at += channel.transferTo(at, end - at, target);
+			}
+			return at - position;
+		}
+		byte[] chunk = TRANSFER_BUFFER.get();
+		ByteBuffer buffer = ByteBuffer.wrap(chunk);
+		while (at < end) {
+			((Buffer) buffer).clear();
+			((Buffer) buffer).limit((int) Math.min(chunk.length, end - at));
+			int n = channel.read(buffer, at);
+			if (n < 0) {
+				break;
+			}
+			output.write(chunk, 0, n);
+			at += n;
+		}
+		return at - position;
+	}
+
+	/**
+	 * 创建指定压缩级别的 gzip 输出流，Deflater 取自共享的池，关闭时归还
+	 *
+	 * @param output 压缩内容的输出流
+	 * @param level 压缩级别 1-9，-1 表示默认级别
+	 * @return gzip 输出流，必须关闭
+	 */
+	public static DeflaterOutputStream toGzipOutputStream(OutputStream output, int level) throws IOException {
+		return new PooledGzipOutputStream(output, DeflaterPool.getShared(), level);
+	}
+
 	/**
 	 *  跳过指定的长度,实现断点续传
 	 */
@@ -0,0 +1,34 @@
+package org.apache.struts2.webjars.io;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * @className	： Counter
+ * @description	： Java 21 版本：使用 LongAdder。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午7:13:48
+ * @version 	V1.0
+ */
+public final class Counter {
+
+	private final LongAdder value = new LongAdder();
+
+	public void increment() {
+		value.increment();
+	}
+
+	public void add(long delta) {
+		value.add(delta);
+	}
+
+	public long get() {
+		return value.sum();
+	}
+
+	@Override
+	public String toString() {
+		return Long.toString(get());
+	}
+
+}
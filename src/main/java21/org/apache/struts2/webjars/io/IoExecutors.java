@@ -0,0 +1,103 @@
+package org.apache.struts2.webjars.io;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * @className	： IoExecutors
+ * @description	： Java 21 版本：每个阻塞 I/O 任务使用一个虚拟线程，大量并发的冷资源读取不再需要同样数量的平台线程；
+ *              同时运行的任务数以 queueSize 为上限，超过时拒绝，由调用方在请求线程中同步输出。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午7:12:26
+ * @version 	V1.0
+ */
+public final class IoExecutors {
+
+	private IoExecutors() {
+	}
+
+	/**
+	 * 创建执行器，调用方负责关闭。
+	 *
+	 * @param queueSize 同时运行的任务数上限，超过时 execute 抛出 RejectedExecutionException
+	 * @return 执行器
+	 */
+	public static ExecutorService create(int queueSize) {
+		return new BoundedExecutor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("webjars-io-", 0).factory()),
+				Math.max(1, queueSize));
+	}
+
+	/**
+	 * @return 任务是否运行在虚拟线程上
+	 */
+	public static boolean isVirtual() {
+		return true;
+	}
+
+	/**
+	 * 以信号量限制同时运行的任务数
+	 */
+	private static final class BoundedExecutor extends AbstractExecutorService {
+
+		private final ExecutorService delegate;
+
+		private final Semaphore permits;
+
+		BoundedExecutor(ExecutorService delegate, int permits) {
+			this.delegate = delegate;
+			this.permits = new Semaphore(permits);
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			if (!permits.tryAcquire()) {
+				throw new RejectedExecutionException("Too many pending webjars I/O tasks");
+			}
+			try {
+				delegate.execute(() -> {
+					try {
+						command.run();
+					} finally {
+						permits.release();
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				permits.release();
+				throw e;
+			}
+		}
+
+		@Override
+		public void shutdown() {
+			delegate.shutdown();
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			return delegate.shutdownNow();
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return delegate.isShutdown();
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return delegate.isTerminated();
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+			return delegate.awaitTermination(timeout, unit);
+		}
+
+	}
+
+}
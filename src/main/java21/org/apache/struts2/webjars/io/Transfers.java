@@ -0,0 +1,29 @@
+package org.apache.struts2.webjars.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ *
+ * @className	： Transfers
+ * @description	： Java 21 版本：使用 InputStream.transferTo。
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ * @date		： 2026年10月18日 下午7:13:05
+ * @version 	V1.0
+ */
+public final class Transfers {
+
+	private Transfers() {
+	}
+
+	/**
+	 * 复制全部内容，两个流均不关闭
+	 *
+	 * @return 复制的字节数
+	 */
+	public static long transfer(InputStream input, OutputStream output) throws IOException {
+		return input.transferTo(output);
+	}
+
+}
@@ -0,0 +1,116 @@
+package org.apache.struts2.webjars;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.servlet.ServletContext;
+
+import org.apache.struts2.webjars.asset.WebjarsAsset;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WebjarsAssetRegistryTest {
+
+	private static final String ENTRY = "META-INF/resources/webjars/a/1.0/a.js";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/** 读取资源内容（解压 jar 条目）的次数 */
+	private final AtomicInteger opens = new AtomicInteger();
+
+	private WebjarsAssetRegistry registry;
+
+	@Before
+	public void createRegistry() throws IOException {
+		// 默认配置：不缓存资源内容，存储方式为 heap
+		Map<String, String> parameters = new HashMap<String, String>();
+		parameters.put(WebjarsSettings.CACHE_DIRECTORY, folder.newFolder("cache").getPath());
+		registry = new WebjarsAssetRegistry(new WebjarsSettings(servletContext(parameters))) {
+			@Override
+			protected InputStream openStream(WebjarsAsset asset) throws IOException {
+				opens.incrementAndGet();
+				return super.openStream(asset);
+			}
+		};
+	}
+
+	@After
+	public void destroyRegistry() {
+		registry.destroy();
+	}
+
+	@Test
+	public void rangesOnDeflatedEntryInflateItOnce() throws IOException {
+		byte[] content = new byte[200000];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) ("0123456789abcdef".charAt(i % 16) + i / 8192);
+		}
+		WebjarsAsset asset = WebjarsAsset.of(ENTRY, new URL("jar:" + jar(content).toURI() + "!/" + ENTRY),
+				"application/javascript", true, null, null);
+		assertFalse(asset.isSeekable());
+		assertArrayEquals(Arrays.copyOfRange(content, 150000, 150100), range(asset, 150000, 100));
+		assertEquals(1, opens.get());
+		// 之后的请求及多区间请求的各个区间直接定位，不再解压前面的内容
+		assertArrayEquals(Arrays.copyOfRange(content, 199990, 200000), range(asset, 199990, 10));
+		assertArrayEquals(Arrays.copyOfRange(content, 5, 10), range(asset, 5, 5));
+		assertArrayEquals(Arrays.copyOfRange(content, 150000, 150100), range(asset, 150000, 100));
+		assertEquals(1, opens.get());
+	}
+
+	private byte[] range(WebjarsAsset asset, long offset, long length) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		assertEquals(length, registry.write(asset, output, offset, length));
+		return output.toByteArray();
+	}
+
+	private File jar(byte[] content) throws IOException {
+		File jar = folder.newFile("a-1.0.jar");
+		ZipOutputStream output = new ZipOutputStream(new FileOutputStream(jar));
+		try {
+			output.putNextEntry(new ZipEntry(ENTRY));
+			output.write(content);
+			output.closeEntry();
+		} finally {
+			output.close();
+		}
+		return jar;
+	}
+
+	private static ServletContext servletContext(final Map<String, String> parameters) {
+		return (ServletContext) Proxy.newProxyInstance(WebjarsAssetRegistryTest.class.getClassLoader(),
+				new Class<?>[] { ServletContext.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if ("getInitParameter".equals(method.getName())) {
+							return parameters.get(args[0]);
+						}
+						if ("getAttribute".equals(method.getName())) {
+							return null;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+
+}
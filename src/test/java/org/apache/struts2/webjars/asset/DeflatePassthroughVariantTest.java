@@ -0,0 +1,125 @@
+package org.apache.struts2.webjars.asset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.struts2.webjars.io.JarEntryLocator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DeflatePassthroughVariantTest {
+
+	private static final String ENTRY = "META-INF/resources/webjars/a/1.0/a.js";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static byte[] content(int size, long seed) {
+		// 可压缩的内容：少量随机字节重复出现
+		Random random = new Random(seed);
+		byte[] words = new byte[64];
+		random.nextBytes(words);
+		byte[] content = new byte[size];
+		for (int i = 0; i < size; i++) {
+			content[i] = words[random.nextInt(8) * 8 + (i & 7)];
+		}
+		return content;
+	}
+
+	private static byte[] read(InputStream input) throws IOException {
+		try {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int n;
+			while ((n = input.read(buffer)) > 0) {
+				output.write(buffer, 0, n);
+			}
+			return output.toByteArray();
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * 输出的 gzip 数据解压后与 JarURLConnection 读到的内容一致
+	 */
+	private static void assertRoundTrip(File jar, byte[] content) throws IOException {
+		WebjarsAsset asset = WebjarsAsset.of(ENTRY, new URL("jar:" + jar.toURI() + "!/" + ENTRY), "application/javascript",
+				true, null, null);
+		assertTrue(DeflatePassthroughVariant.supports(asset));
+		long dataOffset = new JarEntryLocator().getDataOffset(jar, ENTRY);
+		assertTrue(dataOffset > 0);
+		DeflatePassthroughVariant variant = new DeflatePassthroughVariant("gzip", asset, dataOffset);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		assertEquals(variant.getLength(), variant.write(output));
+		assertEquals(variant.getLength(), output.size());
+		byte[] expected = read(asset.openStream());
+		assertArrayEquals(content, expected);
+		// GZIPInputStream 校验尾部的 CRC32 及原始大小
+		assertArrayEquals(expected, read(new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))));
+	}
+
+	@Test
+	public void wrapsEntryWithDataDescriptor() throws IOException {
+		byte[] content = content(100000, 1);
+		File jar = folder.newFile("descriptor.jar");
+		// ZipOutputStream 写入的 DEFLATE 条目带有数据描述符，本地文件头中的大小为 0
+		ZipOutputStream output = new ZipOutputStream(new FileOutputStream(jar));
+		try {
+			output.putNextEntry(new ZipEntry(ENTRY));
+			output.write(content);
+			output.closeEntry();
+		} finally {
+			output.close();
+		}
+		assertRoundTrip(jar, content);
+	}
+
+	@Test
+	public void wrapsEntryWithoutDataDescriptor() throws IOException {
+		byte[] content = content(100000, 2);
+		File jar = folder.newFile("plain.jar");
+		// 写入可随机访问的文件时，ZipArchiveOutputStream 回填本地文件头中的大小，不使用数据描述符
+		ZipArchiveOutputStream output = new ZipArchiveOutputStream(jar);
+		try {
+			ZipArchiveEntry entry = new ZipArchiveEntry(ENTRY);
+			entry.setMethod(ZipEntry.DEFLATED);
+			output.putArchiveEntry(entry);
+			output.write(content);
+			output.closeArchiveEntry();
+		} finally {
+			output.close();
+		}
+		assertRoundTrip(jar, content);
+	}
+
+	@Test
+	public void wrapsEmptyEntry() throws IOException {
+		File jar = folder.newFile("empty.jar");
+		ZipOutputStream output = new ZipOutputStream(new FileOutputStream(jar));
+		try {
+			output.putNextEntry(new ZipEntry(ENTRY));
+			output.closeEntry();
+		} finally {
+			output.close();
+		}
+		assertRoundTrip(jar, new byte[0]);
+	}
+
+}
@@ -0,0 +1,52 @@
+package org.apache.struts2.webjars.asset;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.TimeZone;
+import java.util.zip.ZipEntry;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class WebjarsAssetTest {
+
+	/** 2020-01-01T08:00:00Z */
+	private static final long TIME = 1577865600000L;
+
+	private final TimeZone defaultZone = TimeZone.getDefault();
+
+	@After
+	public void restoreTimeZone() {
+		TimeZone.setDefault(defaultZone);
+	}
+
+	@Test
+	public void dosTimeIsReadAsUtc() {
+		// 打包机器在 UTC+8，条目的 DOS 时间记录为当地时间 08:00
+		TimeZone.setDefault(TimeZone.getTimeZone("Asia/Shanghai"));
+		ZipEntry entry = new ZipEntry("app.js");
+		entry.setTime(TIME - 8 * 3600 * 1000L);
+		for (String zone : new String[] { "UTC", "Asia/Shanghai", "America/New_York" }) {
+			TimeZone.setDefault(TimeZone.getTimeZone(zone));
+			assertEquals(zone, TIME, WebjarsAsset.entryTime(entry));
+		}
+	}
+
+	@Test
+	public void extendedTimestampWins() {
+		TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+		ZipEntry entry = new ZipEntry("app.js");
+		entry.setTime(0L);
+		long seconds = TIME / 1000;
+		entry.setExtra(new byte[] { (byte) 0xfe, (byte) 0xca, 0, 0, 0x55, 0x54, 5, 0, 1, (byte) seconds,
+				(byte) (seconds >> 8), (byte) (seconds >> 16), (byte) (seconds >> 24) });
+		assertEquals(TIME, WebjarsAsset.entryTime(entry));
+	}
+
+	@Test
+	public void encodedETagsAreWeak() {
+		assertEquals("W/\"54481ab5-14-gzip\"", WebjarsAsset.encodedETag("\"54481ab5-14\"", "gzip"));
+		assertEquals("W/\"54481ab5-14-br\"", WebjarsAsset.encodedETag("\"54481ab5-14\"", "br"));
+	}
+
+}
@@ -0,0 +1,198 @@
+package org.apache.struts2.webjars.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class AssetBodyCacheTest {
+
+	private static byte[] content(int size, int seed) {
+		byte[] content = new byte[size];
+		Arrays.fill(content, (byte) seed);
+		return content;
+	}
+
+	private static byte[] read(AssetBodyCache.Body body) {
+		ByteBuffer buffer = body.buffer();
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	@Test
+	public void acquireReturnsCachedContent() {
+		AssetBodyCache cache = new AssetBodyCache(1024, 16);
+		assertNull(cache.acquire("a"));
+		AssetBodyCache.Body put = cache.put("a", content(100, 1));
+		assertNotNull(put);
+		put.release();
+		AssetBodyCache.Body body = cache.acquire("a");
+		assertNotNull(body);
+		assertTrue(Arrays.equals(content(100, 1), read(body)));
+		body.release();
+		assertEquals(100, cache.weightedSize());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void rejectsCandidateThatIsColderThanVictims() {
+		AssetBodyCache cache = new AssetBodyCache(300, 16);
+		for (String key : new String[] { "hot1", "hot2", "hot3" }) {
+			for (int i = 0; i < 5; i++) {
+				cache.acquire(key);
+			}
+			cache.put(key, content(100, 1)).release();
+		}
+		// 只访问过一次的新资源不能挤出热点资源
+		cache.acquire("cold");
+		assertNull(cache.put("cold", content(100, 2)));
+		// 访问更频繁的资源挤出最久未访问的条目
+		for (int i = 0; i < 10; i++) {
+			cache.acquire("hotter");
+		}
+		AssetBodyCache.Body body = cache.put("hotter", content(100, 3));
+		assertNotNull(body);
+		body.release();
+		assertEquals(300, cache.weightedSize());
+		assertNull(cache.acquire("hot1"));
+	}
+
+	@Test
+	public void evictedBodyStaysReadableUntilReleased() {
+		CountingAllocator allocator = new CountingAllocator();
+		AssetBodyCache cache = new AssetBodyCache(100, 16, allocator);
+		cache.put("a", content(100, 1)).release();
+		AssetBodyCache.Body reader = cache.acquire("a");
+		for (int i = 0; i < 10; i++) {
+			cache.acquire("b");
+		}
+		cache.put("b", content(100, 2)).release();
+		assertNull(cache.acquire("a"));
+		assertEquals(0, allocator.released.get());
+		assertTrue(Arrays.equals(content(100, 1), read(reader)));
+		reader.release();
+		assertEquals(1, allocator.released.get());
+	}
+
+	@Test
+	public void admitsHotSmallAssetWhenArenaIsFullOfLargeOnes() {
+		DirectBufferArena arena = new DirectBufferArena(1024 * 1024);
+		AssetBodyCache cache = new AssetBodyCache(1024 * 1024, 16, arena);
+		for (int i = 0; i < 4; i++) {
+			cache.acquire("large" + i);
+			cache.put("large" + i, content(200 * 1024, i)).release();
+		}
+		assertEquals(4, cache.size());
+		for (int i = 0; i < 20; i++) {
+			assertNull(cache.acquire("small"));
+		}
+		// 先淘汰最冷的大文件，其 slab 空出后切分为 1KB 的块
+		AssetBodyCache.Body body = cache.put("small", content(1024, 9));
+		assertNotNull(body);
+		body.release();
+		body = cache.acquire("small");
+		assertNotNull(body);
+		assertTrue(Arrays.equals(content(1024, 9), read(body)));
+		body.release();
+		assertEquals(4, cache.size());
+		assertNull(cache.acquire("large0"));
+		assertTrue(arena.getReserved() <= arena.getCapacity());
+	}
+
+	@Test
+	public void retriesAllocationAfterEvictingMoreVictims() {
+		DirectBufferArena arena = new DirectBufferArena(DirectBufferArena.SLAB_SIZE);
+		// 缓存容量大于分配器容量，按权重无需淘汰，分配失败后才淘汰
+		AssetBodyCache cache = new AssetBodyCache(4L * DirectBufferArena.SLAB_SIZE, 16, arena);
+		cache.acquire("large");
+		cache.put("large", content(200 * 1024, 1)).release();
+		for (int i = 0; i < 5; i++) {
+			cache.acquire("small");
+		}
+		AssetBodyCache.Body body = cache.put("small", content(1024, 2));
+		assertNotNull(body);
+		body.release();
+		assertNull(cache.acquire("large"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void concurrentReadersAndWritersSeeConsistentContent() throws Exception {
+		final CountingAllocator allocator = new CountingAllocator();
+		final AssetBodyCache cache = new AssetBodyCache(64 * 100, 256, allocator);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+			for (int t = 0; t < 8; t++) {
+				final int thread = t;
+				futures.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() {
+						int hits = 0;
+						for (int i = 0; i < 20000; i++) {
+							int key = (i * 31 + thread) % 128;
+							AssetBodyCache.Body body = cache.acquire("k" + key);
+							if (body == null) {
+								body = cache.put("k" + key, content(100, key));
+								if (body == null) {
+									continue;
+								}
+							} else {
+								hits++;
+							}
+							byte[] bytes = read(body);
+							body.release();
+							assertEquals(100, bytes.length);
+							assertEquals((byte) key, bytes[0]);
+							assertEquals((byte) key, bytes[99]);
+						}
+						return Integer.valueOf(hits);
+					}
+				}));
+			}
+			int hits = 0;
+			for (Future<Integer> future : futures) {
+				hits += future.get().intValue();
+			}
+			assertTrue(hits > 0);
+		} finally {
+			executor.shutdown();
+		}
+		assertTrue(cache.weightedSize() <= cache.getMaxSize());
+		cache.clear();
+		assertEquals(allocator.allocated.get(), allocator.released.get());
+	}
+
+	static class CountingAllocator extends HeapBufferAllocator {
+
+		final AtomicInteger allocated = new AtomicInteger();
+
+		final AtomicInteger released = new AtomicInteger();
+
+		@Override
+		public ByteBuffer allocate(int size) {
+			allocated.incrementAndGet();
+			return super.allocate(size);
+		}
+
+		@Override
+		public void release(ByteBuffer buffer) {
+			released.incrementAndGet();
+		}
+
+	}
+
+}
@@ -0,0 +1,69 @@
+package org.apache.struts2.webjars.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class DirectBufferArenaTest {
+
+	@Test
+	public void roundsSmallBuffersUpToSizeClass() {
+		DirectBufferArena arena = new DirectBufferArena(DirectBufferArena.SLAB_SIZE);
+		assertEquals(256, arena.capacityFor(1));
+		assertEquals(256, arena.capacityFor(256));
+		assertEquals(512, arena.capacityFor(257));
+		assertEquals(DirectBufferArena.SLAB_SIZE, arena.capacityFor(200 * 1024));
+		assertEquals(DirectBufferArena.SLAB_SIZE + 1, arena.capacityFor(DirectBufferArena.SLAB_SIZE + 1));
+		ByteBuffer buffer = arena.allocate(300);
+		assertEquals(300, buffer.remaining());
+		assertEquals(512, buffer.capacity());
+	}
+
+	@Test
+	public void respectsCapacity() {
+		DirectBufferArena arena = new DirectBufferArena(2L * DirectBufferArena.SLAB_SIZE);
+		assertNotNull(arena.allocate(DirectBufferArena.SLAB_SIZE));
+		assertNotNull(arena.allocate(DirectBufferArena.SLAB_SIZE));
+		assertNull(arena.allocate(256));
+		assertNull(arena.allocate(DirectBufferArena.SLAB_SIZE + 1));
+		assertEquals(2L * DirectBufferArena.SLAB_SIZE, arena.getReserved());
+	}
+
+	@Test
+	public void emptySlabIsReusedForAnotherSizeClass() {
+		DirectBufferArena arena = new DirectBufferArena(DirectBufferArena.SLAB_SIZE);
+		List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+		for (int i = 0; i < DirectBufferArena.SLAB_SIZE / 1024; i++) {
+			chunks.add(arena.allocate(1024));
+		}
+		assertNull(arena.allocate(4096));
+		for (ByteBuffer chunk : chunks) {
+			arena.release(chunk);
+		}
+		assertEquals(1, arena.getEmptySlabs());
+		ByteBuffer buffer = arena.allocate(4096);
+		assertNotNull(buffer);
+		assertEquals(4096, buffer.capacity());
+		assertEquals(0, arena.getEmptySlabs());
+		assertEquals(DirectBufferArena.SLAB_SIZE, arena.getReserved());
+	}
+
+	@Test
+	public void emptySlabIsDroppedForLargeBuffer() {
+		DirectBufferArena arena = new DirectBufferArena(2L * DirectBufferArena.SLAB_SIZE);
+		arena.release(arena.allocate(1024));
+		assertEquals(1, arena.getEmptySlabs());
+		ByteBuffer large = arena.allocate(DirectBufferArena.SLAB_SIZE + DirectBufferArena.SLAB_SIZE / 2);
+		assertNotNull(large);
+		assertEquals(0, arena.getEmptySlabs());
+		arena.release(large);
+		assertEquals(0, arena.getReserved());
+	}
+
+}
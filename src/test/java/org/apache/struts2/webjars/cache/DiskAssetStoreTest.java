@@ -0,0 +1,235 @@
+package org.apache.struts2.webjars.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.struts2.webjars.asset.WebjarsAsset;
+import org.apache.struts2.webjars.utils.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DiskAssetStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static void write(File file, String content, long lastModified) throws IOException {
+		FileOutputStream output = new FileOutputStream(file);
+		try {
+			output.write(content.getBytes("UTF-8"));
+		} finally {
+			output.close();
+		}
+		file.setLastModified(lastModified);
+	}
+
+	private static String read(ByteBuffer buffer) throws IOException {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return new String(bytes, "UTF-8");
+	}
+
+	private static byte[] read(InputStream input) throws IOException {
+		try {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			IOUtils.copyLarge(input, output);
+			return output.toByteArray();
+		} finally {
+			input.close();
+		}
+	}
+
+	private static byte[] content(int size) {
+		byte[] content = new byte[size];
+		for (int i = 0; i < size; i++) {
+			content[i] = (byte) ("0123456789abcdef".charAt(i % 16) + i / 4096);
+		}
+		return content;
+	}
+
+	private static File jar(File jar, String entryName, byte[] content) throws IOException {
+		ZipOutputStream output = new ZipOutputStream(new FileOutputStream(jar));
+		try {
+			output.putNextEntry(new ZipEntry(entryName));
+			output.write(content);
+			output.closeEntry();
+		} finally {
+			output.close();
+		}
+		return jar;
+	}
+
+	private static WebjarsAsset asset(File jar, String entryName) throws IOException {
+		URL resource = new URL("jar:" + jar.toURI() + "!/" + entryName);
+		return WebjarsAsset.of(entryName, resource, "application/javascript", true, null, null);
+	}
+
+	/**
+	 * 目录下的全部文件（含子目录中的文件）
+	 */
+	private static List<File> files(File directory) {
+		List<File> files = new ArrayList<File>();
+		File[] children = directory.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				if (child.isDirectory()) {
+					files.addAll(files(child));
+				} else {
+					files.add(child);
+				}
+			}
+		}
+		return files;
+	}
+
+	private static final String ENTRY = "META-INF/resources/webjars/a/1.0/a.js";
+
+	@Test
+	public void reusesChecksumDirectoryAcrossInstances() throws IOException {
+		File cache = folder.newFolder("cache");
+		byte[] content = content(20000);
+		WebjarsAsset asset = asset(jar(folder.newFile("a-1.0.jar"), ENTRY, content), ENTRY);
+		File extracted = new DiskAssetStore(cache).getFile(asset);
+		assertNotNull(extracted);
+		assertArrayEquals(content, read(new FileInputStream(extracted)));
+		// 子目录名为 jar 文件名及 jar 内容的 CRC32
+		String relative = extracted.getPath().substring(cache.getPath().length() + 1);
+		assertTrue(relative, relative.startsWith("a-1.0.jar-"));
+		assertTrue(relative, relative.endsWith(new File(ENTRY).getPath()));
+		extracted.setLastModified(1000000000000L);
+		// 新的实例（如重启后）按 jar 内容找到同一目录，不再解压
+		DiskAssetStore restarted = new DiskAssetStore(cache);
+		assertNull(restarted.findFile(asset));
+		assertEquals(extracted, restarted.getFile(asset));
+		assertEquals(1000000000000L, extracted.lastModified());
+		assertEquals(extracted, restarted.findFile(asset));
+		// 升级后内容不同的同名 jar 使用另一个目录
+		File upgraded = new File(folder.newFolder("upgraded"), "a-1.0.jar");
+		WebjarsAsset changed = asset(jar(upgraded, ENTRY, content(20001)), ENTRY);
+		File target = new DiskAssetStore(cache).getTarget(changed);
+		assertTrue(target.getPath().startsWith(cache.getPath() + File.separator + "a-1.0.jar-"));
+		assertFalse(target.equals(extracted));
+	}
+
+	@Test
+	public void findingGzipFileDoesNotExtract() throws IOException {
+		File cache = folder.newFolder("cache");
+		WebjarsAsset asset = asset(jar(folder.newFile("a-1.0.jar"), ENTRY, content(20000)), ENTRY);
+		DiskAssetStore store = new DiskAssetStore(cache);
+		assertNull(store.findGzipFile(asset, -1));
+		assertTrue(files(cache).isEmpty());
+		File gzip = store.getGzipFile(asset, -1);
+		assertNotNull(gzip);
+		assertEquals(gzip, store.findGzipFile(asset, -1));
+		assertArrayEquals(content(20000), read(new GZIPInputStream(new FileInputStream(gzip))));
+		assertNull(store.findGzipFile(asset, 9));
+	}
+
+	@Test
+	public void publishesCompleteFilesOnly() throws IOException {
+		File cache = folder.newFolder("cache");
+		WebjarsAsset asset = asset(jar(folder.newFile("a-1.0.jar"), ENTRY, content(100000)), ENTRY);
+		DiskAssetStore store = new DiskAssetStore(cache);
+		store.getGzipFile(asset, 1);
+		// 只留下解压后的文件及压缩文件，临时文件已重命名
+		List<File> files = files(cache);
+		assertEquals(files.toString(), 2, files.size());
+		for (File file : files) {
+			assertFalse(file.getName(), file.getName().endsWith(".tmp"));
+		}
+		// 写入中途失败时目标文件不出现，临时文件被删除
+		final File target = new File(cache, "failed/a.js");
+		InputStream failing = new FilterInputStream(new ByteArrayInputStream(content(100000))) {
+			private int read;
+
+			@Override
+			public int read(byte[] buffer, int offset, int length) throws IOException {
+				if (read > 50000) {
+					throw new IOException("Truncated");
+				}
+				int n = super.read(buffer, offset, length);
+				read += Math.max(n, 0);
+				return n;
+			}
+		};
+		try {
+			store.store(asset, failing, target, null);
+			fail();
+		} catch (IOException e) {
+			// 预期
+		}
+		assertFalse(target.exists());
+		assertTrue(files(target.getParentFile()).isEmpty());
+	}
+
+	@Test
+	public void rejectsEntriesOutsideCacheDirectory() throws IOException {
+		File cache = folder.newFolder("cache");
+		String entryName = "META-INF/resources/webjars/a/1.0/../../../../../../../escaped.js";
+		WebjarsAsset asset = asset(jar(folder.newFile("a-1.0.jar"), entryName, content(100)), entryName);
+		assertEquals(entryName, asset.getEntryName());
+		DiskAssetStore store = new DiskAssetStore(cache);
+		assertNull(store.getFile(asset));
+		assertNull(store.findFile(asset));
+		assertNull(store.getGzipFile(asset, -1));
+		assertNull(store.findGzipFile(asset, -1));
+		assertEquals(-1, store.write(asset, new ByteArrayOutputStream()));
+		assertTrue(files(cache).isEmpty());
+		assertFalse(new File(folder.getRoot(), "escaped.js").exists());
+	}
+
+	@Test
+	public void remapsRegeneratedFile() throws IOException {
+		DiskAssetStore store = new DiskAssetStore(folder.newFolder("cache"));
+		File file = folder.newFile("app.js.gz");
+		write(file, "first", 1000000000000L);
+		assertEquals("first", read(store.getBuffer(file, "/webjars/app.js.gz")));
+		write(file, "regenerated", 1000000002000L);
+		assertEquals("regenerated", read(store.getBuffer(file, "/webjars/app.js.gz")));
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		assertEquals(11, store.write(file, "/webjars/app.js.gz", output, 0, -1));
+		assertEquals("regenerated", output.toString("UTF-8"));
+		assertEquals(1, store.getMappingCount());
+	}
+
+	@Test
+	public void boundsMappings() throws IOException {
+		DiskAssetStore store = new DiskAssetStore(folder.newFolder("cache"), 2);
+		File[] files = new File[3];
+		for (int i = 0; i < files.length; i++) {
+			files[i] = folder.newFile("file" + i);
+			write(files[i], "content" + i, 1000000000000L);
+		}
+		store.getBuffer(files[0], "0");
+		store.getBuffer(files[1], "1");
+		store.getBuffer(files[0], "0");
+		store.getBuffer(files[2], "2");
+		assertEquals(2, store.getMappingCount());
+		// 最久未使用的 1 被丢弃，重新映射后内容不变
+		assertEquals("content1", read(store.getBuffer(files[1], "1")));
+		assertEquals(2, store.getMappingCount());
+	}
+
+}
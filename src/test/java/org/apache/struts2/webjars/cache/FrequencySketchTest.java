@@ -0,0 +1,58 @@
+package org.apache.struts2.webjars.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class FrequencySketchTest {
+
+	@Test
+	public void countsAndSaturatesAtFifteen() {
+		FrequencySketch sketch = new FrequencySketch(64);
+		assertEquals(0, sketch.frequency("a"));
+		for (int i = 1; i <= 15; i++) {
+			sketch.increment("a");
+			assertEquals(i, sketch.frequency("a"));
+		}
+		sketch.increment("a");
+		assertEquals(15, sketch.frequency("a"));
+	}
+
+	@Test
+	public void neverUnderestimates() {
+		FrequencySketch sketch = new FrequencySketch(512);
+		// 总访问次数小于样本数（10 * 512），不会触发减半
+		for (int key = 0; key < 256; key++) {
+			for (int i = 0; i < key % 8; i++) {
+				sketch.increment("key" + key);
+			}
+		}
+		int exact = 0;
+		for (int key = 0; key < 256; key++) {
+			int frequency = sketch.frequency("key" + key);
+			assertTrue(frequency >= key % 8);
+			if (frequency == key % 8) {
+				exact++;
+			}
+		}
+		// 表足够大时绝大多数估算是准确的
+		assertTrue(exact > 240);
+	}
+
+	@Test
+	public void halvesCountersAfterSampleSize() {
+		FrequencySketch sketch = new FrequencySketch(16);
+		for (int i = 0; i < 12; i++) {
+			sketch.increment("hot");
+		}
+		assertEquals(12, sketch.frequency("hot"));
+		// 样本数为 10 * 16，累计到样本数后所有计数器减半
+		for (int i = 0; i < 160; i++) {
+			sketch.increment("other" + i);
+		}
+		assertTrue(sketch.frequency("hot") <= 7);
+		assertTrue(sketch.frequency("hot") >= 6);
+	}
+
+}
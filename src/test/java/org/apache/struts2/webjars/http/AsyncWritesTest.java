@@ -0,0 +1,240 @@
+package org.apache.struts2.webjars.http;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.struts2.webjars.asset.AssetBody;
+import org.junit.Test;
+
+public class AsyncWritesTest {
+
+	private static final byte[] CONTENT = "console.log('webjars');".getBytes();
+
+	/** 拒绝全部任务的线程池，相当于队列已满或已关闭 */
+	private static final Executor REJECTING = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			throw new RejectedExecutionException();
+		}
+	};
+
+	/** AsyncContext 方法的调用次数 */
+	private final Map<String, Integer> calls = new HashMap<String, Integer>();
+
+	/** 响应状态码及 Content-Length */
+	private final Map<String, Object> response = new HashMap<String, Object>();
+
+	private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+	private final AtomicInteger releases = new AtomicInteger();
+
+	private int calls(String name) {
+		Integer count = calls.get(name);
+		return count == null ? 0 : count.intValue();
+	}
+
+	private AssetBody body() {
+		return new AssetBody(CONTENT.length) {
+			@Override
+			public long write(OutputStream output) throws IOException {
+				output.write(CONTENT);
+				return CONTENT.length;
+			}
+
+			@Override
+			public void release() {
+				releases.incrementAndGet();
+			}
+		};
+	}
+
+	private static Callable<AssetBody> loader(final AssetBody body, final Exception failure) {
+		return new Callable<AssetBody>() {
+			@Override
+			public AssetBody call() throws Exception {
+				if (failure != null) {
+					throw failure;
+				}
+				return body;
+			}
+		};
+	}
+
+	@Test
+	public void writesSynchronouslyWhenExecutorRejects() {
+		assertTrue(AsyncWrites.writeLater(request(), response(false), REJECTING, loader(body(), null), 1000));
+		// 在请求线程中加载并输出，返回时已完成
+		assertArrayEquals(CONTENT, written.toByteArray());
+		assertEquals(Integer.valueOf(CONTENT.length), response.get("contentLength"));
+		assertNull(response.get("status"));
+		assertEquals(1, releases.get());
+		assertEquals(1, calls("complete"));
+		assertEquals(Long.valueOf(1000), response.get("timeout"));
+	}
+
+	@Test
+	public void writesOnExecutorThread() {
+		final AtomicInteger executed = new AtomicInteger();
+		Executor executor = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				executed.incrementAndGet();
+				command.run();
+			}
+		};
+		assertTrue(AsyncWrites.writeLater(request(), response(false), executor, loader(body(), null), 1000));
+		assertEquals(1, executed.get());
+		assertArrayEquals(CONTENT, written.toByteArray());
+		assertEquals(1, releases.get());
+		assertEquals(1, calls("complete"));
+	}
+
+	@Test
+	public void sendsNotFoundAndServerError() {
+		AsyncWrites.writeLater(request(), response(false), REJECTING, loader(null, null), 1000);
+		assertEquals(Integer.valueOf(HttpServletResponse.SC_NOT_FOUND), response.get("status"));
+		assertEquals(1, calls("complete"));
+		response.clear();
+		AsyncWrites.writeLater(request(), response(false), REJECTING, loader(null, new IOException("Broken jar")), 1000);
+		assertEquals(Integer.valueOf(HttpServletResponse.SC_INTERNAL_SERVER_ERROR), response.get("status"));
+		assertEquals(2, calls("complete"));
+		assertEquals(0, releases.get());
+	}
+
+	@Test
+	public void skipsErrorStatusOnCommittedResponse() {
+		// 已提交的响应不能再调用 sendError，容器会抛出 IllegalStateException
+		AsyncWrites.writeLater(request(), response(true), REJECTING, loader(null, null), 1000);
+		AsyncWrites.writeLater(request(), response(true), REJECTING, loader(null, new IOException("Broken jar")), 1000);
+		assertNull(response.get("status"));
+		assertEquals(2, calls("complete"));
+	}
+
+	@Test
+	public void pumpReleasesBodyOnce() {
+		AsyncContext asyncContext = asyncContext();
+		AsyncWrites.Pump pump = new AsyncWrites.Pump(asyncContext, outputStream(), ByteBuffer.wrap(CONTENT), body());
+		IOException failure = new IOException("Connection reset");
+		pump.onError(new AsyncEvent(asyncContext, failure));
+		pump.onTimeout(new AsyncEvent(asyncContext));
+		pump.onError(failure);
+		pump.onComplete(new AsyncEvent(asyncContext));
+		assertEquals(1, releases.get());
+		// 超时或出错后结束异步请求，已结束时 complete 抛出的 IllegalStateException 被忽略
+		assertEquals(3, calls("complete"));
+		pump = new AsyncWrites.Pump(asyncContext, outputStream(), ByteBuffer.wrap(CONTENT), body());
+		pump.onComplete(new AsyncEvent(asyncContext));
+		pump.onTimeout(new AsyncEvent(asyncContext));
+		assertEquals(2, releases.get());
+	}
+
+	private ServletOutputStream outputStream() {
+		return new ServletOutputStream() {
+			@Override
+			public void write(int b) {
+				written.write(b);
+			}
+		};
+	}
+
+	private AsyncContext asyncContext() {
+		return (AsyncContext) Proxy.newProxyInstance(AsyncWritesTest.class.getClassLoader(),
+				new Class<?>[] { AsyncContext.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String name = method.getName();
+						calls.put(name, Integer.valueOf(calls(name) + 1));
+						if ("setTimeout".equals(name)) {
+							response.put("timeout", args[0]);
+							return null;
+						}
+						if ("complete".equals(name)) {
+							if (calls(name) > 1) {
+								throw new IllegalStateException("Already completed");
+							}
+							return null;
+						}
+						if ("addListener".equals(name)) {
+							return null;
+						}
+						throw new UnsupportedOperationException(name);
+					}
+				});
+	}
+
+	private HttpServletRequest request() {
+		final AsyncContext asyncContext = asyncContext();
+		return (HttpServletRequest) Proxy.newProxyInstance(AsyncWritesTest.class.getClassLoader(),
+				new Class<?>[] { HttpServletRequest.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String name = method.getName();
+						if ("isAsyncSupported".equals(name)) {
+							return Boolean.TRUE;
+						}
+						if ("isAsyncStarted".equals(name)) {
+							return Boolean.FALSE;
+						}
+						if ("startAsync".equals(name)) {
+							return asyncContext;
+						}
+						throw new UnsupportedOperationException(name);
+					}
+				});
+	}
+
+	/**
+	 * 状态码（"status"）及 Content-Length（"contentLength"）记录到 response 中
+	 */
+	private HttpServletResponse response(final boolean committed) {
+		final ServletOutputStream output = outputStream();
+		return (HttpServletResponse) Proxy.newProxyInstance(AsyncWritesTest.class.getClassLoader(),
+				new Class<?>[] { HttpServletResponse.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String name = method.getName();
+						if ("isCommitted".equals(name)) {
+							return Boolean.valueOf(committed);
+						}
+						if ("sendError".equals(name)) {
+							if (committed) {
+								throw new IllegalStateException("Response already committed");
+							}
+							response.put("status", args[0]);
+							return null;
+						}
+						if ("setContentLength".equals(name)) {
+							response.put("contentLength", args[0]);
+							return null;
+						}
+						if ("getOutputStream".equals(name)) {
+							return output;
+						}
+						throw new UnsupportedOperationException(name);
+					}
+				});
+	}
+
+}
@@ -0,0 +1,29 @@
+package org.apache.struts2.webjars.http;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ConditionalRequestsTest {
+
+	@Test
+	public void matchesStrongETag() {
+		assertTrue(ConditionalRequests.matchesETag("\"54481ab5-14\"", "\"54481ab5-14\""));
+		assertTrue(ConditionalRequests.matchesETag("\"a\", \"54481ab5-14\"", "\"54481ab5-14\""));
+		assertTrue(ConditionalRequests.matchesETag("*", "\"54481ab5-14\""));
+		assertFalse(ConditionalRequests.matchesETag("\"54481ab5-14-gzip\"", "\"54481ab5-14\""));
+		assertFalse(ConditionalRequests.matchesETag(null, "\"54481ab5-14\""));
+	}
+
+	@Test
+	public void weakComparisonForEncodedVariants() {
+		String eTag = "W/\"54481ab5-14-gzip\"";
+		assertTrue(ConditionalRequests.matchesETag(eTag, eTag));
+		assertTrue(ConditionalRequests.matchesETag("\"54481ab5-14-gzip\"", eTag));
+		assertTrue(ConditionalRequests.matchesETag("\"x,y\", W/\"54481ab5-14-gzip\"", eTag));
+		assertFalse(ConditionalRequests.matchesETag("W/\"54481ab5-14-br\"", eTag));
+		assertFalse(ConditionalRequests.matchesETag("W/\"54481ab5-14\"", eTag));
+	}
+
+}
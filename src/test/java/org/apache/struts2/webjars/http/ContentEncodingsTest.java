@@ -0,0 +1,74 @@
+package org.apache.struts2.webjars.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class ContentEncodingsTest {
+
+	private static final String BR = ContentEncodings.BROTLI;
+
+	private static final String GZIP = ContentEncodings.GZIP;
+
+	@Test
+	public void picksHighestQuality() {
+		assertEquals(GZIP, ContentEncodings.negotiate("gzip", true, true));
+		assertEquals(BR, ContentEncodings.negotiate("gzip, deflate, br", true, true));
+		assertEquals(GZIP, ContentEncodings.negotiate("gzip, deflate, br", false, true));
+		assertEquals(GZIP, ContentEncodings.negotiate("br;q=0.8, gzip", true, true));
+		assertEquals(BR, ContentEncodings.negotiate("br;q=0.8, gzip;q=0.5", true, true));
+		assertEquals(GZIP, ContentEncodings.negotiate(" GZIP ; Q = 0.5 ", true, true));
+		assertEquals(GZIP, ContentEncodings.negotiate("x-gzip", true, true));
+		assertNull(ContentEncodings.negotiate("deflate", true, true));
+		assertNull(ContentEncodings.negotiate("", true, true));
+		assertNull(ContentEncodings.negotiate(null, true, true));
+	}
+
+	@Test
+	public void zeroQualityExcludesEncoding() {
+		assertNull(ContentEncodings.negotiate("gzip;q=0", true, true));
+		assertNull(ContentEncodings.negotiate("gzip;q=0.000", true, true));
+		assertEquals(GZIP, ContentEncodings.negotiate("br;q=0, gzip", true, true));
+		assertNull(ContentEncodings.negotiate("br, gzip;q=0", false, true));
+		// 明确列出 q=0 的编码不会被 "*" 重新接受
+		assertEquals(BR, ContentEncodings.negotiate("gzip;q=0, *", true, true));
+		assertNull(ContentEncodings.negotiate("gzip;q=0, *", false, true));
+		assertNull(ContentEncodings.negotiate("*;q=0", true, true));
+	}
+
+	@Test
+	public void wildcardCoversUnlistedEncodings() {
+		assertEquals(BR, ContentEncodings.negotiate("*", true, true));
+		assertEquals(GZIP, ContentEncodings.negotiate("*", false, true));
+		assertEquals(GZIP, ContentEncodings.negotiate("gzip, *;q=0.5", true, true));
+		assertEquals(BR, ContentEncodings.negotiate("gzip;q=0.4, *;q=0.5", true, true));
+	}
+
+	@Test
+	public void identityCompetesWithEncodings() {
+		assertNull(ContentEncodings.negotiate("gzip;q=0.5, identity", true, true));
+		assertNull(ContentEncodings.negotiate("br;q=0.5, gzip;q=0.5, identity;q=0.8", true, true));
+		assertEquals(GZIP, ContentEncodings.negotiate("gzip, identity;q=0.5", true, true));
+		// q 值相同时优先压缩
+		assertEquals(GZIP, ContentEncodings.negotiate("gzip, identity", true, true));
+		assertEquals(GZIP, ContentEncodings.negotiate("identity;q=0, gzip;q=0.1", true, true));
+		// 未列出 identity 时不参与比较
+		assertEquals(GZIP, ContentEncodings.negotiate("gzip;q=0.1", false, true));
+		assertEquals(GZIP, ContentEncodings.negotiate("gzip;q=0.5, *", false, true));
+		// 只接受 identity
+		assertNull(ContentEncodings.negotiate("identity", true, true));
+	}
+
+	@Test
+	public void ignoresMalformedQualities() {
+		assertNull(ContentEncodings.negotiate("gzip;q=abc", true, true));
+		assertNull(ContentEncodings.negotiate("gzip;q=1.5", true, true));
+		assertNull(ContentEncodings.negotiate("gzip;q=1.001", true, true));
+		assertNull(ContentEncodings.negotiate("gzip;q=0.1234", true, true));
+		assertNull(ContentEncodings.negotiate("gzip;q=", true, true));
+		assertEquals(GZIP, ContentEncodings.negotiate("gzip;q=1.000", true, true));
+		assertEquals(GZIP, ContentEncodings.negotiate("br;q=x, gzip;level=9", true, true));
+	}
+
+}
@@ -0,0 +1,173 @@
+package org.apache.struts2.webjars.http;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.struts2.webjars.asset.WebjarsAsset;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RangeRequestsTest {
+
+	private static final long SIZE = 1000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void parsesSingleRanges() {
+		assertArrayEquals(new long[] { 0, 499 }, RangeRequests.parse("bytes=0-499", SIZE));
+		assertArrayEquals(new long[] { 500, 999 }, RangeRequests.parse("bytes=500-", SIZE));
+		assertArrayEquals(new long[] { 900, 999 }, RangeRequests.parse("bytes=900-5000", SIZE));
+		assertArrayEquals(new long[] { 0, 0 }, RangeRequests.parse("bytes=0-0", SIZE));
+		assertArrayEquals(new long[] { 0, 1 }, RangeRequests.parse(" Bytes = 0 - 1 ", SIZE));
+	}
+
+	@Test
+	public void parsesSuffixRanges() {
+		assertArrayEquals(new long[] { 500, 999 }, RangeRequests.parse("bytes=-500", SIZE));
+		assertArrayEquals(new long[] { 999, 999 }, RangeRequests.parse("bytes=-1", SIZE));
+		// 后缀长度超过资源大小时输出全部内容
+		assertArrayEquals(new long[] { 0, 999 }, RangeRequests.parse("bytes=-5000", SIZE));
+		assertArrayEquals(new long[0], RangeRequests.parse("bytes=-0", SIZE));
+		assertArrayEquals(new long[] { 0, 0, 999, 999 }, RangeRequests.parse("bytes=0-0,-1", SIZE));
+	}
+
+	@Test
+	public void dropsUnsatisfiableRanges() {
+		assertArrayEquals(new long[0], RangeRequests.parse("bytes=1000-", SIZE));
+		assertArrayEquals(new long[0], RangeRequests.parse("bytes=1000-1200,2000-", SIZE));
+		assertArrayEquals(new long[] { 0, 9 }, RangeRequests.parse("bytes=1000-,0-9", SIZE));
+		assertArrayEquals(new long[0], RangeRequests.parse("bytes=0-", 0));
+		assertArrayEquals(new long[0], RangeRequests.parse("bytes=-1", 0));
+	}
+
+	@Test
+	public void ignoresInvalidHeaders() {
+		for (String header : new String[] { "bytes=5-1", "bytes=a-b", "bytes=1-a", "items=0-1", "bytes=", "bytes=-",
+				"bytes 0-1", "bytes=0-1,x", "bytes=--1", "bytes=0-99999999999999999999" }) {
+			assertNull(header, RangeRequests.parse(header, SIZE));
+		}
+		assertArrayEquals(new long[] { 0, 1, 3, 4 }, RangeRequests.parse("bytes=0-1,,3-4,", SIZE));
+	}
+
+	@Test
+	public void coalescesOverlappingRanges() {
+		assertArrayEquals(new long[] { 0, 149 }, RangeRequests.parse("bytes=0-99,50-149", SIZE));
+		assertArrayEquals(new long[] { 0, 150, 200, 299 }, RangeRequests.parse("bytes=200-299,0-99,100-150", SIZE));
+		assertArrayEquals(new long[] { 0, 999 }, RangeRequests.parse("bytes=0-,0-,0-,-1", SIZE));
+		assertArrayEquals(new long[] { 900, 999 }, RangeRequests.parse("bytes=-100,950-", SIZE));
+		// 不重叠的区间保持请求中的顺序
+		assertArrayEquals(new long[] { 500, 599, 0, 99 }, RangeRequests.parse("bytes=500-599,0-99", SIZE));
+	}
+
+	@Test
+	public void limitsNumberOfRanges() {
+		StringBuilder header = new StringBuilder("bytes=");
+		for (int i = 0; i < 16; i++) {
+			header.append(i == 0 ? "" : ",").append(i * 10).append('-').append(i * 10 + 1);
+		}
+		assertEquals(32, RangeRequests.parse(header.toString(), SIZE).length);
+		// 超过 16 个区间时忽略 Range，重叠的区间同样计数
+		assertNull(RangeRequests.parse(header.append(",200-201").toString(), SIZE));
+		header = new StringBuilder("bytes=0-0");
+		for (int i = 0; i < 16; i++) {
+			header.append(",0-0");
+		}
+		assertNull(RangeRequests.parse(header.toString(), SIZE));
+	}
+
+	@Test
+	public void respondsWith416WhenNoRangeIsSatisfiable() throws IOException {
+		Map<String, String> requestHeaders = new HashMap<String, String>();
+		requestHeaders.put(RangeRequests.HEADER_RANGE, "bytes=1000-,2000-2001");
+		Map<String, Object> response = new HashMap<String, Object>();
+		assertTrue(RangeRequests.serve(request(requestHeaders), response(response), null, asset(), "text/plain"));
+		assertEquals(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, response.get("status"));
+		assertEquals("bytes */1000", response.get(RangeRequests.HEADER_CONTENT_RANGE));
+		assertEquals("bytes", response.get(RangeRequests.HEADER_ACCEPT_RANGES));
+	}
+
+	@Test
+	public void servesFullContentWhenIfRangeDoesNotMatch() throws IOException {
+		Map<String, String> requestHeaders = new HashMap<String, String>();
+		requestHeaders.put(RangeRequests.HEADER_RANGE, "bytes=1000-");
+		requestHeaders.put(RangeRequests.HEADER_IF_RANGE, "\"stale\"");
+		Map<String, Object> response = new HashMap<String, Object>();
+		assertFalse(RangeRequests.serve(request(requestHeaders), response(response), null, asset(), "text/plain"));
+		assertNull(response.get("status"));
+		// 无效的 Range 同样按普通请求输出
+		requestHeaders.remove(RangeRequests.HEADER_IF_RANGE);
+		requestHeaders.put(RangeRequests.HEADER_RANGE, "bytes=5-1");
+		assertFalse(RangeRequests.serve(request(requestHeaders), response(response), null, asset(), "text/plain"));
+		assertNull(response.get("status"));
+	}
+
+	private WebjarsAsset asset() throws IOException {
+		File file = folder.newFile();
+		FileOutputStream output = new FileOutputStream(file);
+		try {
+			output.write(new byte[(int) SIZE]);
+		} finally {
+			output.close();
+		}
+		return WebjarsAsset.of("META-INF/resources/webjars/a/1.0/a.txt", file.toURI().toURL(), "text/plain", true, null, null);
+	}
+
+	private static HttpServletRequest request(final Map<String, String> headers) {
+		return (HttpServletRequest) Proxy.newProxyInstance(RangeRequestsTest.class.getClassLoader(),
+				new Class<?>[] { HttpServletRequest.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if ("getHeader".equals(method.getName())) {
+							return headers.get(args[0]);
+						}
+						if ("getMethod".equals(method.getName())) {
+							return "GET";
+						}
+						if ("getDateHeader".equals(method.getName())) {
+							return Long.valueOf(-1);
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+
+	/**
+	 * 响应头及状态码（"status"）记录到 values 中
+	 */
+	private static HttpServletResponse response(final Map<String, Object> values) {
+		return (HttpServletResponse) Proxy.newProxyInstance(RangeRequestsTest.class.getClassLoader(),
+				new Class<?>[] { HttpServletResponse.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if ("setHeader".equals(method.getName())) {
+							values.put((String) args[0], args[1]);
+							return null;
+						}
+						if ("sendError".equals(method.getName()) || "setStatus".equals(method.getName())) {
+							values.put("status", args[0]);
+							return null;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+
+}
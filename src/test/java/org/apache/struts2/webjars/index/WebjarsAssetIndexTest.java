@@ -0,0 +1,152 @@
+package org.apache.struts2.webjars.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.webjars.MultipleMatchesException;
+import org.webjars.WebJarAssetLocator;
+
+public class WebjarsAssetIndexTest {
+
+	private static WebJarAssetLocator locator;
+
+	private static WebjarsAssetIndex index;
+
+	private static List<String> assets;
+
+	@BeforeClass
+	public static void buildIndex() {
+		// 测试类路径中的 jquery webjar
+		locator = new WebJarAssetLocator();
+		assets = new ArrayList<String>();
+		for (String asset : locator.listAssets()) {
+			if (asset.startsWith(WebjarsAssetIndex.WEBJARS_PATH_PREFIX)) {
+				assets.add(asset);
+			}
+		}
+		Collections.sort(assets);
+		index = WebjarsAssetIndex.build(locator.getFullPathIndex().values());
+		assertTrue(assets.contains("META-INF/resources/webjars/jquery/3.4.1/jquery.js"));
+	}
+
+	private static String find(int found) {
+		return found >= 0 ? index.getPath(found) : null;
+	}
+
+	/**
+	 * WebJarAssetLocator 的结果：唯一匹配返回完整路径，多个匹配返回 "AMBIGUOUS"，找不到返回 null
+	 */
+	private static String locate(String webjar, String path) {
+		try {
+			return webjar == null ? locator.getFullPath(path) : locator.getFullPath(webjar, path);
+		} catch (MultipleMatchesException e) {
+			return "AMBIGUOUS";
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 按目录段对齐的方式，在全部资源中找出以 suffix 结尾的资源
+	 */
+	private static List<String> aligned(String suffix) {
+		List<String> matches = new ArrayList<String>();
+		for (String asset : assets) {
+			if (asset.endsWith("/" + suffix)) {
+				matches.add(asset);
+			}
+		}
+		return matches;
+	}
+
+	@Test
+	public void indexesEveryLocatorAsset() {
+		assertEquals(assets, index.listAssets());
+		for (String asset : assets) {
+			assertEquals(asset, find(index.findFullPath(asset)));
+			assertEquals(asset, find(index.findExact(asset.substring(WebjarsAssetIndex.RESOURCES_PREFIX.length()))));
+			assertEquals(asset, locate(null, asset));
+		}
+	}
+
+	@Test
+	public void partialPathsAgreeWithLocator() {
+		for (String asset : assets) {
+			String path = asset.substring(WebjarsAssetIndex.WEBJARS_PATH_PREFIX.length());
+			for (int slash = -1; slash < path.length(); slash = path.indexOf('/', slash + 1)) {
+				String suffix = path.substring(slash + 1);
+				List<String> expected = aligned(suffix);
+				assertEquals(suffix, expected, index.findAll(suffix));
+				int found = index.find(suffix);
+				if (expected.size() > 1) {
+					assertEquals(suffix, WebjarsAssetIndex.AMBIGUOUS, found);
+				} else {
+					assertEquals(suffix, asset, find(found));
+				}
+				assertEquals(suffix, locate(null, suffix), found == WebjarsAssetIndex.AMBIGUOUS ? "AMBIGUOUS" : find(found));
+				if (slash < 0) {
+					break;
+				}
+			}
+		}
+	}
+
+	@Test
+	public void webjarScopedLookupsAgreeWithLocator() {
+		for (String path : Arrays.asList("jquery.js", "3.4.1/jquery.min.js", "dist/jquery.js", "jquery.min.map", "missing.js")) {
+			assertEquals(path, locate("jquery", path), find(index.find("jquery", path)));
+		}
+		assertEquals(WebjarsAssetIndex.NOT_FOUND, index.find("bootstrap", "jquery.js"));
+	}
+
+	@Test
+	public void versionlessPathsResolveToTheSingleVersion() {
+		assertEquals("3.4.1", index.getVersion("jquery"));
+		assertEquals(locate("jquery", "jquery.js"), find(index.find("/webjars/jquery/jquery.js")));
+		assertEquals(find(index.find("/webjars/jquery/3.4.1/jquery.js")), find(index.findVersionless("/webjars/jquery/jquery.js")));
+		// 已带版本号的路径不再补全
+		assertEquals(WebjarsAssetIndex.NOT_FOUND, index.findVersionless("/webjars/jquery/3.4.1/jquery.js"));
+	}
+
+	@Test
+	public void missingPathsAreNotFound() {
+		for (String path : Arrays.asList("missing.js", "/webjars/jquery/3.4.1/missing.js", "/webjars/missing/1.0/a.js", "", "/", "dist/")) {
+			assertEquals(path, WebjarsAssetIndex.NOT_FOUND, index.find(path));
+		}
+		assertEquals(null, locate(null, "missing.js"));
+	}
+
+	@Test
+	public void partialPathsMustBeSegmentAligned() {
+		for (String path : Arrays.asList("query.min.js", "min.js", "1/jquery.js")) {
+			assertEquals(path, null, locate(null, path));
+			assertEquals(path, WebjarsAssetIndex.NOT_FOUND, index.find(path));
+		}
+	}
+
+	@Test
+	public void ignoresDirectoriesAndForeignPaths() {
+		WebjarsAssetIndex small = WebjarsAssetIndex.build(Arrays.asList("META-INF/resources/webjars/a/1.0/a.js",
+				"META-INF/resources/webjars/a/1.0/", "META-INF/resources/other/b.js", null, "META-INF/resources/webjars/a/1.0/a.js"));
+		assertEquals(1, small.size());
+		assertEquals(0, small.find("a.js"));
+	}
+
+	@Test
+	public void conflictingVersionsAreNotCompleted() {
+		WebjarsAssetIndex twoVersions = WebjarsAssetIndex.build(Arrays.asList("META-INF/resources/webjars/a/1.0/a.js",
+				"META-INF/resources/webjars/a/2.0/a.js"));
+		assertEquals(null, twoVersions.getVersion("a"));
+		assertEquals(WebjarsAssetIndex.NOT_FOUND, twoVersions.findVersionless("/webjars/a/a.js"));
+		assertEquals(WebjarsAssetIndex.AMBIGUOUS, twoVersions.find("a.js"));
+		assertEquals("META-INF/resources/webjars/a/2.0/a.js", twoVersions.getPath(twoVersions.find("2.0/a.js")));
+	}
+
+}
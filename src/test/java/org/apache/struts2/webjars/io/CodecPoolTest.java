@@ -0,0 +1,80 @@
+package org.apache.struts2.webjars.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CodecPoolTest {
+
+	/**
+	 * 记录重置及释放过的对象
+	 */
+	private static final class RecordingPool extends CodecPool<Object> {
+
+		final List<Object> reset = new ArrayList<Object>();
+
+		final List<Object> ended = new ArrayList<Object>();
+
+		RecordingPool(int stripeCapacity) {
+			super(1, stripeCapacity);
+		}
+
+		@Override
+		protected Object create() {
+			return new Object();
+		}
+
+		@Override
+		protected void reset(Object codec) {
+			reset.add(codec);
+		}
+
+		@Override
+		protected void end(Object codec) {
+			ended.add(codec);
+		}
+
+	}
+
+	@Test
+	public void countsHitsMissesCreatedAndDiscarded() {
+		RecordingPool pool = new RecordingPool(2);
+		Object first = pool.borrow();
+		Object second = pool.borrow();
+		Object third = pool.borrow();
+		assertEquals(0, pool.getHits());
+		assertEquals(3, pool.getMisses());
+		assertEquals(3, pool.getCreated());
+		pool.release(first);
+		pool.release(second);
+		// 分段已满，归还的对象被释放
+		pool.release(third);
+		assertEquals(1, pool.getDiscarded());
+		assertEquals(2, pool.getIdle());
+		assertEquals(3, pool.reset.size());
+		assertEquals(1, pool.ended.size());
+		assertSame(third, pool.ended.get(0));
+		// 后归还的先取出
+		assertSame(second, pool.borrow());
+		assertSame(first, pool.borrow());
+		pool.borrow();
+		assertEquals(2, pool.getHits());
+		assertEquals(4, pool.getMisses());
+		assertEquals(4, pool.getCreated());
+		assertEquals(0, pool.getIdle());
+	}
+
+	@Test
+	public void ignoresNullRelease() {
+		RecordingPool pool = new RecordingPool(2);
+		pool.release(null);
+		assertEquals(0, pool.getIdle());
+		assertEquals(0, pool.getDiscarded());
+		assertEquals(0, pool.reset.size());
+	}
+
+}
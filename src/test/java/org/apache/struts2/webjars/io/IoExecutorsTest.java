@@ -0,0 +1,89 @@
+package org.apache.struts2.webjars.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class IoExecutorsTest {
+
+	@Test
+	public void runsTasksOnReportedThreadKind() throws Exception {
+		ExecutorService executor = IoExecutors.create(4);
+		try {
+			Thread thread = executor.submit(new Callable<Thread>() {
+				@Override
+				public Thread call() {
+					return Thread.currentThread();
+				}
+			}).get(10, TimeUnit.SECONDS);
+			// Java 21 的多版本实现运行在虚拟线程上，基线实现运行在平台线程上
+			boolean virtual = false;
+			try {
+				Method isVirtual = Thread.class.getMethod("isVirtual");
+				virtual = ((Boolean) isVirtual.invoke(thread)).booleanValue();
+			} catch (NoSuchMethodException e) {
+				// Java 21 以下
+			}
+			assertEquals(IoExecutors.isVirtual(), virtual);
+			assertTrue(thread.getName().startsWith("webjars-io-"));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void rejectsWhenQueueIsFull() throws InterruptedException {
+		ExecutorService executor = IoExecutors.create(4);
+		final CountDownLatch release = new CountDownLatch(1);
+		Runnable blocked = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		int accepted = 0;
+		try {
+			for (int i = 0; i < 10000; i++) {
+				executor.execute(blocked);
+				accepted++;
+			}
+			fail("Executor accepted " + accepted + " tasks");
+		} catch (RejectedExecutionException e) {
+			// 线程全部忙碌且队列已满
+		} finally {
+			release.countDown();
+			executor.shutdown();
+		}
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void rejectsAfterShutdown() {
+		ExecutorService executor = IoExecutors.create(4);
+		executor.shutdown();
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+				}
+			});
+			fail();
+		} catch (RejectedExecutionException e) {
+			// 应用停止后由调用方同步输出
+		}
+	}
+
+}
@@ -0,0 +1,208 @@
+package org.apache.struts2.webjars.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JarEntryLocatorTest {
+
+	private static final String DEFLATED = "META-INF/resources/webjars/a/1.0/a.js";
+
+	private static final String STORED = "META-INF/resources/webjars/a/1.0/a.png";
+
+	private static final String OUTSIDE = "META-INF/maven/a/pom.xml";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final InflaterPool pool = new InflaterPool();
+
+	private static byte[] content(int size, long seed) {
+		// 可压缩的内容：少量随机字节重复出现
+		Random random = new Random(seed);
+		byte[] words = new byte[64];
+		random.nextBytes(words);
+		byte[] content = new byte[size];
+		for (int i = 0; i < size; i++) {
+			content[i] = words[random.nextInt(8) * 8 + (i & 7)];
+		}
+		return content;
+	}
+
+	/**
+	 * ZipOutputStream 写入的 DEFLATE 条目带有数据描述符（标志位 3），本地文件头中的大小为 0
+	 */
+	private File dataDescriptorJar(byte[] deflated, byte[] stored) throws IOException {
+		File jar = folder.newFile("descriptor.jar");
+		ZipOutputStream output = new ZipOutputStream(new FileOutputStream(jar));
+		try {
+			output.putNextEntry(new ZipEntry("META-INF/resources/webjars/a/1.0/"));
+			output.closeEntry();
+			ZipEntry entry = new ZipEntry(DEFLATED);
+			// 本地文件头的扩展字段与中央目录不同
+			entry.setExtra(new byte[] { (byte) 0xfe, (byte) 0xca, 4, 0, 1, 2, 3, 4 });
+			output.putNextEntry(entry);
+			output.write(deflated);
+			output.closeEntry();
+			CRC32 crc = new CRC32();
+			crc.update(stored);
+			entry = new ZipEntry(STORED);
+			entry.setMethod(ZipEntry.STORED);
+			entry.setSize(stored.length);
+			entry.setCrc(crc.getValue());
+			output.putNextEntry(entry);
+			output.write(stored);
+			output.closeEntry();
+			output.putNextEntry(new ZipEntry(OUTSIDE));
+			output.write(deflated);
+			output.closeEntry();
+			output.setComment("jar comment");
+		} finally {
+			output.close();
+		}
+		return jar;
+	}
+
+	/**
+	 * 写入可随机访问的文件时，ZipArchiveOutputStream 回填本地文件头中的大小，不使用数据描述符
+	 */
+	private File archiveJar(String name, byte[] deflated, Zip64Mode zip64) throws IOException {
+		File jar = folder.newFile(name);
+		ZipArchiveOutputStream output = new ZipArchiveOutputStream(jar);
+		try {
+			output.setUseZip64(zip64);
+			ZipArchiveEntry entry = new ZipArchiveEntry(DEFLATED);
+			entry.setMethod(ZipEntry.DEFLATED);
+			output.putArchiveEntry(entry);
+			output.write(deflated);
+			output.closeArchiveEntry();
+		} finally {
+			output.close();
+		}
+		return jar;
+	}
+
+	private byte[] inflate(JarEntryLocator locator, File jar, String entryName) throws IOException {
+		ZipFile zip = new ZipFile(jar);
+		long compressedSize;
+		try {
+			compressedSize = zip.getEntry(entryName).getCompressedSize();
+		} finally {
+			zip.close();
+		}
+		InputStream input = locator.openInflated(jar, entryName, compressedSize, pool);
+		if (input == null) {
+			return null;
+		}
+		try {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int n;
+			while ((n = input.read(buffer)) > 0) {
+				output.write(buffer, 0, n);
+			}
+			return output.toByteArray();
+		} finally {
+			input.close();
+		}
+	}
+
+	@Test
+	public void locatesDeflatedEntryWithDataDescriptor() throws IOException {
+		byte[] deflated = content(100000, 1);
+		File jar = dataDescriptorJar(deflated, content(1000, 2));
+		JarEntryLocator locator = new JarEntryLocator();
+		long offset = locator.getDataOffset(jar, DEFLATED);
+		assertTrue(offset > 0);
+		assertEquals(offset, locator.getDataOffset(jar, DEFLATED));
+		assertTrue(Arrays.equals(deflated, inflate(locator, jar, DEFLATED)));
+	}
+
+	@Test
+	public void skipsStoredMissingAndForeignEntries() throws IOException {
+		File jar = dataDescriptorJar(content(1000, 1), content(1000, 2));
+		JarEntryLocator locator = new JarEntryLocator();
+		assertEquals(-1, locator.getDataOffset(jar, STORED));
+		assertEquals(-1, locator.getDataOffset(jar, OUTSIDE));
+		assertEquals(-1, locator.getDataOffset(jar, "META-INF/resources/webjars/a/1.0/missing.js"));
+		assertEquals(-1, locator.getDataOffset(jar, "META-INF/resources/webjars/a/1.0/"));
+		assertNull(inflate(locator, jar, STORED));
+	}
+
+	@Test
+	public void locatesDeflatedEntryWithoutDataDescriptor() throws IOException {
+		byte[] deflated = content(50000, 3);
+		File jar = archiveJar("plain.jar", deflated, Zip64Mode.Never);
+		JarEntryLocator locator = new JarEntryLocator();
+		assertTrue(locator.getDataOffset(jar, DEFLATED) > 0);
+		assertTrue(Arrays.equals(deflated, inflate(locator, jar, DEFLATED)));
+	}
+
+	@Test
+	public void skipsZip64ExtraFieldsInLocalHeader() throws IOException {
+		byte[] deflated = content(50000, 4);
+		// 本地文件头中的大小为 0xFFFFFFFF，实际大小在 ZIP64 扩展字段中；中央目录中为实际大小
+		File jar = archiveJar("zip64.jar", deflated, Zip64Mode.Always);
+		JarEntryLocator locator = new JarEntryLocator();
+		assertTrue(locator.getDataOffset(jar, DEFLATED) > 0);
+		assertTrue(Arrays.equals(deflated, inflate(locator, jar, DEFLATED)));
+	}
+
+	@Test
+	public void fallsBackWhenDirectoryIsOnlyInZip64Record() throws IOException {
+		File jar = archiveJar("zip64-directory.jar", content(50000, 5), Zip64Mode.Always);
+		// 条目数、中央目录位置超出范围时目录结束记录中只有占位值，实际值在 ZIP64 目录结束记录中
+		RandomAccessFile file = new RandomAccessFile(jar, "rw");
+		try {
+			long end = file.length() - 22;
+			file.seek(end);
+			assertEquals(0x504b0506, file.readInt());
+			file.seek(end + 8);
+			file.write(new byte[] { -1, -1, -1, -1 });
+			file.seek(end + 16);
+			file.write(new byte[] { -1, -1, -1, -1 });
+		} finally {
+			file.close();
+		}
+		JarEntryLocator locator = new JarEntryLocator();
+		// 不支持，由调用方改用 JarURLConnection 读取
+		assertEquals(-1, locator.getDataOffset(jar, DEFLATED));
+	}
+
+	@Test
+	public void ignoresFilesThatAreNotZips() throws IOException {
+		File file = folder.newFile("broken.jar");
+		OutputStream output = new FileOutputStream(file);
+		try {
+			output.write(content(1000, 5));
+		} finally {
+			output.close();
+		}
+		JarEntryLocator locator = new JarEntryLocator();
+		assertEquals(-1, locator.getDataOffset(file, DEFLATED));
+		File empty = folder.newFile("empty.jar");
+		assertEquals(-1, locator.getDataOffset(empty, DEFLATED));
+	}
+
+}
@@ -0,0 +1,151 @@
+package org.apache.struts2.webjars.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+import org.junit.Test;
+
+public class PooledStreamsTest {
+
+	private static byte[] content(int size, long seed) {
+		// 可压缩的内容：少量随机字节重复出现
+		Random random = new Random(seed);
+		byte[] words = new byte[64];
+		random.nextBytes(words);
+		byte[] content = new byte[size];
+		for (int i = 0; i < size; i++) {
+			content[i] = words[random.nextInt(8) * 8 + (i & 7)];
+		}
+		return content;
+	}
+
+	private static byte[] read(InputStream input) throws IOException {
+		try {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int n;
+			while ((n = input.read(buffer)) > 0) {
+				output.write(buffer, 0, n);
+			}
+			return output.toByteArray();
+		} finally {
+			input.close();
+		}
+	}
+
+	private static byte[] gzip(DeflaterPool pool, byte[] content, int level) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		PooledGzipOutputStream gzip = new PooledGzipOutputStream(output, pool, level);
+		try {
+			gzip.write(content);
+		} finally {
+			gzip.close();
+		}
+		return output.toByteArray();
+	}
+
+	/**
+	 * jar 条目使用的原始 DEFLATE 数据（nowrap）
+	 */
+	private static byte[] deflate(byte[] content) {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			deflater.setInput(content);
+			deflater.finish();
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			while (!deflater.finished()) {
+				output.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return output.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	@Test
+	public void gzipOutputRoundTrips() throws IOException {
+		DeflaterPool pool = new DeflaterPool();
+		for (int level : new int[] { Deflater.DEFAULT_COMPRESSION, 1, 9 }) {
+			byte[] content = content(100000, level);
+			byte[] compressed = gzip(pool, content, level);
+			assertTrue(compressed.length < content.length);
+			assertArrayEquals(content, read(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+		}
+		assertArrayEquals(new byte[0], read(new GZIPInputStream(new ByteArrayInputStream(gzip(pool, new byte[0], 6)))));
+	}
+
+	@Test
+	public void reusedDeflaterProducesFreshOutput() throws IOException {
+		DeflaterPool pool = new DeflaterPool();
+		byte[] first = content(50000, 1);
+		byte[] second = content(30000, 2);
+		byte[] expected = gzip(new DeflaterPool(), second, 6);
+		gzip(pool, first, 9);
+		assertEquals(1, pool.getIdle());
+		// 取回同一个 Deflater：已重置并按新的级别压缩，输出与新建的 Deflater 完全相同
+		byte[] reused = gzip(pool, second, 6);
+		assertEquals(1, pool.getHits());
+		assertEquals(1, pool.getCreated());
+		assertArrayEquals(expected, reused);
+		assertArrayEquals(second, read(new GZIPInputStream(new ByteArrayInputStream(reused))));
+	}
+
+	@Test
+	public void gzipStreamReleasesDeflaterOnce() throws IOException {
+		DeflaterPool pool = new DeflaterPool();
+		PooledGzipOutputStream gzip = new PooledGzipOutputStream(new ByteArrayOutputStream(), pool, 6);
+		gzip.write(content(1000, 3));
+		gzip.close();
+		gzip.close();
+		assertEquals(1, pool.getIdle());
+	}
+
+	@Test
+	public void reusedInflaterReadsNextEntry() throws IOException {
+		InflaterPool pool = new InflaterPool();
+		byte[] first = content(80000, 4);
+		byte[] second = content(20000, 5);
+		assertArrayEquals(first, read(new PooledInflaterInputStream(new ByteArrayInputStream(deflate(first)), pool)));
+		assertEquals(1, pool.getIdle());
+		assertArrayEquals(second, read(new PooledInflaterInputStream(new ByteArrayInputStream(deflate(second)), pool)));
+		assertEquals(1, pool.getHits());
+		assertEquals(1, pool.getCreated());
+		assertEquals(1, pool.getIdle());
+	}
+
+	@Test
+	public void truncatedEntryStillReturnsInflater() throws IOException {
+		InflaterPool pool = new InflaterPool();
+		byte[] content = content(80000, 6);
+		byte[] deflated = deflate(content);
+		InputStream input = new PooledInflaterInputStream(new ByteArrayInputStream(Arrays.copyOf(deflated, deflated.length / 2)), pool);
+		try {
+			read(input);
+			fail();
+		} catch (EOFException e) {
+			// 压缩数据不完整
+		} catch (ZipException e) {
+			// 截断处恰好无法解码
+		}
+		assertEquals(1, pool.getIdle());
+		// 归还前已重置，取回后可以正常解压
+		assertArrayEquals(content, read(new PooledInflaterInputStream(new ByteArrayInputStream(deflated), pool)));
+		assertEquals(1, pool.getHits());
+		assertEquals(0, pool.getDiscarded());
+	}
+
+}
@@ -0,0 +1,61 @@
+package org.apache.struts2.webjars.matcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PathPatternTest {
+
+	static final String[] PATTERN_TOKENS = { "/", "/", "/", "a", "b", "webjars", "*", "**", "?", "{v}", "x*", "*.js", " ", "." };
+
+	static final String[] PATH_TOKENS = { "/", "/", "/", "a", "b", "webjars", "x", "xy", "app.js", " ", ".", "\n" };
+
+	static String random(Random random, String[] tokens, int max) {
+		StringBuilder builder = new StringBuilder();
+		int count = random.nextInt(max) + 1;
+		for (int i = 0; i < count; i++) {
+			builder.append(tokens[random.nextInt(tokens.length)]);
+		}
+		return builder.toString();
+	}
+
+	private static void assertParity(AntPathMatcher ant, String pattern, String path) {
+		PathPattern compiled = PathPattern.compile(pattern);
+		assertEquals("match " + pattern + " vs " + path, ant.match(pattern, path), compiled.matches(path));
+		assertEquals("matchStart " + pattern + " vs " + path, ant.matchStart(pattern, path), compiled.matchStart(path, 0));
+		assertEquals("offset " + pattern + " vs " + path, ant.match(pattern, path), compiled.matches("/ctx" + path, 4));
+	}
+
+	@Test
+	public void matchesLikeAntPathMatcher() {
+		AntPathMatcher ant = new AntPathMatcher();
+		String[][] cases = { { "/webjars/**", "/webjars" }, { "/webjars/**", "//webjars/x" }, { "/webjars", "//webjars" },
+				{ "/a/*/**", "//a/x" }, { "/b/**/**/", "/b" }, { "/webjars/*.js", "/webjars/app.js" },
+				{ "/webjars/*.js", "/webjars/ app.js " }, { "/webjars/?", "/webjars/\n" }, { "/**/b/**/a", "/x/b/y/a" },
+				{ "/a/{v}/b", "/a/x/b" }, { "/a/{v:[a-z]+}/b", "/a/x/b" }, { "/a/{v:[a-z]+}/b", "/a/1/b" }, { "/", "" } };
+		for (String[] c : cases) {
+			assertParity(ant, c[0], c[1]);
+		}
+	}
+
+	@Test
+	public void fuzzAgainstAntPathMatcher() {
+		AntPathMatcher ant = new AntPathMatcher();
+		Random random = new Random(20261018L);
+		for (int i = 0; i < 100000; i++) {
+			assertParity(ant, random(random, PATTERN_TOKENS, 8), random(random, PATH_TOKENS, 8));
+		}
+	}
+
+	@Test
+	public void caseInsensitive() {
+		PathPattern compiled = PathPattern.compile("/WebJars/*.JS", false, true);
+		assertTrue(compiled.matches("/webjars/app.js"));
+		assertFalse(PathPattern.compile("/WebJars/*.JS").matches("/webjars/app.js"));
+	}
+
+}
@@ -0,0 +1,82 @@
+package org.apache.struts2.webjars.matcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PathPatternTrieTest {
+
+	private static PathPatternTrie<String> trie(String... patterns) {
+		PathPatternTrie<String> trie = new PathPatternTrie<String>();
+		for (String pattern : patterns) {
+			trie.add(pattern, pattern);
+		}
+		return trie;
+	}
+
+	/**
+	 * 与原先逐条调用 AntPathMatcher 的循环比较：是否命中一致，命中的规则确实匹配
+	 */
+	private static void assertParity(AntPathMatcher ant, List<String> patterns, PathPatternTrie<String> trie, String path) {
+		boolean expected = false;
+		for (String pattern : patterns) {
+			expected |= ant.match(pattern, path);
+		}
+		PathPatternTrie.Route<String> route = trie.match("/ctx" + path, 4);
+		assertEquals(patterns + " vs [" + path + "]", expected, route != null);
+		if (route != null) {
+			assertTrue(route.getPattern() + " vs [" + path + "]", ant.match(route.getPattern(), path));
+		}
+	}
+
+	@Test
+	public void matchesLikeAntPathMatcher() {
+		AntPathMatcher ant = new AntPathMatcher();
+		String[][] cases = { { "/webjars", "//webjars" }, { "/a/*/**", "//a/x" }, { "/b/**/**/", "/b" },
+				{ "/webjars/**", "/webjars" }, { "/webjars/**", "/webjars/ " }, { "/webjars", "/webjars " },
+				{ "/**", "" }, { "/**", "/" }, { "webjars/**", "webjars/x" }, { "/webjars/**", "/webjarsx" } };
+		for (String[] c : cases) {
+			List<String> patterns = new ArrayList<String>();
+			patterns.add(c[0]);
+			assertParity(ant, patterns, trie(c[0]), c[1]);
+		}
+	}
+
+	@Test
+	public void prefersMostSpecificPattern() {
+		PathPatternTrie<String> trie = trie("/webjars/**", "/webjars/jquery/**", "/webjars/jquery/*.min.js");
+		assertEquals("/webjars/jquery/*.min.js", trie.match("/webjars/jquery/jquery.min.js", 0).getPattern());
+		assertEquals("/webjars/jquery/**", trie.match("/webjars/jquery/jquery.js", 0).getPattern());
+		assertEquals("/webjars/**", trie.match("/webjars/bootstrap/css/bootstrap.css", 0).getPattern());
+		assertNotNull(trie.match("/app/webjars/jquery/jquery.js", 4));
+		assertNull(trie.match("/static/app.js", 0));
+	}
+
+	@Test
+	public void fuzzAgainstAntPathMatcher() {
+		AntPathMatcher ant = new AntPathMatcher();
+		Random random = new Random(20261018L);
+		for (int i = 0; i < 20000; i++) {
+			List<String> patterns = new ArrayList<String>();
+			int count = random.nextInt(3) + 1;
+			for (int j = 0; j < count; j++) {
+				patterns.add(PathPatternTest.random(random, PathPatternTest.PATTERN_TOKENS, 6));
+			}
+			PathPatternTrie<String> trie = new PathPatternTrie<String>();
+			for (String pattern : patterns) {
+				trie.add(pattern, pattern);
+			}
+			for (int j = 0; j < 10; j++) {
+				assertParity(ant, patterns, trie, PathPatternTest.random(random, PathPatternTest.PATH_TOKENS, 6));
+			}
+		}
+	}
+
+}